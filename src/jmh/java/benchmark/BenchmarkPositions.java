@@ -0,0 +1,38 @@
+package benchmark;
+
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+
+import java.util.Map;
+
+/**
+ * Fixed corpus of the benchmarks, the names are the values of the position params.
+ */
+public final class BenchmarkPositions {
+
+    public static final Map<String, String> positions = Map.of(
+            "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -",
+            "middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "promotion", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rookEndgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+            "pawnEndgame", "8/8/3k4/2p1p3/2P1P3/3K4/8/8 w - - 0 1",
+            "queenEndgame", "8/5k2/8/3Q4/8/2K5/8/6q1 w - - 0 1"
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    public static String fen( String position ) {
+        String fen = positions.get( position );
+        if ( fen == null ) {
+            throw new IllegalArgumentException( "Unknown benchmark position " + position );
+        }
+        return fen;
+    }
+
+    public static Game game( String position, GameType type ) {
+        return Game.getInstance( new GameConfig( fen( position ) ), type );
+    }
+
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import backend.bot.evaluator.BoardChessEvaluator;
+import backend.bot.evaluator.ChessEvaluator;
+import backend.bot.evaluator.PiecePointChessEvaluator;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EvaluatorBenchmark {
+
+    @Param( { "kiwipete", "middlegame", "promotion", "rookEndgame", "pawnEndgame", "queenEndgame" } )
+    private String position;
+
+    @Param( { "MODULE_BASED", "BITBOARD" } )
+    private GameType type;
+
+    private final ChessEvaluator piecePointEvaluator = new PiecePointChessEvaluator();
+
+    private final ChessEvaluator boardEvaluator = new BoardChessEvaluator();
+
+    private Game game;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        this.game = BenchmarkPositions.game( this.position, this.type );
+        this.game.beginSilent();
+    }
+
+    @Benchmark
+    public double piecePointEvaluator() {
+        return this.piecePointEvaluator.evaluate( this.game, TeamColor.WHITE );
+    }
+
+    @Benchmark
+    public double boardEvaluator() {
+        return this.boardEvaluator.evaluate( this.game, TeamColor.WHITE );
+    }
+
+}
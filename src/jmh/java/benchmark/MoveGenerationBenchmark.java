@@ -0,0 +1,62 @@
+package benchmark;
+
+import backend.core.model.Move;
+import backend.core.model.Validation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.MoveGenerator;
+import math.Vector2I;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MoveGenerationBenchmark {
+
+    @Param( { "kiwipete", "middlegame", "promotion", "rookEndgame", "pawnEndgame", "queenEndgame" } )
+    private String position;
+
+    @Param( { "MODULE_BASED", "BITBOARD" } )
+    private GameType type;
+
+    private Game game;
+
+    private List<Move> moves;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        this.game = BenchmarkPositions.game( this.position, this.type );
+        this.game.beginSilent();
+        this.moves = this.game.getPossibleMoves( this.game.getOnMove() );
+    }
+
+    @Benchmark
+    public Set<Vector2I> generateAttackedPositionsBy() {
+        return MoveGenerator.generateAttackedPositionsBy( this.game, this.game.getEnemy( this.game.getOnMove() ) );
+    }
+
+    @Benchmark
+    public List<Validation> getPossibleValidations() {
+        return this.game.getPossibleValidations( this.game.getOnMove() );
+    }
+
+    /**
+     * Makes and undoes every legal move of the position.
+     */
+    @Benchmark
+    public void makeAndUndoMoves( Blackhole blackhole ) {
+        for ( Move move : this.moves ) {
+            blackhole.consume( this.game.makeMove( move ) );
+            this.game.undoLastMove();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import backend.core.model.Move;
+import backend.core.model.MoveHistory;
+import backend.core.notation.AlgebraicNotation;
+import backend.core.notation.FenNotation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class NotationBenchmark {
+
+    @Param( { "kiwipete", "middlegame", "promotion", "rookEndgame", "pawnEndgame", "queenEndgame" } )
+    private String position;
+
+    private final FenNotation fenNotation = new FenNotation();
+
+    private Game game;
+
+    private String fen;
+
+    /**
+     * algebraic notation of the first legal move of the position
+     */
+    private String moveNotation;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        this.fen = BenchmarkPositions.fen( this.position );
+        this.game = BenchmarkPositions.game( this.position, GameType.MODULE_BASED );
+        this.game.beginSilent();
+
+        Move move = this.game.getPossibleMoves( this.game.getOnMove() ).get( 0 );
+        this.game.makeMove( move );
+        MoveHistory entry = this.game.getLastMove();
+        entry.getActions();
+        this.game.undoLastMove();
+        this.moveNotation = AlgebraicNotation.writeCode( this.game, entry );
+    }
+
+    @Benchmark
+    public Game readFen() {
+        return this.fenNotation.read( this.fen );
+    }
+
+    @Benchmark
+    public String writeFen() {
+        return this.fenNotation.write( this.game );
+    }
+
+    @Benchmark
+    public Move readAlgebraicMove() {
+        return AlgebraicNotation.readMove( this.game, this.moveNotation );
+    }
+
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import backend.core.model.Move;
+import backend.core.values.GameType;
+import backend.game.modulebased.GameMB;
+import backend.game.modulebased.validator.ValidationMB;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule validation of the module based game, the bitboard game has no rules.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class RuleValidatorBenchmark {
+
+    @Param( { "kiwipete", "middlegame", "promotion", "rookEndgame", "pawnEndgame", "queenEndgame" } )
+    private String position;
+
+    private GameMB game;
+
+    private List<Move> moves;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        this.game = ( GameMB ) BenchmarkPositions.game( this.position, GameType.MODULE_BASED );
+        this.game.beginSilent();
+        this.moves = this.game.getPossibleMoves( this.game.getOnMove() );
+    }
+
+    /**
+     * Validates every legal move of the position.
+     */
+    @Benchmark
+    public void validateMoves( Blackhole blackhole ) {
+        for ( Move move : this.moves ) {
+            List<ValidationMB> validations = this.game.getRuleValidator().validate( move );
+            blackhole.consume( validations );
+        }
+    }
+
+    /**
+     * Validates all moves of the team on move in one batch.
+     */
+    @Benchmark
+    public Object validateAll() {
+        return this.game.getRuleValidator().validateAll( this.game.getOnMove() );
+    }
+
+}
@@ -1,9 +1,12 @@
 package backend.bot;
 
 import backend.bot.evaluator.ChessEvaluator;
+import backend.core.model.Move;
 import backend.core.values.TeamColor;
 import backend.game.Game;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 @RequiredArgsConstructor
 public abstract class ChessBot {
@@ -12,6 +15,20 @@ public abstract class ChessBot {
 
     protected final ChessEvaluator evaluator;
 
-    public abstract void makeMove( Game game );
+    @Getter
+    @Setter
+    protected SearchLimits limits = SearchLimits.DEFAULT;
+
+    /**
+     * @return the move to play, null if the game is finished or the bot is not on move
+     */
+    public abstract Move findMove( Game game );
+
+    public void makeMove( Game game ) {
+        Move move = findMove( game );
+        if ( move != null ) {
+            game.makeMove( move );
+        }
+    }
 
 }
@@ -8,13 +8,19 @@ import backend.core.values.TeamColor;
 public class ChessBotFactory {
 
     public static ChessBot get( PlayerType player, TeamColor team ) {
-        switch ( player ) {
-            case RANDOM_BOT:
-                return new RandomChessBot( team );
-            case ALPHA_BETA_BOT:
-                return new AlphaBetaChessBot( team );
+        return get( player, team, SearchLimits.DEFAULT );
+    }
+
+    public static ChessBot get( PlayerType player, TeamColor team, SearchLimits limits ) {
+        ChessBot bot = switch ( player ) {
+            case RANDOM_BOT -> new RandomChessBot( team );
+            case ALPHA_BETA_BOT -> new AlphaBetaChessBot( team );
+            default -> null;
+        };
+        if ( bot != null ) {
+            bot.setLimits( limits );
         }
-        return null;
+        return bot;
     }
 
 }
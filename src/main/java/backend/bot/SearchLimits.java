@@ -0,0 +1,53 @@
+package backend.bot;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Budgets of the search for one move, a budget of 0 is unlimited.
+ * No iteration is started after half of the move time is spent, as the next one would likely not finish in time.
+ * The move time, the node budget and the deadline are hard, the running iteration is aborted when one of them is
+ * exhausted and the best move of the last completed iteration is played.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SearchLimits {
+
+    /**
+     * fixed depth without time or node limits
+     */
+    public static final SearchLimits DEFAULT = new SearchLimits( 4, 0L, 0L, 0L );
+
+    /**
+     * deepest iteration, in plies
+     */
+    private final int maxDepth;
+
+    /**
+     * wall-clock budget per move in milliseconds
+     */
+    private final long moveMillis;
+
+    /**
+     * searched nodes per move
+     */
+    private final long nodes;
+
+    /**
+     * milliseconds after the start of the search at which it is aborted in any case, like the time left on a clock,
+     * bounds the search independently of the move time
+     */
+    private final long deadlineMillis;
+
+    /**
+     * @return limits which deepen up to the max depth within the move time and abort at the deadline
+     */
+    public static SearchLimits ofMillis( int maxDepth, long moveMillis, long deadlineMillis ) {
+        return new SearchLimits( maxDepth, moveMillis, 0L, deadlineMillis );
+    }
+
+    public static SearchLimits ofNodes( int maxDepth, long nodes ) {
+        return new SearchLimits( maxDepth, 0L, nodes, 0L );
+    }
+
+}
@@ -1,14 +1,14 @@
 package backend.bot.alphabeta;
 
 import backend.bot.ChessBot;
+import backend.bot.SearchLimits;
 import backend.bot.evaluator.PiecePointChessEvaluator;
 import backend.core.model.Move;
 import backend.core.model.Validation;
-import backend.core.notation.ChessNotation;
-import backend.core.notation.FenNotation;
 import backend.core.values.ActionType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
+import lombok.Getter;
 import misc.Log;
 
 import java.util.ArrayList;
@@ -23,38 +23,112 @@ public class AlphaBetaChessBot extends ChessBot {
             TeamColor.BLACK, false
     );
 
-    private static final int MAX_DEPTH = 4;
+    /**
+     * deepest iteration if the limits do not restrict the depth
+     */
+    private static final int MAX_DEPTH = 64;
 
+    private static final double DRAW_EVAL = 0d;
+
+    /**
+     * nodes of the last search
+     */
+    @Getter
     private long searchedNodes;
 
     private long totalNodes;
 
+    /**
+     * depth of the running iteration
+     */
+    private int iterationDepth;
+
+    /**
+     * best move of the last completed iteration, searched first by the next one
+     */
+    private Move bestMove;
+
+    /**
+     * best moves at the root of the running iteration
+     */
+    private final List<Move> rootMoves = new ArrayList<>();
+
+    private final Random random = new Random();
+
+    private long startNanos;
+
+    private boolean aborted;
+
     public AlphaBetaChessBot( TeamColor teamColor ) {
         super( teamColor, new PiecePointChessEvaluator() );
     }
 
+    /**
+     * Deepens the search one ply per iteration until the max depth or the move time of the {@link #limits} is
+     * reached, see {@link SearchLimits}. An aborted iteration is dropped, its best move is only played if no
+     * iteration was completed.
+     */
     @Override
-    public void makeMove( Game game ) {
-        this.searchedNodes = 0l;
-        this.totalNodes = 0l;
-        if ( !game.isFinished() && game.isOnMove( this.teamColor ) ) {
+    public Move findMove( Game game ) {
+        this.searchedNodes = 0L;
+        this.totalNodes = 0L;
+        this.bestMove = null;
+        this.aborted = false;
+        this.startNanos = System.nanoTime();
+        if ( game.isFinished() || !game.isOnMove( this.teamColor ) ) {
+            return null;
+        }
 
-            ChessNotation fen = new FenNotation();
-            Game sandbox = fen.read( fen.write( game ) );
+        Game sandbox = game.copy();
+        sandbox.beginSilent();
 
-            this.alphaBeta( sandbox, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, roles.get( sandbox.getOnMove() ) );
-            game.makeMove( sandbox.getLastMove().getMove() );
+        int maxDepth = this.limits.getMaxDepth() > 0 ? this.limits.getMaxDepth() : MAX_DEPTH;
+        for ( int depth = 1; depth <= maxDepth; depth++ ) {
+            if ( depth > 1 && this.limits.getMoveMillis() > 0L && elapsedMillis() * 2 >= this.limits.getMoveMillis() ) {
+                break;
+            }
+            this.iterationDepth = depth;
+            this.rootMoves.clear();
+            double eval = this.alphaBeta( sandbox, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, roles.get( sandbox.getOnMove() ) );
+            if ( this.aborted ) {
+                if ( this.bestMove == null && !this.rootMoves.isEmpty() ) {
+                    this.bestMove = this.rootMoves.get( 0 );
+                }
+                Log.info( "Search aborted in depth {} after {}ms - nodes {}/{} searched",
+                        depth, elapsedMillis(), this.searchedNodes, this.totalNodes );
+                break;
+            }
+            if ( !this.rootMoves.isEmpty() ) {
+                this.bestMove = this.rootMoves.get( this.random.nextInt( this.rootMoves.size() ) );
+            }
+            Log.info( "Best move found for depth {}: {} ({}) - nodes {}/{} searched",
+                    depth, this.bestMove, eval, this.searchedNodes, this.totalNodes );
         }
+        return this.bestMove;
     }
 
     private double alphaBeta( Game game, int depth, double alpha, double beta, boolean isMaximizing ) {
 
-        if ( game.isFinished() || depth == MAX_DEPTH ) {
+        if ( this.isAborted() ) {
+            return DRAW_EVAL;
+        }
+
+        // a repeated position can be repeated again, it is scored as a draw without searching it twice
+        if ( depth > 0 && game.isRepetition() ) {
+            return DRAW_EVAL;
+        }
+
+        // mate and stalemate are not resolved here, a node without legal moves is evaluated below
+        if ( game.isDecided() || depth == this.iterationDepth ) {
             return this.evaluator.evaluate( game, TeamColor.WHITE );
         }
 
-        List<Validation> validations = game.getPossibleValidations( game.getOnMove() );
+        // legality of the pseudo legal moves is only checked when they are made
+        List<Validation> validations = game.getPseudoLegalValidations( game.getOnMove() );
         validations = this.sortValidations( validations );
+        if ( depth == 0 ) {
+            this.bestMoveFirst( validations );
+        }
         List<Move> bestMoves = new ArrayList<>();
 
         double bestEval = isMaximizing
@@ -62,14 +136,24 @@ public class AlphaBetaChessBot extends ChessBot {
                 : Double.POSITIVE_INFINITY;
 
         this.totalNodes += validations.size();
+        boolean hasLegalMove = false;
         for ( Validation validation : validations ) {
 
-            this.searchedNodes++;
-
             final Move move = validation.getMove();
-            game.makeMove( move );
+            if ( !game.makeMove( move ) ) {
+                continue;
+            }
+            hasLegalMove = true;
+            this.searchedNodes++;
+            if ( depth == 0 && this.rootMoves.isEmpty() ) {
+                // played if the first iteration is aborted before a move was evaluated
+                this.rootMoves.add( move );
+            }
             double eval = this.alphaBeta( game, depth + 1, alpha, beta, roles.get( game.getOnMove() ) );
             game.undoLastMove();
+            if ( this.aborted ) {
+                return DRAW_EVAL;
+            }
 
             if ( isMaximizing ) {
                 if ( eval > bestEval ) {
@@ -91,6 +175,11 @@ public class AlphaBetaChessBot extends ChessBot {
                 beta = Math.min( beta, bestEval );
             }
 
+            if ( depth == 0 ) {
+                this.rootMoves.clear();
+                this.rootMoves.addAll( bestMoves );
+            }
+
             // prune
             if ( beta <= alpha ) {
                 break;
@@ -98,20 +187,43 @@ public class AlphaBetaChessBot extends ChessBot {
 
         }
 
-        if ( depth == 0 ) {
-            Move bestMove = null;
-            if ( !bestMoves.isEmpty() ) {
-                bestMove = bestMoves.get( new Random().nextInt( bestMoves.size() ) );
-            }
-            Log.info( "Best move found for depth {}: {} ({}) - nodes {}/{} searched",
-                    MAX_DEPTH, bestMove, bestEval, this.searchedNodes, this.totalNodes );
-            game.makeMove( bestMove );
+        if ( !hasLegalMove ) {
+            return this.evaluator.evaluate( game, TeamColor.WHITE );
         }
 
         return bestEval;
 
     }
 
+    /**
+     * The budgets are checked on every node, a single node of this engine can already be expensive.
+     */
+    private boolean isAborted() {
+        if ( !this.aborted ) {
+            long elapsed = this.limits.getMoveMillis() > 0L || this.limits.getDeadlineMillis() > 0L ? elapsedMillis() : 0L;
+            this.aborted = ( this.limits.getNodes() > 0L && this.searchedNodes >= this.limits.getNodes() )
+                    || ( this.limits.getMoveMillis() > 0L && elapsed >= this.limits.getMoveMillis() )
+                    || ( this.limits.getDeadlineMillis() > 0L && elapsed >= this.limits.getDeadlineMillis() );
+        }
+        return this.aborted;
+    }
+
+    private long elapsedMillis() {
+        return ( System.nanoTime() - this.startNanos ) / 1_000_000L;
+    }
+
+    private void bestMoveFirst( List<Validation> validations ) {
+        if ( this.bestMove == null ) {
+            return;
+        }
+        for ( int i = 0; i < validations.size(); i++ ) {
+            if ( this.bestMove.equals( validations.get( i ).getMove() ) ) {
+                validations.add( 0, validations.remove( i ) );
+                return;
+            }
+        }
+    }
+
     private List<Validation> sortValidations( List<Validation> validations ) {
 
         List<Validation> sorted = new ArrayList<>();
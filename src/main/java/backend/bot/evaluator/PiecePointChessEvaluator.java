@@ -1,12 +1,10 @@
 package backend.bot.evaluator;
 
-import backend.core.model.Piece;
 import backend.core.model.Team;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
 
-import java.util.List;
 import java.util.Map;
 
 public class PiecePointChessEvaluator implements ChessEvaluator {
@@ -31,11 +29,10 @@ public class PiecePointChessEvaluator implements ChessEvaluator {
         if ( !team.getKing().isAlive() ) {
             return 0;
         }
-        List<Piece> alivePieces = team.getAlive();
         int sum = 0;
-        for ( Piece piece : alivePieces ) {
-            if ( !piece.isType( PieceType.KING ) ) {
-                sum += pieceValues.get( piece.getType() );
+        for ( PieceType type : PieceType.values() ) {
+            if ( type != PieceType.KING ) {
+                sum += team.getCount( type ) * pieceValues.get( type );
             }
         }
         return sum;
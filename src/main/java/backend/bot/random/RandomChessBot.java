@@ -20,7 +20,7 @@ public class RandomChessBot extends ChessBot {
     }
 
     @Override
-    public void makeMove( Game game ) {
+    public Move findMove( Game game ) {
         if ( !game.isFinished() && game.isOnMove( this.teamColor ) ) {
 
             Team team = game.getTeam( this.teamColor );
@@ -33,9 +33,7 @@ public class RandomChessBot extends ChessBot {
                 List<Move> legalMoves = game.getPossibleMoves( randomPiece );
                 if ( !legalMoves.isEmpty() ) {
                     int randomMoveIdx = this.random.nextInt( legalMoves.size() );
-                    Move legalMove = legalMoves.get( randomMoveIdx );
-                    game.makeMove( legalMove );
-                    return;
+                    return legalMoves.get( randomMoveIdx );
                 }
 
                 alive.remove( randomPieceIdx );
@@ -44,6 +42,7 @@ public class RandomChessBot extends ChessBot {
             throw new IllegalStateException( "Cant make move..." );
 
         }
+        return null;
     }
 
 }
@@ -0,0 +1,152 @@
+package backend.core.model;
+
+import backend.core.values.ActionType;
+import backend.core.values.PieceType;
+import math.Vector2I;
+
+/**
+ * Moves packed into an int: from square (bits 0-7), to square (bits 8-15), promotion (bits 16-19) and flags
+ * (bits 20-24). Squares are indexed y * size + x, 0 is never a valid move.
+ */
+public final class MoveCode {
+
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1;
+
+    public static final int FLAG_AU_PASSANT = 2;
+
+    public static final int FLAG_DOUBLE_PUSH = 4;
+
+    public static final int FLAG_CASTLE_KING = 8;
+
+    public static final int FLAG_CASTLE_QUEEN = 16;
+
+    private static final PieceType[] types = PieceType.values();
+
+    private MoveCode() {
+    }
+
+    public static int encode( int from, int to, PieceType promoteTo, int flags ) {
+        int promotion = promoteTo == null ? 0 : promoteTo.ordinal() + 1;
+        return ( from & 0xFF ) | ( to & 0xFF ) << 8 | promotion << 16 | flags << 20;
+    }
+
+    public static int from( int move ) {
+        return move & 0xFF;
+    }
+
+    public static int to( int move ) {
+        return ( move >>> 8 ) & 0xFF;
+    }
+
+    public static PieceType promotion( int move ) {
+        int promotion = ( move >>> 16 ) & 0xF;
+        return promotion == 0 ? null : types[promotion - 1];
+    }
+
+    public static int flags( int move ) {
+        return move >>> 20;
+    }
+
+    public static boolean hasFlag( int move, int flag ) {
+        return ( flags( move ) & flag ) != 0;
+    }
+
+    public static boolean isCapture( int move ) {
+        return hasFlag( move, FLAG_CAPTURE | FLAG_AU_PASSANT );
+    }
+
+    /**
+     * adapters
+     */
+
+    public static int of( Validation validation, int boardSize ) {
+        Move move = validation.getMove();
+        int flags = 0;
+        if ( validation.hasAction( ActionType.CAPTURE ) ) {
+            flags |= FLAG_CAPTURE;
+        }
+        if ( validation.hasAction( ActionType.CAPTURE_AU_PASSANT ) ) {
+            flags |= FLAG_AU_PASSANT;
+        }
+        if ( validation.hasAction( ActionType.TRIGGER_AU_PASSANT ) ) {
+            flags |= FLAG_DOUBLE_PUSH;
+        }
+        if ( validation.hasAction( ActionType.CASTLE_KING ) ) {
+            flags |= FLAG_CASTLE_KING;
+        }
+        if ( validation.hasAction( ActionType.CASTLE_QUEEN ) ) {
+            flags |= FLAG_CASTLE_QUEEN;
+        }
+        boolean promoting = validation.hasAction( ActionType.PROMOTING_QUEEN )
+                || validation.hasAction( ActionType.PROMOTING_ROOK )
+                || validation.hasAction( ActionType.PROMOTING_BISHOP )
+                || validation.hasAction( ActionType.PROMOTING_KNIGHT );
+        return encode(
+                square( move.getFrom(), boardSize ),
+                square( move.getTo(), boardSize ),
+                promoting ? move.getPromoteTo() : null,
+                flags );
+    }
+
+    public static Move toMove( int move, int boardSize ) {
+        return toMove( move, vector( from( move ), boardSize ), vector( to( move ), boardSize ) );
+    }
+
+    public static Move toMove( int move, Vector2I from, Vector2I to ) {
+        PieceType promotion = promotion( move );
+        return promotion == null ? new Move( from, to ) : new Move( from, to, promotion );
+    }
+
+    public static Validation toValidation( int move, int boardSize ) {
+        return toValidation( move, toMove( move, boardSize ) );
+    }
+
+    /**
+     * @param move the move code
+     * @param decoded the same move, see {@link #toMove(int, int)}
+     */
+    public static Validation toValidation( int move, Move decoded ) {
+        Validation validation = new Validation( decoded );
+        validation.getActions().add( ActionType.MOVE );
+        if ( hasFlag( move, FLAG_CAPTURE ) ) {
+            validation.getActions().add( ActionType.CAPTURE );
+        }
+        if ( hasFlag( move, FLAG_AU_PASSANT ) ) {
+            validation.getActions().add( ActionType.CAPTURE_AU_PASSANT );
+        }
+        if ( hasFlag( move, FLAG_DOUBLE_PUSH ) ) {
+            validation.getActions().add( ActionType.TRIGGER_AU_PASSANT );
+        }
+        if ( hasFlag( move, FLAG_CASTLE_KING ) ) {
+            validation.getActions().add( ActionType.CASTLE_KING );
+        }
+        if ( hasFlag( move, FLAG_CASTLE_QUEEN ) ) {
+            validation.getActions().add( ActionType.CASTLE_QUEEN );
+        }
+        PieceType promotion = promotion( move );
+        if ( promotion != null ) {
+            switch ( promotion ) {
+                case QUEEN -> validation.getActions().add( ActionType.PROMOTING_QUEEN );
+                case ROOK -> validation.getActions().add( ActionType.PROMOTING_ROOK );
+                case BISHOP -> validation.getActions().add( ActionType.PROMOTING_BISHOP );
+                case KNIGHT -> validation.getActions().add( ActionType.PROMOTING_KNIGHT );
+            }
+        }
+        return validation;
+    }
+
+    public static int square( Vector2I p, int boardSize ) {
+        return p.y * boardSize + p.x;
+    }
+
+    public static Vector2I vector( int square, int boardSize ) {
+        return new Vector2I( square % boardSize, square / boardSize );
+    }
+
+    public static String toString( int move, int boardSize ) {
+        return toMove( move, boardSize ).toString();
+    }
+
+}
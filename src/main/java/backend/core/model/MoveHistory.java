@@ -3,8 +3,13 @@ package backend.core.model;
 import backend.core.values.ActionType;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -22,4 +27,29 @@ public class MoveHistory {
 
     private final Move move;
 
+    /**
+     * evaluates the deferred check, checkmate and stalemate actions on first access
+     */
+    @Getter( AccessLevel.NONE )
+    @Setter
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Runnable statusResolver;
+
+    public Set<ActionType> getActions() {
+        Runnable resolver = this.statusResolver;
+        if ( resolver != null ) {
+            this.statusResolver = null;
+            resolver.run();
+        }
+        return this.actions;
+    }
+
+    /**
+     * @return a copy with the actions known so far, a deferred status is neither evaluated nor copied
+     */
+    public MoveHistory copyUnresolved() {
+        return new MoveHistory( this.number, Set.copyOf( this.actions ), this.team, this.piece, this.move );
+    }
+
 }
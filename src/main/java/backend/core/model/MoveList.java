@@ -0,0 +1,84 @@
+package backend.core.model;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of packed moves, see {@link MoveCode}. Clearing keeps the buffer, so a list per search ply
+ * enumerates moves without allocating.
+ */
+public class MoveList {
+
+    private int[] moves;
+
+    private int size;
+
+    public MoveList() {
+        this( 256 );
+    }
+
+    public MoveList( int capacity ) {
+        this.moves = new int[Math.max( 1, capacity )];
+    }
+
+    public void add( int move ) {
+        if ( this.size == this.moves.length ) {
+            this.moves = Arrays.copyOf( this.moves, this.size * 2 );
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get( int i ) {
+        return this.moves[i];
+    }
+
+    public void set( int i, int move ) {
+        this.moves[i] = move;
+    }
+
+    public void swap( int i, int j ) {
+        int move = this.moves[i];
+        this.moves[i] = this.moves[j];
+        this.moves[j] = move;
+    }
+
+    public boolean contains( int move ) {
+        for ( int i = 0; i < this.size; i++ ) {
+            if ( this.moves[i] == move ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Buffer with room for additional moves after {@link #size()}. Writers fill it directly and
+     * commit the written moves with {@link #setSize(int)}.
+     */
+    public int[] reserve( int additional ) {
+        if ( this.size + additional > this.moves.length ) {
+            this.moves = Arrays.copyOf( this.moves, Math.max( this.moves.length * 2, this.size + additional ) );
+        }
+        return this.moves;
+    }
+
+    public void setSize( int size ) {
+        this.size = size;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf( this.moves, this.size );
+    }
+
+}
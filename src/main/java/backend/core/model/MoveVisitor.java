@@ -0,0 +1,14 @@
+package backend.core.model;
+
+/**
+ * Callback for push style move enumeration, see {@link MoveCode} for the encoding.
+ */
+@FunctionalInterface
+public interface MoveVisitor {
+
+    /**
+     * @return false to stop the enumeration
+     */
+    boolean visit( int move );
+
+}
@@ -23,4 +23,20 @@ public abstract class Team {
 
     public abstract List<Piece> getPiecesByType( PieceType type, boolean alive );
 
+    /**
+     * Indexed access to the alive pieces, teams with an index of their pieces answer without building a list.
+     */
+
+    public int getAliveCount() {
+        return getAlive().size();
+    }
+
+    public Piece getAlive( int index ) {
+        return getAlive().get( index );
+    }
+
+    public int getCount( PieceType type ) {
+        return getPiecesByType( type, true ).size();
+    }
+
 }
@@ -2,6 +2,7 @@ package backend.core.notation;
 
 import backend.core.exception.NotationParsingException;
 import backend.core.model.Piece;
+import backend.core.values.Dir;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
@@ -96,7 +97,9 @@ public class FenNotation implements ChessNotation {
         if ( game.getAuPassantPosition() == null ) {
             notation += EMPTY;
         } else {
-            notation += AlgebraicNotation.getPosCode( game.getAuPassantPosition() );
+            // the game holds the pawn which can be captured, FEN the square behind it
+            Vector2I behind = game.isOnMove( TeamColor.WHITE ) ? Dir.UP.vector : Dir.DOWN.vector;
+            notation += AlgebraicNotation.getPosCode( game.getAuPassantPosition().add( behind ) );
         }
 
         /** MOVE COUNTS */
@@ -0,0 +1,5 @@
+package backend.core.values;
+
+public enum GameType {
+    MODULE_BASED, BITBOARD
+}
@@ -4,15 +4,19 @@ import backend.core.model.*;
 import backend.core.notation.ChessNotation;
 import backend.core.values.ActionType;
 import backend.core.values.GameState;
+import backend.core.values.GameType;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
+import backend.game.bitboard.BitboardTables;
+import backend.game.bitboard.GameBB;
 import backend.game.modulebased.GameMB;
 import lombok.Getter;
 import lombok.Setter;
 import math.Vector2I;
-import util.MathUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,21 +24,40 @@ import java.util.Set;
 public abstract class Game {
 
     public static Game getInstance() {
-        return new GameMB( new GameConfig() );
+        return getInstance( new GameConfig() );
     }
 
     public static Game getInstance( final GameConfig config ) {
-        return new GameMB( config );
+        return getInstance( config, config.getType(), false );
     }
 
     public static Game getInstance( final GameConfig config, final boolean canLog ) {
-        return new GameMB( config, canLog );
+        return getInstance( config, config.getType(), canLog );
+    }
+
+    public static Game getInstance( final GameConfig config, final GameType type ) {
+        return getInstance( config, type, false );
+    }
+
+    public static Game getInstance( final GameConfig config, final GameType type, final boolean canLog ) {
+        switch ( type ) {
+            case BITBOARD:
+                return new GameBB( config, canLog );
+            case MODULE_BASED:
+            default:
+                return new GameMB( config, canLog );
+        }
     }
 
     @Getter
     protected final GameConfig config;
 
+    /**
+     * canonical squares of the board size
+     */
     @Getter
+    protected final Squares squares;
+
     protected GameState state;
 
     @Getter
@@ -56,10 +79,8 @@ public abstract class Game {
     @Getter
     protected boolean blackCanCastleQueen;
 
-    @Getter
     protected int moveNumber;
 
-    @Getter
     protected int halfMoveRuleCount;
 
     @Setter
@@ -71,8 +92,38 @@ public abstract class Game {
 
     private List<GameListener> listeners;
 
+    /**
+     * nesting depth of silent sections, events and logging are suppressed while positive
+     */
+    private int silentDepth;
+
+    /**
+     * true if an event was suppressed in the current silent section
+     */
+    private boolean eventSuppressed;
+
+    /**
+     * latest published read view, only maintained once it was requested
+     */
+    private volatile GameSnapshot snapshot;
+
+    private volatile boolean publishing;
+
+    /**
+     * check, checkmate and stalemate of the position after the last move, reused by every move
+     */
+    private final PendingStatus pendingStatus = new PendingStatus();
+
+    /**
+     * [ply] zobrist hashes of the positions of the game, the last one is the current position
+     */
+    private long[] positionHashes = new long[64];
+
+    private int positionCount;
+
     public Game( GameConfig config ) {
         this.config = config;
+        this.squares = Squares.of( config.getBoardSize() );
         this.listeners = new ArrayList<>();
         this.resetStates();
     }
@@ -83,6 +134,11 @@ public abstract class Game {
 
     public abstract void reset();
 
+    /**
+     * @return an independent copy on the same backend, with the undo and repetition history of the game
+     */
+    public abstract Game copy();
+
     public abstract void setGame( String notation, ChessNotation notationProcessor );
 
     public abstract boolean makeMove( Move move );
@@ -103,6 +159,75 @@ public abstract class Game {
 
     public abstract List<Validation> getPossibleValidations( Piece piece );
 
+    /**
+     * Moves of the team on move which follow the movement rules of the pieces, but may leave the own king in check.
+     * Legality is deferred to {@link #isLegalPseudo(Move)} or {@link #makeMove(Move)}, which rejects illegal moves.
+     */
+    public abstract List<Validation> getPseudoLegalValidations( TeamColor color );
+
+    /**
+     * Cheap legality check for a move of {@link #getPseudoLegalValidations(TeamColor)},
+     * only checks if the own king would be left in check.
+     */
+    public abstract boolean isLegalPseudo( Move move );
+
+    /**
+     * packed moves, see {@link MoveCode}
+     */
+
+    /**
+     * Appends the legal moves of the team on move without clearing the list.
+     */
+    public abstract void generateMoves( MoveList moves );
+
+    /**
+     * Appends the pseudo legal moves of the team on move, see {@link #getPseudoLegalValidations(TeamColor)}.
+     */
+    public abstract void generatePseudoLegalMoves( MoveList moves );
+
+    /**
+     * Visits the legal moves of the team on move.
+     *
+     * @return false if the visitor stopped the enumeration
+     */
+    public boolean visitMoves( MoveVisitor visitor ) {
+        MoveList moves = new MoveList();
+        generateMoves( moves );
+        for ( int i = 0; i < moves.size(); i++ ) {
+            if ( !visitor.visit( moves.get( i ) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes a packed move of the current position, illegal moves are rejected like by {@link #makeMove(Move)}.
+     */
+    public boolean makeMove( int move ) {
+        return makeMove( toMove( move ) );
+    }
+
+    /**
+     * Makes a move of {@link #generateMoves(MoveList)} or {@link #visitMoves(MoveVisitor)} for the current position,
+     * backends may skip the legality check. Any other code has to go through {@link #makeMove(int)}.
+     */
+    public boolean makeGeneratedMove( int move ) {
+        return makeMove( move );
+    }
+
+    public boolean isLegalPseudo( int move ) {
+        return isLegalPseudo( toMove( move ) );
+    }
+
+    public Move toMove( int move ) {
+        return MoveCode.toMove( move, getBoardSize() );
+    }
+
+    public Validation toValidation( int move ) {
+        return MoveCode.toValidation( move, getBoardSize() );
+    }
+
     /**
      * state
      */
@@ -119,6 +244,53 @@ public abstract class Game {
 
     public abstract boolean isFinished();
 
+    /**
+     * @return true if the game is known to be finished, without evaluating a deferred checkmate or stalemate.
+     * Those positions have no legal moves, so validating a move does not depend on them.
+     */
+    public boolean isDecided() {
+        return EnumSet.of( GameState.TIE, GameState.WHITE_WON, GameState.BLACK_WON ).contains( this.state );
+    }
+
+    public GameState getState() {
+        resolveStatus();
+        return this.state;
+    }
+
+    /**
+     * the move counts are not increased by a move which finishes the game
+     */
+    public int getMoveNumber() {
+        resolveStatus();
+        return this.moveNumber;
+    }
+
+    public int getHalfMoveRuleCount() {
+        resolveStatus();
+        return this.halfMoveRuleCount;
+    }
+
+    /**
+     * @return the state without evaluating a deferred status, see {@link #isStatusPending()}
+     */
+    GameState getRawState() {
+        return this.state;
+    }
+
+    /**
+     * @return the move number without evaluating a deferred status, a move which finishes the game is still counted
+     */
+    int getRawMoveNumber() {
+        return this.moveNumber;
+    }
+
+    /**
+     * @return the half move count without evaluating a deferred status, a move which finishes the game is still counted
+     */
+    int getRawHalfMoveRuleCount() {
+        return this.halfMoveRuleCount;
+    }
+
     /**
      * convenience
      */
@@ -149,6 +321,66 @@ public abstract class Game {
 
     public abstract boolean isPined( Vector2I p );
 
+    /**
+     * square lookups, the square index is y * size + x, see {@link Squares}
+     */
+
+    public abstract boolean hasPiece( int sq );
+
+    public abstract PieceType getType( int sq );
+
+    public abstract TeamColor getTeam( int sq );
+
+    public abstract Piece getPiece( int sq );
+
+    public boolean isType( int sq, PieceType type ) {
+        return type.equals( getType( sq ) );
+    }
+
+    public boolean isTeam( int sq, TeamColor team ) {
+        return team.equals( getTeam( sq ) );
+    }
+
+    public boolean areEnemies( int sqA, int sqB ) {
+        TeamColor teamA = getTeam( sqA );
+        TeamColor teamB = getTeam( sqB );
+        return teamA != null && teamB != null && !teamA.equals( teamB );
+    }
+
+    public boolean isAttacked( int sq ) {
+        return sq != Squares.NO_SQUARE && isAttacked( this.squares.vectors[sq] );
+    }
+
+    /**
+     * @return the square of the position or {@link Squares#NO_SQUARE} if it is not on the board
+     */
+    public int square( Vector2I p ) {
+        return this.squares.square( p );
+    }
+
+    /**
+     * @return the canonical instance of the square or null if it is not on the board
+     */
+    public Vector2I vector( int sq ) {
+        return this.squares.vector( sq );
+    }
+
+    /**
+     * bitboard of the pieces of a team, square index is y * size + x.
+     * Only maintained for boards up to {@link BitboardTables#MAX_BOARD_SIZE}, otherwise 0.
+     */
+    public abstract long getOccupied( TeamColor team );
+
+    public long getOccupied() {
+        return getOccupied( TeamColor.WHITE ) | getOccupied( TeamColor.BLACK );
+    }
+
+    /**
+     * zobrist hash of the current position, see {@link Zobrist}.
+     * Maintained incrementally by making and undoing moves, equal to {@link Zobrist#hash(Game)}.
+     */
+    public abstract long getHash();
+
     /**
      * listener
      */
@@ -158,9 +390,78 @@ public abstract class Game {
     }
 
     public void emitEvent() {
+        if ( isSilent() ) {
+            this.eventSuppressed = true;
+            return;
+        }
+        publishSnapshot();
         this.listeners.forEach( l -> l.gameUpdated( this ) );
     }
 
+    /**
+     * Read view of the game for other threads. Changes of the game are published with their event, so the snapshot
+     * stays at the state before a silent section until the section ends.
+     * Changes of the game itself are synchronized on the game, reads of the snapshot never block.
+     */
+    public GameSnapshot getSnapshot() {
+        GameSnapshot snapshot = this.snapshot;
+        if ( snapshot == null ) {
+            synchronized ( this ) {
+                this.publishing = true;
+                snapshot = this.snapshot;
+                if ( snapshot == null ) {
+                    snapshot = GameSnapshot.of( this );
+                    this.snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private synchronized void publishSnapshot() {
+        if ( this.publishing ) {
+            this.snapshot = GameSnapshot.of( this );
+        }
+    }
+
+    /**
+     * Starts a silent section for searches and other bulk operations, listeners are not notified and nothing is
+     * logged until the matching {@link #endSilent()}. Sections can be nested.
+     */
+    public void beginSilent() {
+        this.silentDepth++;
+    }
+
+    /**
+     * Ends a silent section, leaving the outermost one emits a single event if any was suppressed.
+     */
+    public void endSilent() {
+        if ( this.silentDepth == 0 ) {
+            return;
+        }
+        this.silentDepth--;
+        if ( this.silentDepth == 0 && this.eventSuppressed ) {
+            this.eventSuppressed = false;
+            emitEvent();
+        }
+    }
+
+    public boolean isSilent() {
+        return this.silentDepth > 0;
+    }
+
+    /**
+     * Runs the action in a silent section.
+     */
+    public void runSilent( Runnable action ) {
+        beginSilent();
+        try {
+            action.run();
+        } finally {
+            endSilent();
+        }
+    }
+
     /**
      * general
      */
@@ -172,14 +473,16 @@ public abstract class Game {
         return this.history.get( this.history.size() - 1 );
     }
 
-    protected void addHistory( Set<ActionType> actions, Move move ) {
-        this.history.add( new MoveHistory(
+    protected MoveHistory addHistory( Set<ActionType> actions, Move move ) {
+        MoveHistory entry = new MoveHistory(
                 this.moveNumber,
                 actions,
                 getTeam( move.getTo() ),
                 getType( move.getTo() ),
                 move
-        ) );
+        );
+        this.history.add( entry );
+        return entry;
     }
 
     protected void switchTeam() {
@@ -188,27 +491,235 @@ public abstract class Game {
     }
 
     protected void incrementMove( Validation validation ) {
-        if ( isFinished() ) {
+        incrementMove( validation.getActions().contains( ActionType.CAPTURE ) ||
+                validation.getActions().contains( ActionType.CAPTURE_AU_PASSANT ) ||
+                this.isType( validation.getMove().getTo(), PieceType.PAWN ) );
+    }
+
+    /**
+     * @param resetsHalfMoveRuleCount true for a capture or a move of a pawn
+     */
+    protected void incrementMove( boolean resetsHalfMoveRuleCount ) {
+        if ( isDecided() ) {
             return;
         }
         if ( isOnMove( this.config.getOnMove() ) ) {
             this.moveNumber++;
         }
-        if ( !validation.getActions().contains( ActionType.CAPTURE ) &&
-                !validation.getActions().contains( ActionType.CAPTURE_AU_PASSANT ) &&
-                !this.isType( validation.getMove().getTo(), PieceType.PAWN ) ) {
+        if ( !resetsHalfMoveRuleCount ) {
             this.halfMoveRuleCount++;
         } else {
             this.halfMoveRuleCount = 0;
         }
     }
 
-    public boolean isOutOfBounds( Vector2I p ) {
-        if ( p == null ) {
-            return true;
+    /**
+     * game status
+     */
+
+    protected void checkFiftyMoveRule() {
+        if ( this.halfMoveRuleCount >= 50 ) {
+            this.state = GameState.TIE;
+        }
+    }
+
+    /**
+     * repetition
+     */
+
+    /**
+     * Starts the hashes of the game with the current position.
+     */
+    protected void resetPositions() {
+        this.positionCount = 0;
+        pushPosition();
+    }
+
+    /**
+     * Pushes the hash of the position after a move and ends the game with a tie on a threefold repetition.
+     */
+    protected void checkRepetition() {
+        pushPosition();
+        if ( !isDecided() && getRepetitionCount() >= 3 ) {
+            this.state = GameState.TIE;
+        }
+    }
+
+    /**
+     * Pops the hash of the position of an undone move.
+     */
+    protected void popPosition() {
+        if ( this.positionCount > 1 ) {
+            this.positionCount--;
+        }
+    }
+
+    private void pushPosition() {
+        if ( this.positionCount == this.positionHashes.length ) {
+            this.positionHashes = Arrays.copyOf( this.positionHashes, this.positionCount * 2 );
+        }
+        this.positionHashes[this.positionCount++] = getHash();
+    }
+
+    /**
+     * Takes over the earlier positions of another game in the same position, like the game a search sandbox was
+     * read from, so repetitions of them are detected as well.
+     */
+    public void copyPositions( Game game ) {
+        if ( game.positionCount == 0 || game.positionHashes[game.positionCount - 1] != getHash() ) {
+            return;
+        }
+        this.positionHashes = Arrays.copyOf( game.positionHashes, Math.max( game.positionCount * 2, 64 ) );
+        this.positionCount = game.positionCount;
+    }
+
+    /**
+     * Counts the occurrences of the current position, including itself. Only positions with the same side on move
+     * since the last capture or pawn move are compared, the walk is bound by the half move count.
+     */
+    public int getRepetitionCount() {
+        return countRepetitions( Integer.MAX_VALUE );
+    }
+
+    /**
+     * @return true if the current position occurred before, search can score it as a draw
+     */
+    public boolean isRepetition() {
+        return countRepetitions( 2 ) == 2;
+    }
+
+    /**
+     * @param limit the count at which the walk stops
+     */
+    private int countRepetitions( int limit ) {
+        if ( this.positionCount == 0 ) {
+            return 0;
+        }
+        int last = this.positionCount - 1;
+        long hash = this.positionHashes[last];
+        int oldest = Math.max( 0, last - this.halfMoveRuleCount );
+        int count = 1;
+        for ( int i = last - 2; i >= oldest && count < limit; i -= 2 ) {
+            if ( this.positionHashes[i] == hash ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Defers check, checkmate and stalemate of the position after a move until the state, the move counts or the
+     * actions of the move are queried, search can make and undo moves without evaluating them.
+     *
+     * @param move              the history entry of the move. Only backends which build their history lazily pass
+     *                          null, they override {@link #addStatusAction(MoveHistory, ActionType)} and hand the
+     *                          entry over with {@link #attachStatus(MoveHistory)} once it is built
+     * @param moveNumber        the move number before the move was counted
+     * @param halfMoveRuleCount the half move count before the move was counted
+     */
+    protected void deferStatus( MoveHistory move, int moveNumber, int halfMoveRuleCount ) {
+        PendingStatus pending = this.pendingStatus;
+        pending.pending = true;
+        pending.move = null;
+        pending.moveNumber = moveNumber;
+        pending.halfMoveRuleCount = halfMoveRuleCount;
+        attachStatus( move );
+    }
+
+    /**
+     * Hands the deferred status to the history entry of the last move, once it was built.
+     */
+    protected void attachStatus( MoveHistory move ) {
+        PendingStatus pending = this.pendingStatus;
+        if ( move != null && pending.pending && pending.move == null ) {
+            pending.move = move;
+            move.setStatusResolver( this::resolveStatus );
+        }
+    }
+
+    /**
+     * Evaluates the deferred status, a new snapshot is published outside of silent sections.
+     */
+    protected void resolveStatus() {
+        PendingStatus pending = this.pendingStatus;
+        if ( !pending.pending ) {
+            return;
+        }
+        MoveHistory move = pending.move;
+        int moveNumber = pending.moveNumber;
+        int halfMoveRuleCount = pending.halfMoveRuleCount;
+        clearStatus();
+
+        boolean isCheck = isCheckFor( this.onMove );
+        boolean hasMoves = hasLegalMovesLeft( this.onMove );
+        if ( isCheck ) {
+            addStatusAction( move, ActionType.CHECK );
+            if ( !hasMoves ) {
+                addStatusAction( move, ActionType.CHECKMATE );
+                this.state = isOnMove( TeamColor.WHITE ) ? GameState.BLACK_WON : GameState.WHITE_WON;
+            }
+        } else if ( !hasMoves ) {
+            addStatusAction( move, ActionType.STALEMATE );
+            this.state = GameState.TIE;
+        }
+        if ( !hasMoves ) {
+            this.moveNumber = moveNumber;
+            this.halfMoveRuleCount = halfMoveRuleCount;
+            checkFiftyMoveRule();
+        }
+        if ( !isSilent() ) {
+            publishSnapshot();
+        }
+    }
+
+    /**
+     * @return true if the status of the last move was deferred and is not evaluated yet
+     */
+    boolean isStatusPending() {
+        return this.pendingStatus.pending;
+    }
+
+    /**
+     * A legal move is about to be made, so the position is neither checkmate nor stalemate and only check is left.
+     */
+    protected void settleStatus() {
+        PendingStatus pending = this.pendingStatus;
+        if ( !pending.pending ) {
+            return;
+        }
+        MoveHistory move = pending.move;
+        clearStatus();
+        if ( isCheckFor( this.onMove ) ) {
+            addStatusAction( move, ActionType.CHECK );
+        }
+    }
+
+    /**
+     * Adds a resolved action to the last move.
+     *
+     * @param move the history entry of the last move, never null here. Backends which defer a status without an
+     *             entry override this method to keep the action until the entry is built.
+     */
+    protected void addStatusAction( MoveHistory move, ActionType action ) {
+        move.getActions().add( action );
+    }
+
+    /**
+     * Drops the deferred status, the move it belongs to was undone.
+     */
+    protected void clearStatus() {
+        PendingStatus pending = this.pendingStatus;
+        if ( pending.pending ) {
+            if ( pending.move != null ) {
+                pending.move.setStatusResolver( null );
+            }
+            pending.pending = false;
+            pending.move = null;
         }
-        return MathUtil.isOutOfBounds( p.x, this.getBoardSize() )
-                || MathUtil.isOutOfBounds( p.y, this.getBoardSize() );
+    }
+
+    public boolean isOutOfBounds( Vector2I p ) {
+        return !this.squares.isOnBoard( p );
     }
 
     public boolean isLegal( Map<Vector2I, Validation> validation, Vector2I p ) {
@@ -224,16 +735,46 @@ public abstract class Game {
     }
 
     protected void resetStates() {
+        this.clearStatus();
         this.onMove = this.config.getOnMove();
         this.whiteCanCastleKing = this.config.isWhiteCanCastleKing();
         this.whiteCanCastleQueen = this.config.isWhiteCanCastleQueen();
         this.blackCanCastleKing = this.config.isBlackCanCastleKing();
         this.blackCanCastleQueen = this.config.isBlackCanCastleQueen();
-        this.auPassantPosition = null;
+        this.auPassantPosition = auPassantPositionOf( this.config );
         this.halfMoveRuleCount = this.config.getHalfMoveRuleCount();
         this.moveNumber = this.config.getMoveNumber();
         this.history = new ArrayList<>();
         this.state = this.isOnMove( TeamColor.WHITE ) ? GameState.WHITE_TO_MOVE : GameState.BLACK_TO_MOVE;
     }
 
+    /**
+     * @return the pawn which can be captured au passant, the config holds the square behind it like the fen
+     */
+    private static Vector2I auPassantPositionOf( GameConfig config ) {
+        Vector2I target = config.getAuPassantPosition();
+        if ( target == null ) {
+            return null;
+        }
+        Vector2I pawn = new Vector2I( target.x, TeamColor.WHITE.equals( config.getOnMove() ) ? target.y - 1 : target.y + 1 );
+        Piece piece = config.getPlacements().get( pawn );
+        boolean enemyPawn = piece != null && piece.getType() == PieceType.PAWN && piece.getTeam() != config.getOnMove();
+        return enemyPawn ? pawn : null;
+    }
+
+    private static class PendingStatus {
+
+        /**
+         * true until the status was evaluated or dropped
+         */
+        private boolean pending;
+
+        private MoveHistory move;
+
+        private int moveNumber;
+
+        private int halfMoveRuleCount;
+
+    }
+
 }
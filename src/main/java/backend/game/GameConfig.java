@@ -2,6 +2,7 @@ package backend.game;
 
 import backend.core.model.Piece;
 import backend.core.notation.FenNotation;
+import backend.core.values.GameType;
 import backend.core.values.TeamColor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +40,11 @@ public class GameConfig {
 
     private final int moveNumber;
 
+    /**
+     * backend used by {@link Game#getInstance(GameConfig)}
+     */
+    private GameType type = GameType.MODULE_BASED;
+
     public GameConfig() {
         this.definition = fetchDefault();
         GameConfig config = FenNotation.makeConfig( this.definition );
@@ -0,0 +1,146 @@
+package backend.game;
+
+import backend.core.model.MoveHistory;
+import backend.core.model.Piece;
+import backend.core.values.GameState;
+import backend.core.values.TeamColor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import math.Vector2I;
+
+import java.util.List;
+
+/**
+ * Immutable read view of a {@link Game}, published after each change outside of silent sections.
+ * Other threads, like the rendering of the board, read the latest snapshot without locking and never see a half made
+ * move. The pieces are copies, the history entries are shared but not changed anymore once published.
+ * Taking a snapshot does not evaluate the deferred check, checkmate and stalemate of the last move, the snapshot holds
+ * the state as far as it is known and the game publishes a new one once the status was resolved.
+ */
+@Getter
+public final class GameSnapshot {
+
+    private final int boardSize;
+
+    private final TeamColor onMove;
+
+    private final GameState state;
+
+    /**
+     * true if check, checkmate and stalemate of the last move are not evaluated yet, the state, the move counts and the
+     * actions of the last move may still change
+     */
+    private final boolean statusPending;
+
+    private final int moveNumber;
+
+    private final int halfMoveRuleCount;
+
+    private final boolean whiteCanCastleKing;
+
+    private final boolean whiteCanCastleQueen;
+
+    private final boolean blackCanCastleKing;
+
+    private final boolean blackCanCastleQueen;
+
+    private final Vector2I auPassantPosition;
+
+    private final List<MoveHistory> history;
+
+    /**
+     * [square] copy of the piece or null
+     */
+    @Getter( AccessLevel.NONE )
+    private final Piece[] pieces;
+
+    /**
+     * [square] attacked by the enemy of the team on move
+     */
+    @Getter( AccessLevel.NONE )
+    private final boolean[] attacked;
+
+    /**
+     * [square] on a checking or pinning ray against the king on move
+     */
+    @Getter( AccessLevel.NONE )
+    private final boolean[] pined;
+
+    @Getter( AccessLevel.NONE )
+    private final Squares squares;
+
+    private GameSnapshot( Game game ) {
+        this.statusPending = game.isStatusPending();
+        this.state = game.getRawState();
+        this.boardSize = game.getBoardSize();
+        this.onMove = game.getOnMove();
+        this.moveNumber = game.getRawMoveNumber();
+        this.halfMoveRuleCount = game.getRawHalfMoveRuleCount();
+        this.whiteCanCastleKing = game.isWhiteCanCastleKing();
+        this.whiteCanCastleQueen = game.isWhiteCanCastleQueen();
+        this.blackCanCastleKing = game.isBlackCanCastleKing();
+        this.blackCanCastleQueen = game.isBlackCanCastleQueen();
+        this.auPassantPosition = game.getAuPassantPosition();
+        this.history = historyOf( game.getHistory(), this.statusPending );
+        this.squares = game.getSquares();
+        this.pieces = new Piece[this.squares.count];
+        this.attacked = new boolean[this.squares.count];
+        this.pined = new boolean[this.squares.count];
+        for ( int sq = 0; sq < this.squares.count; sq++ ) {
+            Piece piece = game.getPiece( sq );
+            if ( piece != null ) {
+                this.pieces[sq] = new Piece( piece.getType(), piece.getTeam() );
+            }
+            this.attacked[sq] = game.isAttacked( sq );
+            this.pined[sq] = game.isPined( this.squares.vectors[sq] );
+        }
+    }
+
+    static GameSnapshot of( Game game ) {
+        return new GameSnapshot( game );
+    }
+
+    /**
+     * The entry of the last move is copied while its status is pending, the game still adds actions to it.
+     */
+    private static List<MoveHistory> historyOf( List<MoveHistory> history, boolean statusPending ) {
+        if ( !statusPending || history.isEmpty() ) {
+            return List.copyOf( history );
+        }
+        MoveHistory[] entries = history.toArray( new MoveHistory[0] );
+        entries[entries.length - 1] = entries[entries.length - 1].copyUnresolved();
+        return List.of( entries );
+    }
+
+    public Piece getPiece( Vector2I p ) {
+        int sq = this.squares.square( p );
+        return sq == Squares.NO_SQUARE ? null : this.pieces[sq];
+    }
+
+    public boolean isOnBoard( Vector2I p ) {
+        return this.squares.isOnBoard( p );
+    }
+
+    public boolean hasPiece( Vector2I p ) {
+        return getPiece( p ) != null;
+    }
+
+    public boolean isAttacked( Vector2I p ) {
+        int sq = this.squares.square( p );
+        return sq != Squares.NO_SQUARE && this.attacked[sq];
+    }
+
+    public boolean isPined( Vector2I p ) {
+        int sq = this.squares.square( p );
+        return sq != Squares.NO_SQUARE && this.pined[sq];
+    }
+
+    public boolean isOnMove( TeamColor color ) {
+        return this.onMove == color;
+    }
+
+    public MoveHistory getLastMove() {
+        return this.history.isEmpty() ? null : this.history.get( this.history.size() - 1 );
+    }
+
+}
@@ -1,21 +1,35 @@
 package backend.game;
 
 import backend.core.model.Piece;
+import backend.core.model.Team;
 import backend.core.values.Dir;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
+import backend.game.bitboard.BitboardTables;
 import math.Vector2I;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Boards up to {@link BitboardTables#MAX_BOARD_SIZE} are served by the precomputed attack tables
+ * of their size, bigger boards walk the rays position by position.
+ */
 public class MoveGenerator {
 
+    /**
+     * table driven attacks
+     */
+
     public static Set<Vector2I> generateAttackedPositionsBy( Game game, TeamColor color ) {
+        BitboardTables tables = tablesOf( game );
+        if ( tables != null ) {
+            return toPositions( tables, generateAttackMaskBy( game, color ) );
+        }
         Set<Vector2I> attacked = new HashSet<>();
-        List<Piece> alive = game.getTeam( color ).getAlive();
-        for ( Piece piece : alive ) {
-            Vector2I p = game.getPosition( piece );
+        Team team = game.getTeam( color );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Vector2I p = game.getPosition( team.getAlive( i ) );
             if ( p != null ) {
                 attacked.addAll( generateAttackingMoves( game, p ) );
             }
@@ -23,6 +37,150 @@ public class MoveGenerator {
         return attacked;
     }
 
+    /**
+     * Bitboard of all positions attacked by a team, the rays of the sliders pass the enemy king.
+     * Only available for boards which fit into a bitboard, otherwise 0.
+     */
+    public static long generateAttackMaskBy( Game game, TeamColor color ) {
+        BitboardTables tables = tablesOf( game );
+        if ( tables == null ) {
+            return 0L;
+        }
+        long occupied = game.getOccupied() & ~kingMaskOf( game, tables, game.getEnemy( color ) );
+        long attacked = 0L;
+        Team team = game.getTeam( color );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Piece piece = team.getAlive( i );
+            Vector2I p = game.getPosition( piece );
+            if ( p != null ) {
+                attacked |= attackMaskOf( tables, piece.getType(), color, tables.square( p ), occupied );
+            }
+        }
+        return attacked;
+    }
+
+    /**
+     * Bitboard of the positions the piece on the position attacks, the rays of the sliders pass the enemy king.
+     * Only available for boards which fit into a bitboard, otherwise 0.
+     */
+    public static long generateAttackMask( Game game, Vector2I from ) {
+        BitboardTables tables = tablesOf( game );
+        Piece piece = game.getPiece( from );
+        if ( tables == null || piece == null ) {
+            return 0L;
+        }
+        long occupied = game.getOccupied() & ~kingMaskOf( game, tables, game.getEnemy( piece.getTeam() ) );
+        return attackMaskOf( tables, piece.getType(), piece.getTeam(), tables.square( from ), occupied );
+    }
+
+    public static boolean isAttackedBy( Game game, Vector2I p, TeamColor color ) {
+        BitboardTables tables = tablesOf( game );
+        if ( tables == null ) {
+            return generateAttackedPositionsBy( game, color ).contains( p );
+        }
+        return ( generateAttackMaskBy( game, color ) & tables.bit( p.x, p.y ) ) != 0L;
+    }
+
+    public static boolean isKnightMove( Game game, Vector2I from, Vector2I to ) {
+        if ( tablesOf( game ) == null ) {
+            return generateKnightMoves( game, from ).contains( to );
+        }
+        return isTableMove( game, from, to, PieceType.KNIGHT );
+    }
+
+    public static boolean isBishopMove( Game game, Vector2I from, Vector2I to ) {
+        if ( tablesOf( game ) == null ) {
+            return generateBishopMoves( game, from ).contains( to );
+        }
+        return isTableMove( game, from, to, PieceType.BISHOP );
+    }
+
+    public static boolean isRookMove( Game game, Vector2I from, Vector2I to ) {
+        if ( tablesOf( game ) == null ) {
+            return generateRookMoves( game, from ).contains( to );
+        }
+        return isTableMove( game, from, to, PieceType.ROOK );
+    }
+
+    public static boolean isQueenMove( Game game, Vector2I from, Vector2I to ) {
+        if ( tablesOf( game ) == null ) {
+            return generateQueenMoves( game, from ).contains( to );
+        }
+        return isTableMove( game, from, to, PieceType.QUEEN );
+    }
+
+    public static boolean isKingMove( Game game, Vector2I from, Vector2I to ) {
+        if ( tablesOf( game ) == null ) {
+            return generateKingMoves( game, from ).contains( to );
+        }
+        return isTableMove( game, from, to, PieceType.KING ) && !game.isAttacked( to );
+    }
+
+    private static boolean isTableMove( Game game, Vector2I from, Vector2I to, PieceType type ) {
+        if ( to == null || !game.isType( from, type ) ) {
+            return false;
+        }
+        BitboardTables tables = tablesOf( game );
+        long moves = attackMaskOf( tables, type, game.getTeam( from ), tables.square( from ), game.getOccupied() );
+        return ( moves & tables.bit( to.x, to.y ) ) != 0L;
+    }
+
+    /**
+     * Moves of a piece including the contact to any piece, sliders stop at the first piece of the occupied positions.
+     */
+    private static long attackMaskOf( BitboardTables tables, PieceType type, TeamColor color, int sq, long occupied ) {
+        return switch ( type ) {
+            // the au passant targets of generatePawnAttackingMoves are diagonal squares, so they are included
+            case PAWN -> tables.pawnAttacks[color.ordinal()][sq];
+            case KNIGHT -> tables.knightAttacks[sq];
+            case BISHOP -> tables.bishopAttacks( sq, occupied );
+            case ROOK -> tables.rookAttacks( sq, occupied );
+            case QUEEN -> tables.queenAttacks( sq, occupied );
+            case KING -> tables.kingAttacks[sq];
+        };
+    }
+
+    private static long kingMaskOf( Game game, BitboardTables tables, TeamColor color ) {
+        Piece king = game.getTeam( color ).getKing();
+        Vector2I p = king != null && king.isAlive() ? game.getPosition( king ) : null;
+        return p == null ? 0L : tables.bit( p.x, p.y );
+    }
+
+    private static BitboardTables tablesOf( Game game ) {
+        int size = game.getBoardSize();
+        return size <= BitboardTables.MAX_BOARD_SIZE ? BitboardTables.of( size ) : null;
+    }
+
+    private static Set<Vector2I> toPositions( BitboardTables tables, long mask ) {
+        Set<Vector2I> positions = new HashSet<>();
+        for ( ; mask != 0L; mask &= mask - 1 ) {
+            positions.add( tables.vectors[Long.numberOfTrailingZeros( mask )] );
+        }
+        return positions;
+    }
+
+    private static Set<Vector2I> toPositions( Squares squares, int[] targets ) {
+        Set<Vector2I> positions = new HashSet<>();
+        for ( int target : targets ) {
+            positions.add( squares.vectors[target] );
+        }
+        return positions;
+    }
+
+    private static Set<Vector2I> toPositions( Game game, Vector2I from, PieceType type, boolean attacking ) {
+        BitboardTables tables = tablesOf( game );
+        TeamColor color = game.getTeam( from );
+        long occupied = game.getOccupied();
+        if ( attacking ) {
+            occupied &= ~kingMaskOf( game, tables, game.getEnemy( color ) );
+        }
+        return toPositions( tables, attackMaskOf( tables, type, color, tables.square( from ), occupied ) );
+    }
+
+    /**
+     * position based generation
+     */
+
     public static List<List<Vector2I>> generatePinedPositionsBy( Game game, TeamColor color ) {
         List<List<Vector2I>> pinningRays = new ArrayList<>();
         Piece king = game.getTeam( game.getEnemy( color ) ).getKing();
@@ -30,7 +188,9 @@ public class MoveGenerator {
             return pinningRays;
         }
         Vector2I kingPos = game.getPosition( king );
-        for ( Piece piece : game.getTeam( color ).getAlive() ) {
+        Team team = game.getTeam( color );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Piece piece = team.getAlive( i );
             Vector2I p = game.getPosition( piece );
             switch ( piece.getType() ) {
                 case BISHOP -> Dir.diagonalDirs().forEach( dir ->
@@ -87,7 +247,9 @@ public class MoveGenerator {
 
     public static List<List<Vector2I>> generatePositionsOfRaysFor( Game game, TeamColor color ) {
         List<List<Vector2I>> rays = new ArrayList<>();
-        for ( Piece piece : game.getTeam( color ).getAlive() ) {
+        Team team = game.getTeam( color );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Piece piece = team.getAlive( i );
             Vector2I p = game.getPosition( piece );
             switch ( piece.getType() ) {
                 case BISHOP -> Dir.diagonalDirs().forEach( dir ->
@@ -111,7 +273,7 @@ public class MoveGenerator {
         allowed.addAll( generateBishopAttackingMoves( game, from ) );
         allowed.addAll( generateRookAttackingMoves( game, from ) );
         allowed.addAll( generateQueenAttackingMoves( game, from ) );
-        allowed.addAll( generateKingMoves( game, from ) );
+        allowed.addAll( generateKingAttackingMoves( game, from ) );
         return allowed;
     }
 
@@ -167,19 +329,12 @@ public class MoveGenerator {
             return allowed;
         }
 
-        Piece piece = game.getPiece( from );
-        Vector2I dir = piece.isTeam( TeamColor.WHITE ) ? Dir.UP.vector : Dir.DOWN.vector;
-
-        Vector2I diagonalLeft = from.add( dir ).add( Dir.LEFT.vector );
-        if ( !game.isOutOfBounds( diagonalLeft ) ) {
-            allowed.add( diagonalLeft );
-        }
-        Vector2I diagonalRight = from.add( dir ).add( Dir.RIGHT.vector );
-        if ( !game.isOutOfBounds( diagonalRight ) ) {
-            allowed.add( diagonalRight );
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.PAWN, false );
         }
 
-        return allowed;
+        Squares squares = game.getSquares();
+        return toPositions( squares, squares.pawnAttackTargets[game.getTeam( from ).ordinal()][squares.square( from )] );
     }
 
     public static Set<Vector2I> generateAuPassantMoves( Game game, Vector2I from ) {
@@ -187,15 +342,15 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.PAWN ) ) {
             return allowed;
         }
-        Vector2I dir = game.isTeam( from, TeamColor.WHITE ) ? Dir.UP.vector : Dir.DOWN.vector;
-        int enemyGroundLine = game.isTeam( from, TeamColor.WHITE ) ? game.getBoardSize() - 1 : 0;
-        if ( from.add( dir.mul( 3 ) ).y != enemyGroundLine ) {
+        Dir dir = game.isTeam( from, TeamColor.WHITE ) ? Dir.UP : Dir.DOWN;
+        Squares squares = game.getSquares();
+        if ( from.y + dir.vector.y * 3 != squares.promotionRanks[game.getTeam( from ).ordinal()] ) {
             return allowed;
         }
-        Vector2I[] targets = new Vector2I[]{ from.add( Dir.LEFT.vector ), from.add( Dir.RIGHT.vector ) };
-        for ( Vector2I target : targets ) {
-            if ( !game.isOutOfBounds( target ) && game.isType( target, PieceType.PAWN ) ) {
-                allowed.add( target.add( dir ) );
+        int sq = squares.square( from );
+        for ( int target : new int[]{ squares.steps[Dir.LEFT.ordinal()][sq], squares.steps[Dir.RIGHT.ordinal()][sq] } ) {
+            if ( target != Squares.NO_SQUARE && game.isType( target, PieceType.PAWN ) ) {
+                allowed.add( squares.vectors[squares.steps[dir.ordinal()][target]] );
             }
         }
 
@@ -208,20 +363,12 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.KNIGHT ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.KNIGHT, false );
+        }
 
-        allowed.add( from.add( Dir.LEFT.vector.add( Dir.UP_LEFT.vector ) ) );
-        allowed.add( from.add( Dir.LEFT.vector.add( Dir.DOWN_LEFT.vector ) ) );
-        allowed.add( from.add( Dir.UP.vector.add( Dir.UP_LEFT.vector ) ) );
-        allowed.add( from.add( Dir.UP.vector.add( Dir.UP_RIGHT.vector ) ) );
-        allowed.add( from.add( Dir.RIGHT.vector.add( Dir.UP_RIGHT.vector ) ) );
-        allowed.add( from.add( Dir.RIGHT.vector.add( Dir.DOWN_RIGHT.vector ) ) );
-        allowed.add( from.add( Dir.DOWN.vector.add( Dir.DOWN_LEFT.vector ) ) );
-        allowed.add( from.add( Dir.DOWN.vector.add( Dir.DOWN_RIGHT.vector ) ) );
-
-        allowed = allowed.stream()
-                .filter( p -> !game.isOutOfBounds( p ) )
-                .collect( Collectors.toSet() );
-        return allowed;
+        Squares squares = game.getSquares();
+        return toPositions( squares, squares.knightTargets[squares.square( from )] );
     }
 
     public static Set<Vector2I> generateBishopMoves( Game game, Vector2I from ) {
@@ -230,6 +377,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.BISHOP ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.BISHOP, false );
+        }
 
         Dir.diagonalDirs().forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, false, true, true )
@@ -243,6 +393,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.BISHOP ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.BISHOP, true );
+        }
 
         Dir.diagonalDirs().forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, true, true, true )
@@ -256,6 +409,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.ROOK ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.ROOK, false );
+        }
 
         Dir.baseDirs().forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, false, true, true )
@@ -269,6 +425,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.ROOK ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.ROOK, true );
+        }
 
         Dir.baseDirs().forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, true, true, true )
@@ -282,6 +441,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.QUEEN ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.QUEEN, false );
+        }
 
         Arrays.stream( Dir.values() ).forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, false, true, true )
@@ -295,6 +457,9 @@ public class MoveGenerator {
         if ( !game.isType( from, PieceType.QUEEN ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.QUEEN, true );
+        }
 
         Arrays.stream( Dir.values() ).forEach( dir -> allowed.addAll(
                 getPositionsOfDir( game, from, dir.vector, -1, false, true, true, true )
@@ -303,16 +468,23 @@ public class MoveGenerator {
     }
 
     public static Set<Vector2I> generateKingMoves( Game game, Vector2I from ) {
+        return generateKingAttackingMoves( game, from ).stream()
+                .filter( p -> !game.isAttacked( p ) )
+                .collect( Collectors.toSet() );
+    }
+
+    public static Set<Vector2I> generateKingAttackingMoves( Game game, Vector2I from ) {
 
         Set<Vector2I> allowed = new HashSet<>();
         if ( !game.isType( from, PieceType.KING ) ) {
             return allowed;
         }
+        if ( tablesOf( game ) != null ) {
+            return toPositions( game, from, PieceType.KING, false );
+        }
 
-        Arrays.stream( Dir.values() ).forEach( dir -> allowed.addAll(
-                getPositionsOfDir( game, from, dir.vector, 1, false, false, true, true )
-        ) );
-        return allowed.stream().filter( p -> !game.isAttacked( p ) ).collect( Collectors.toSet() );
+        Squares squares = game.getSquares();
+        return toPositions( squares, squares.kingTargets[squares.square( from )] );
     }
 
     public static Set<Vector2I> generateCastleQueenMoves( Game game, Vector2I from ) {
@@ -323,18 +495,20 @@ public class MoveGenerator {
         }
 
         // check king
-        Vector2I kingPos = game.isTeam( from, TeamColor.WHITE ) ? new Vector2I( 4, 0 ) : new Vector2I( 4, game.getBoardSize() - 1 );
+        Squares squares = game.getSquares();
+        int groundLine = squares.baseRanks[game.getTeam( from ).ordinal()];
+        Vector2I kingPos = squares.vector( 4, groundLine );
         if ( !from.equals( kingPos ) || game.isAttacked( kingPos ) ) {
             return allowed;
         }
 
         // check rook
-        Vector2I rookPos = game.isTeam( from, TeamColor.WHITE ) ? new Vector2I( 0, 0 ) : new Vector2I( 0, game.getBoardSize() - 1 );
+        Vector2I rookPos = squares.vector( 0, groundLine );
         if ( !game.isType( rookPos, PieceType.ROOK ) ) {
             return allowed;
         }
 
-        Vector2I target = from.add( Dir.LEFT.vector.mul( 2 ) );
+        Vector2I target = squares.vector( from.x - 2, from.y );
         // check in between
         List<Vector2I> inBetween = getPositionsOfDir( game, rookPos, Dir.RIGHT.vector, -1, false, false, false, false );
         if ( inBetween.size() != kingPos.x - 1 ) {
@@ -365,18 +539,20 @@ public class MoveGenerator {
         }
 
         // check king
-        Vector2I kingPos = game.isTeam( from, TeamColor.WHITE ) ? new Vector2I( 4, 0 ) : new Vector2I( 4, game.getBoardSize() - 1 );
+        Squares squares = game.getSquares();
+        int groundLine = squares.baseRanks[game.getTeam( from ).ordinal()];
+        Vector2I kingPos = squares.vector( 4, groundLine );
         if ( !from.equals( kingPos ) || game.isAttacked( kingPos ) ) {
             return allowed;
         }
 
         // check rook
-        Vector2I rookPos = game.isTeam( from, TeamColor.WHITE ) ? new Vector2I( game.getBoardSize() - 1, 0 ) : new Vector2I( game.getBoardSize() - 1, game.getBoardSize() - 1 );
+        Vector2I rookPos = squares.vector( game.getBoardSize() - 1, groundLine );
         if ( !game.isType( rookPos, PieceType.ROOK ) ) {
             return allowed;
         }
 
-        Vector2I target = from.add( Dir.RIGHT.vector.mul( 2 ) );
+        Vector2I target = squares.vector( from.x + 2, from.y );
         // check in between
         List<Vector2I> inBetween = getPositionsOfDir( game, rookPos, Dir.LEFT.vector, -1, false, false, false, false );
         if ( inBetween.size() != game.getBoardSize() - kingPos.x - 2 ) {
@@ -399,35 +575,39 @@ public class MoveGenerator {
         return allowed;
     }
 
+    /**
+     * Walks the precomputed ray of the direction, the positions are the canonical instances of {@link Squares}.
+     */
     public static List<Vector2I> getPositionsOfDir( Game game, Vector2I from, Vector2I dir, int distance, boolean ignorePieces, boolean ignoreEnemyKing, boolean includeEnemyContact, boolean includeTeamContact ) {
 
-        if ( distance < 0 ) {
-            distance = game.getBoardSize() * game.getBoardSize();
+        Squares squares = game.getSquares();
+        int dirIdx = Squares.dirOf( dir );
+        int fromSq = squares.square( from );
+        if ( dirIdx < 0 || fromSq == Squares.NO_SQUARE ) {
+            throw new IllegalArgumentException( "Can only walk unit steps from a position on the board, but got " + dir + " from " + from );
         }
 
-        List<Vector2I> positions = new ArrayList<>();
-        for ( int i = 0; i < distance; i++ ) {
+        int[] ray = squares.rays[dirIdx][fromSq];
+        int end = distance < 0 ? ray.length : Math.min( distance, ray.length );
 
-            Vector2I p = from.add( dir.mul( i + 1 ) );
+        List<Vector2I> positions = new ArrayList<>( end );
+        for ( int i = 0; i < end; i++ ) {
+            int sq = ray[i];
 
-            if ( !game.isOutOfBounds( p ) ) {
+            if ( !ignorePieces && game.hasPiece( sq ) && ( !ignoreEnemyKing || !game.areEnemies( sq, fromSq ) || !game.isType( sq, PieceType.KING ) ) ) {
 
-                if ( !ignorePieces && game.hasPiece( p ) && ( !ignoreEnemyKing || !game.areEnemies( p, from ) || !game.isType( p, PieceType.KING ) ) ) {
-
-                    if ( includeEnemyContact && game.areEnemies( p, from ) ) {
-                        positions.add( p );
-                    } else if ( includeTeamContact && !game.areEnemies( p, from ) ) {
-                        positions.add( p );
-                    }
-
-                    // position is occupied
-                    return positions;
+                if ( includeEnemyContact && game.areEnemies( sq, fromSq ) ) {
+                    positions.add( squares.vectors[sq] );
+                } else if ( includeTeamContact && !game.areEnemies( sq, fromSq ) ) {
+                    positions.add( squares.vectors[sq] );
                 }
 
-                positions.add( p );
-
+                // position is occupied
+                return positions;
             }
 
+            positions.add( squares.vectors[sq] );
+
         }
 
         return positions;
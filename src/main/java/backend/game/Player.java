@@ -2,6 +2,8 @@ package backend.game;
 
 import backend.bot.ChessBot;
 import backend.bot.ChessBotFactory;
+import backend.bot.SearchLimits;
+import backend.core.model.Move;
 import backend.core.values.PlayerType;
 import backend.core.values.TeamColor;
 import lombok.Getter;
@@ -10,6 +12,9 @@ import misc.Timer;
 
 public class Player {
 
+    /**
+     * minimum time of a bot move, the time of the search counts towards it
+     */
     private final static long WAITING_FOR_MOVE = 1000L;
 
     @Getter
@@ -21,10 +26,17 @@ public class Player {
     private final ChessBot bot;
 
     public Player( TeamColor team, PlayerType type ) {
+        this( team, type, SearchLimits.DEFAULT );
+    }
+
+    /**
+     * @param limits budgets of the bot per move, not used by humans
+     */
+    public Player( TeamColor team, PlayerType type, SearchLimits limits ) {
         super();
         this.team = team;
         this.type = type;
-        this.bot = ChessBotFactory.get( type, team );
+        this.bot = ChessBotFactory.get( type, team, limits );
     }
 
     public boolean isOnMove( Game game ) {
@@ -36,14 +48,20 @@ public class Player {
             return;
         }
         Log.info( "{} making move for {}...", this.type, this.team );
-        try {
-            Thread.sleep( WAITING_FOR_MOVE );
-        } catch ( InterruptedException e ) {
-            Log.error( "Something went wrong while thinking.." );
-        }
         Timer timer = new Timer();
-        this.bot.makeMove( game );
+        Move move = this.bot.findMove( game );
         Log.info( "{} needed {}m for calculation move", this.type, timer.getTimeSinceMillis() );
+        long remaining = WAITING_FOR_MOVE - timer.getTimeSinceMillis();
+        if ( remaining > 0L ) {
+            try {
+                Thread.sleep( remaining );
+            } catch ( InterruptedException e ) {
+                Log.error( "Something went wrong while thinking.." );
+            }
+        }
+        if ( move != null && isOnMove( game ) ) {
+            game.makeMove( move );
+        }
     }
 
     public boolean isHuman() {
@@ -0,0 +1,257 @@
+package backend.game;
+
+import backend.core.model.Move;
+import backend.core.model.MoveCode;
+import backend.core.model.Piece;
+import backend.core.notation.AlgebraicNotation;
+import backend.core.notation.FenNotation;
+import backend.core.values.Dir;
+import backend.core.values.GameType;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.bitboard.BitboardTables;
+import backend.game.bitboard.BoardBB;
+import backend.game.bitboard.GameBB;
+import lombok.Getter;
+import math.Vector2I;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a game position, supports boards up to {@link BitboardTables#MAX_BOARD_SIZE}.
+ * A derived position only copies the bitboards of its board, the attack tables of the board size and the
+ * team starting a move number are shared with its parent. Positions never change after construction, so
+ * they can be handed to other threads without locking.
+ */
+public final class Position {
+
+    private static final TeamColor[] colors = TeamColor.values();
+
+    private static final PieceType[] types = PieceType.values();
+
+    /**
+     * never modified, methods which need to make moves work on a copy
+     */
+    private final BoardBB board;
+
+    @Getter
+    private final int halfMoveRuleCount;
+
+    @Getter
+    private final int moveNumber;
+
+    /**
+     * the move number increases when this team is on move again
+     */
+    private final TeamColor firstOnMove;
+
+    private Position( BoardBB board, int halfMoveRuleCount, int moveNumber, TeamColor firstOnMove ) {
+        this.board = board;
+        this.halfMoveRuleCount = halfMoveRuleCount;
+        this.moveNumber = moveNumber;
+        this.firstOnMove = firstOnMove;
+    }
+
+    public static Position of( GameConfig config ) {
+        return new Position( BoardBB.of( config ), config.getHalfMoveRuleCount(), config.getMoveNumber(), config.getOnMove() );
+    }
+
+    /**
+     * Takes the position without evaluating a deferred status of the last move.
+     */
+    public static Position of( Game game ) {
+        BoardBB board = game instanceof GameBB
+                ? ( ( GameBB ) game ).getBoard().copy()
+                : BoardBB.of( game );
+        return new Position( board, game.getRawHalfMoveRuleCount(), game.getRawMoveNumber(), game.getConfig().getOnMove() );
+    }
+
+    /**
+     * derivation
+     */
+
+    /**
+     * @throws IllegalArgumentException if the move is not legal in this position
+     */
+    public Position withMove( Move move ) {
+        BoardBB next = this.board.copy();
+        int code = move == null || !isOnBoard( move.getFrom() ) || !isOnBoard( move.getTo() )
+                ? MoveCode.NONE
+                : next.findLegalMove( square( move.getFrom() ), square( move.getTo() ), move.getPromoteTo() );
+        if ( code == MoveCode.NONE ) {
+            throw new IllegalArgumentException( "Move " + move + " is not legal in " + toFen() );
+        }
+        boolean pawnMove = BoardBB.type( next.pieceAt( MoveCode.from( code ) ) ) == PieceType.PAWN.ordinal();
+        boolean capture = MoveCode.isCapture( code );
+        next.make( code );
+        return new Position(
+                next,
+                pawnMove || capture ? 0 : this.halfMoveRuleCount + 1,
+                next.getOnMove() == this.firstOnMove.ordinal() ? this.moveNumber + 1 : this.moveNumber,
+                this.firstOnMove );
+    }
+
+    public List<Move> getLegalMoves() {
+        BoardBB copy = this.board.copy();
+        int[] codes = new int[BoardBB.MAX_MOVES];
+        int end = copy.generateLegalMoves( copy.getOnMove(), codes, 0 );
+        List<Move> moves = new ArrayList<>( end );
+        for ( int i = 0; i < end; i++ ) {
+            moves.add( MoveCode.toMove( codes[i], vector( MoveCode.from( codes[i] ) ), vector( MoveCode.to( codes[i] ) ) ) );
+        }
+        return moves;
+    }
+
+    public boolean isCheck() {
+        return this.board.isCheck( this.board.getOnMove() );
+    }
+
+    /**
+     * conversion
+     */
+
+    public GameConfig toConfig() {
+        return new GameConfig( toFen() );
+    }
+
+    public Game toGame() {
+        return toGame( GameType.BITBOARD );
+    }
+
+    public Game toGame( GameType type ) {
+        return Game.getInstance( toConfig(), type );
+    }
+
+    public String toFen() {
+
+        StringBuilder notation = new StringBuilder();
+        int size = getBoardSize();
+        for ( int y = size - 1; y >= 0; y-- ) {
+            int emptyCol = 0;
+            for ( int x = 0; x < size; x++ ) {
+                int piece = this.board.pieceAt( square( x, y ) );
+                if ( piece == BoardBB.NO_PIECE ) {
+                    emptyCol++;
+                    continue;
+                }
+                if ( emptyCol > 0 ) {
+                    notation.append( emptyCol );
+                    emptyCol = 0;
+                }
+                String code = FenNotation.pieceCodes.get( types[BoardBB.type( piece )] );
+                notation.append( BoardBB.color( piece ) == BoardBB.BLACK ? code.toLowerCase() : code );
+            }
+            if ( emptyCol > 0 ) {
+                notation.append( emptyCol );
+            }
+            if ( y > 0 ) {
+                notation.append( "/" );
+            }
+        }
+
+        notation.append( " " ).append( FenNotation.teamCodes.get( getOnMove() ) );
+
+        String castling = ( isWhiteCanCastleKing() ? "K" : "" )
+                + ( isWhiteCanCastleQueen() ? "Q" : "" )
+                + ( isBlackCanCastleKing() ? "k" : "" )
+                + ( isBlackCanCastleQueen() ? "q" : "" );
+        notation.append( " " ).append( castling.isEmpty() ? FenNotation.EMPTY : castling );
+
+        Vector2I auPassant = getAuPassantPosition();
+        notation.append( " " ).append( auPassant == null
+                ? FenNotation.EMPTY
+                : AlgebraicNotation.getPosCode( auPassant.add( getOnMove() == TeamColor.WHITE ? Dir.UP.vector : Dir.DOWN.vector ) ) );
+
+        notation.append( " " ).append( this.halfMoveRuleCount );
+        notation.append( " " ).append( this.moveNumber );
+        return notation.toString();
+    }
+
+    /**
+     * state
+     */
+
+    public int getBoardSize() {
+        return this.board.getTables().size;
+    }
+
+    public TeamColor getOnMove() {
+        return colors[this.board.getOnMove()];
+    }
+
+    public Piece getPiece( Vector2I p ) {
+        int piece = isOnBoard( p ) ? this.board.pieceAt( square( p ) ) : BoardBB.NO_PIECE;
+        if ( piece == BoardBB.NO_PIECE ) {
+            return null;
+        }
+        return new Piece( types[BoardBB.type( piece )], colors[BoardBB.color( piece )] );
+    }
+
+    public boolean isWhiteCanCastleKing() {
+        return ( this.board.getCastling() & BoardBB.WHITE_CASTLE_KING ) != 0;
+    }
+
+    public boolean isWhiteCanCastleQueen() {
+        return ( this.board.getCastling() & BoardBB.WHITE_CASTLE_QUEEN ) != 0;
+    }
+
+    public boolean isBlackCanCastleKing() {
+        return ( this.board.getCastling() & BoardBB.BLACK_CASTLE_KING ) != 0;
+    }
+
+    public boolean isBlackCanCastleQueen() {
+        return ( this.board.getCastling() & BoardBB.BLACK_CASTLE_QUEEN ) != 0;
+    }
+
+    /**
+     * @return the pawn which can be captured au passant, like {@link Game#getAuPassantPosition()}
+     */
+    public Vector2I getAuPassantPosition() {
+        int sq = this.board.getAuPassantSquare();
+        return sq == BoardBB.NO_SQUARE ? null : vector( sq );
+    }
+
+    private boolean isOnBoard( Vector2I p ) {
+        return p != null && this.board.getTables().isOnBoard( p.x, p.y );
+    }
+
+    private int square( Vector2I p ) {
+        return this.board.getTables().square( p );
+    }
+
+    private int square( int x, int y ) {
+        return this.board.getTables().square( x, y );
+    }
+
+    private Vector2I vector( int sq ) {
+        return this.board.getTables().vectors[sq];
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !( o instanceof Position ) ) {
+            return false;
+        }
+        Position other = ( Position ) o;
+        return this.halfMoveRuleCount == other.halfMoveRuleCount
+                && this.moveNumber == other.moveNumber
+                && this.board.isSamePosition( other.board );
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.board.positionHash();
+        hash = 31 * hash + this.halfMoveRuleCount;
+        return 31 * hash + this.moveNumber;
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+
+}
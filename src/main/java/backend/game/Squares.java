@@ -0,0 +1,201 @@
+package backend.game;
+
+import backend.core.values.Dir;
+import backend.core.values.TeamColor;
+import math.Vector2I;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical squares of one board size, indexed by y * size + x.
+ * Every position of the board has exactly one {@link Vector2I} instance, the neighbours, the rays to the edge and
+ * the leaper targets of a square are precomputed, so walking the board never allocates a coordinate or checks bounds.
+ * Tables are built once per size and shared by all games of that size, boards larger than a bitboard use them
+ * like the default board.
+ */
+public class Squares {
+
+    public static final int NO_SQUARE = -1;
+
+    private static final Map<Integer, Squares> squaresBySize = new ConcurrentHashMap<>();
+
+    private static final Dir[] dirs = Dir.values();
+
+    private static final int[][] knightSteps = new int[][]{ { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+
+    public final int size;
+
+    public final int count;
+
+    public final Vector2I[] vectors;
+
+    /**
+     * [dir][square], the neighbour in the direction of {@link Dir#ordinal()} or {@link #NO_SQUARE}
+     */
+    public final int[][] steps;
+
+    /**
+     * [dir][square], squares from the neighbour to the edge of the board in the direction of {@link Dir#ordinal()}
+     */
+    public final int[][][] rays;
+
+    /**
+     * [square], knight targets on the board
+     */
+    public final int[][] knightTargets;
+
+    /**
+     * [square], king targets on the board
+     */
+    public final int[][] kingTargets;
+
+    /**
+     * [color][square], diagonal targets of a pawn on the board
+     */
+    public final int[][][] pawnAttackTargets;
+
+    /**
+     * [color], rank of the pieces at the start, the pawns start one rank in front of it
+     */
+    public final int[] baseRanks;
+
+    /**
+     * [color], rank on which the pawns of the color promote
+     */
+    public final int[] promotionRanks;
+
+    public static Squares of( int size ) {
+        if ( size < 1 ) {
+            throw new IllegalArgumentException( "Board size must be positive but got " + size );
+        }
+        return squaresBySize.computeIfAbsent( size, Squares::new );
+    }
+
+    private Squares( int size ) {
+        this.size = size;
+        this.count = size * size;
+        this.vectors = new Vector2I[this.count];
+        this.steps = new int[dirs.length][this.count];
+        this.rays = new int[dirs.length][this.count][];
+        this.knightTargets = new int[this.count][];
+        this.kingTargets = new int[this.count][];
+        this.pawnAttackTargets = new int[TeamColor.values().length][this.count][];
+        this.baseRanks = new int[TeamColor.values().length];
+        this.baseRanks[TeamColor.WHITE.ordinal()] = 0;
+        this.baseRanks[TeamColor.BLACK.ordinal()] = size - 1;
+        this.promotionRanks = new int[TeamColor.values().length];
+        this.promotionRanks[TeamColor.WHITE.ordinal()] = size - 1;
+        this.promotionRanks[TeamColor.BLACK.ordinal()] = 0;
+
+        for ( int sq = 0; sq < this.count; sq++ ) {
+            this.vectors[sq] = new Vector2I( sq % size, sq / size );
+        }
+        for ( int sq = 0; sq < this.count; sq++ ) {
+            Vector2I p = this.vectors[sq];
+            for ( Dir dir : dirs ) {
+                this.steps[dir.ordinal()][sq] = square( p.x + dir.vector.x, p.y + dir.vector.y );
+            }
+            this.knightTargets[sq] = targets( p, knightSteps );
+            this.kingTargets[sq] = targets( p, stepsOf( dirs ) );
+            this.pawnAttackTargets[TeamColor.WHITE.ordinal()][sq] = targets( p, stepsOf( Dir.UP_LEFT, Dir.UP_RIGHT ) );
+            this.pawnAttackTargets[TeamColor.BLACK.ordinal()][sq] = targets( p, stepsOf( Dir.DOWN_LEFT, Dir.DOWN_RIGHT ) );
+        }
+        for ( int sq = 0; sq < this.count; sq++ ) {
+            for ( Dir dir : dirs ) {
+                this.rays[dir.ordinal()][sq] = ray( sq, dir.ordinal() );
+            }
+        }
+    }
+
+    /**
+     * @return the square or {@link #NO_SQUARE} if the position is not on the board
+     */
+    public int square( int x, int y ) {
+        if ( x < 0 || y < 0 || x >= this.size || y >= this.size ) {
+            return NO_SQUARE;
+        }
+        return y * this.size + x;
+    }
+
+    /**
+     * @return the square or {@link #NO_SQUARE} if the position is null or not on the board
+     */
+    public int square( Vector2I p ) {
+        return p == null ? NO_SQUARE : square( p.x, p.y );
+    }
+
+    /**
+     * @return the canonical instance of the position or null if it is not on the board
+     */
+    public Vector2I vector( int sq ) {
+        return sq < 0 || sq >= this.count ? null : this.vectors[sq];
+    }
+
+    public Vector2I vector( int x, int y ) {
+        return vector( square( x, y ) );
+    }
+
+    /**
+     * @return the canonical instance of the position or null if it is not on the board
+     */
+    public Vector2I canonical( Vector2I p ) {
+        return vector( square( p ) );
+    }
+
+    public boolean isOnBoard( Vector2I p ) {
+        return square( p ) != NO_SQUARE;
+    }
+
+    public boolean isPromotionRank( TeamColor color, int sq ) {
+        return sq / this.size == this.promotionRanks[color.ordinal()];
+    }
+
+    /**
+     * @return the ordinal of the {@link Dir} with this vector, -1 if the vector is not a unit step
+     */
+    public static int dirOf( Vector2I vector ) {
+        for ( Dir dir : dirs ) {
+            if ( dir.vector.x == vector.x && dir.vector.y == vector.y ) {
+                return dir.ordinal();
+            }
+        }
+        return -1;
+    }
+
+    private int[] ray( int sq, int dir ) {
+        int length = 0;
+        for ( int target = this.steps[dir][sq]; target != NO_SQUARE; target = this.steps[dir][target] ) {
+            length++;
+        }
+        int[] ray = new int[length];
+        int i = 0;
+        for ( int target = this.steps[dir][sq]; target != NO_SQUARE; target = this.steps[dir][target] ) {
+            ray[i++] = target;
+        }
+        return ray;
+    }
+
+    private int[] targets( Vector2I p, int[][] offsets ) {
+        int[] buffer = new int[offsets.length];
+        int size = 0;
+        for ( int[] offset : offsets ) {
+            int target = square( p.x + offset[0], p.y + offset[1] );
+            if ( target != NO_SQUARE ) {
+                buffer[size++] = target;
+            }
+        }
+        int[] targets = new int[size];
+        System.arraycopy( buffer, 0, targets, 0, size );
+        return targets;
+    }
+
+    private static int[][] stepsOf( Dir... dirs ) {
+        int[][] offsets = new int[dirs.length][];
+        for ( int i = 0; i < dirs.length; i++ ) {
+            offsets[i] = new int[]{ dirs[i].vector.x, dirs[i].vector.y };
+        }
+        return offsets;
+    }
+
+}
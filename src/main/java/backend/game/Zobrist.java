@@ -0,0 +1,197 @@
+package backend.game;
+
+import backend.core.model.Piece;
+import backend.core.values.Dir;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.bitboard.BoardBB;
+import math.Vector2I;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist keys of one board size, a position hash is the xor of the keys of its pieces, the side on move, the
+ * castling rights and the au passant square.
+ * The au passant square only counts if a pawn of the side on move stands beside the pawn which can be captured,
+ * so positions which only differ by an unusable au passant right get the same hash.
+ * Keys are generated from a fixed seed, hashes are stable between runs.
+ */
+public class Zobrist {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final Map<Integer, Zobrist> zobristBySize = new ConcurrentHashMap<>();
+
+    private static final int PIECES = TeamColor.values().length * PieceType.values().length;
+
+    private static final int PAWN = PieceType.PAWN.ordinal();
+
+    private final Squares squares;
+
+    /**
+     * [color * types + type][square]
+     */
+    private final long[][] pieces;
+
+    private final long blackOnMove;
+
+    /**
+     * [castling bits] xor of the keys of the castling rights
+     */
+    private final long[] castling;
+
+    /**
+     * [square] key of the pawn which can be captured au passant
+     */
+    private final long[] auPassant;
+
+    public static Zobrist of( int size ) {
+        return zobristBySize.computeIfAbsent( size, Zobrist::new );
+    }
+
+    private Zobrist( int size ) {
+        this.squares = Squares.of( size );
+        SplittableRandom random = new SplittableRandom( SEED ^ size );
+        this.pieces = new long[PIECES][this.squares.count];
+        for ( long[] keys : this.pieces ) {
+            for ( int sq = 0; sq < keys.length; sq++ ) {
+                keys[sq] = random.nextLong();
+            }
+        }
+        this.blackOnMove = random.nextLong();
+        long[] rights = new long[]{ random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong() };
+        this.castling = new long[1 << rights.length];
+        for ( int bits = 0; bits < this.castling.length; bits++ ) {
+            for ( int i = 0; i < rights.length; i++ ) {
+                if ( ( bits & ( 1 << i ) ) != 0 ) {
+                    this.castling[bits] ^= rights[i];
+                }
+            }
+        }
+        this.auPassant = new long[this.squares.count];
+        for ( int sq = 0; sq < this.auPassant.length; sq++ ) {
+            this.auPassant[sq] = random.nextLong();
+        }
+    }
+
+    /**
+     * @param piece color * types + type
+     */
+    public long piece( int piece, int sq ) {
+        return this.pieces[piece][sq];
+    }
+
+    public long piece( TeamColor color, PieceType type, int sq ) {
+        return this.pieces[code( color, type )][sq];
+    }
+
+    /**
+     * @param castling        castling rights as bits of {@link BoardBB#castlingOf(boolean, boolean, boolean, boolean)}
+     * @param auPassantSquare square of the pawn which can be captured or a negative value
+     * @param pawnBeside      true if a pawn of the side on move stands beside it, otherwise the square is not counted
+     */
+    public long state( int onMove, int castling, int auPassantSquare, boolean pawnBeside ) {
+        long key = onMove == TeamColor.BLACK.ordinal() ? this.blackOnMove : 0L;
+        key ^= this.castling[castling & 0xF];
+        if ( auPassantSquare >= 0 && pawnBeside ) {
+            key ^= this.auPassant[auPassantSquare];
+        }
+        return key;
+    }
+
+    /**
+     * full computation
+     */
+
+    /**
+     * Hash of the start position of a config, the au passant target square of the config is translated to the pawn
+     * which can be captured.
+     */
+    public static long hash( GameConfig config ) {
+        Zobrist zobrist = of( config.getBoardSize() );
+        Squares squares = zobrist.squares;
+        int[] codes = new int[squares.count];
+        Arrays.fill( codes, -1 );
+        long key = 0L;
+        for ( Map.Entry<Vector2I, Piece> placement : config.getPlacements().entrySet() ) {
+            int sq = squares.square( placement.getKey() );
+            Piece piece = placement.getValue();
+            codes[sq] = code( piece.getTeam(), piece.getType() );
+            key ^= zobrist.pieces[codes[sq]][sq];
+        }
+        int onMove = config.getOnMove().ordinal();
+        int auPassantSquare = Squares.NO_SQUARE;
+        Vector2I target = config.getAuPassantPosition();
+        if ( target != null ) {
+            int sq = squares.square( target.x, onMove == TeamColor.WHITE.ordinal() ? target.y - 1 : target.y + 1 );
+            if ( sq != Squares.NO_SQUARE && codes[sq] == code( onMove ^ 1, PAWN ) ) {
+                auPassantSquare = sq;
+            }
+        }
+        int castling = BoardBB.castlingOf( config.isWhiteCanCastleKing(), config.isWhiteCanCastleQueen(),
+                config.isBlackCanCastleKing(), config.isBlackCanCastleQueen() );
+        return key ^ zobrist.state( onMove, castling, auPassantSquare,
+                zobrist.hasPawnBeside( auPassantSquare, code( onMove, PAWN ), codes ) );
+    }
+
+    /**
+     * Hash of the current position of any game.
+     */
+    public static long hash( Game game ) {
+        Zobrist zobrist = of( game.getBoardSize() );
+        Squares squares = zobrist.squares;
+        int[] codes = new int[squares.count];
+        long key = 0L;
+        for ( int sq = 0; sq < squares.count; sq++ ) {
+            Piece piece = game.getPiece( sq );
+            codes[sq] = piece == null ? -1 : code( piece.getTeam(), piece.getType() );
+            if ( piece != null ) {
+                key ^= zobrist.pieces[codes[sq]][sq];
+            }
+        }
+        int onMove = game.getOnMove().ordinal();
+        int auPassantSquare = squares.square( game.getAuPassantPosition() );
+        int castling = BoardBB.castlingOf( game.isWhiteCanCastleKing(), game.isWhiteCanCastleQueen(),
+                game.isBlackCanCastleKing(), game.isBlackCanCastleQueen() );
+        return key ^ zobrist.state( onMove, castling, auPassantSquare,
+                zobrist.hasPawnBeside( auPassantSquare, code( onMove, PAWN ), codes ) );
+    }
+
+    /**
+     * @return true if a piece with the code stands left or right of the square
+     */
+    private boolean hasPawnBeside( int sq, int pawn, int[] codes ) {
+        if ( sq < 0 ) {
+            return false;
+        }
+        int left = left( sq );
+        int right = right( sq );
+        return ( left != Squares.NO_SQUARE && codes[left] == pawn ) || ( right != Squares.NO_SQUARE && codes[right] == pawn );
+    }
+
+    /**
+     * @return the square left of the square or {@link Squares#NO_SQUARE}
+     */
+    public int left( int sq ) {
+        return this.squares.steps[Dir.LEFT.ordinal()][sq];
+    }
+
+    /**
+     * @return the square right of the square or {@link Squares#NO_SQUARE}
+     */
+    public int right( int sq ) {
+        return this.squares.steps[Dir.RIGHT.ordinal()][sq];
+    }
+
+    private static int code( TeamColor color, PieceType type ) {
+        return code( color.ordinal(), type.ordinal() );
+    }
+
+    private static int code( int color, int type ) {
+        return color * PieceType.values().length + type;
+    }
+
+}
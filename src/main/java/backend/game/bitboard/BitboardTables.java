@@ -0,0 +1,280 @@
+package backend.game.bitboard;
+
+import backend.core.values.Dir;
+import backend.core.values.TeamColor;
+import backend.game.Squares;
+import math.Vector2I;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attack and ray masks for one board size, indexed by square (y * size + x).
+ * Tables are built once per size and shared by all games of that size.
+ * Slider attacks are looked up in magic tables: the relevant blockers of a square
+ * are multiplied with a magic number and the upper bits index the attack table.
+ */
+public class BitboardTables {
+
+    public static final int MAX_BOARD_SIZE = 8;
+
+    private static final Map<Integer, BitboardTables> tables = new ConcurrentHashMap<>();
+
+    private static final Dir[] dirs = Dir.values();
+
+    private static final Dir[] rookDirs = new Dir[]{ Dir.UP, Dir.RIGHT, Dir.DOWN, Dir.LEFT };
+
+    private static final Dir[] bishopDirs = new Dir[]{ Dir.UP_RIGHT, Dir.DOWN_RIGHT, Dir.UP_LEFT, Dir.DOWN_LEFT };
+
+    /**
+     * fixed seed, so the magics are the same on every run
+     */
+    private static final long MAGIC_SEED = 0x5DEECE66DL;
+
+    static {
+        // the default board is built with the class
+        of( MAX_BOARD_SIZE );
+    }
+
+    public final int size;
+
+    public final int squares;
+
+    public final long boardMask;
+
+    public final long[] knightAttacks;
+
+    public final long[] kingAttacks;
+
+    /**
+     * [color][square]
+     */
+    public final long[][] pawnAttacks;
+
+    /**
+     * [dir][square], ray to the edge of the board excluding the square itself
+     */
+    public final long[][] rays;
+
+    /**
+     * true if the squares of the ray in this dir are increasing
+     */
+    public final boolean[] positiveDirs;
+
+    public final long[] rankMasks;
+
+    /**
+     * castling rights that are kept when a piece moves from or to the square
+     */
+    public final int[] castlingMasks;
+
+    /**
+     * canonical squares, see {@link Squares}
+     */
+    public final Vector2I[] vectors;
+
+    /**
+     * relevant blockers of the slider rays, the last square of a ray never blocks
+     */
+    public final long[] rookMasks;
+
+    public final long[] bishopMasks;
+
+    public final long[] rookMagics;
+
+    public final long[] bishopMagics;
+
+    public final int[] rookShifts;
+
+    public final int[] bishopShifts;
+
+    /**
+     * [square][magic index]
+     */
+    public final long[][] rookTable;
+
+    public final long[][] bishopTable;
+
+    public static BitboardTables of( int size ) {
+        if ( size < 1 || size > MAX_BOARD_SIZE ) {
+            throw new IllegalArgumentException( "Bitboards only support board sizes from 1 to " + MAX_BOARD_SIZE + " but got " + size );
+        }
+        return tables.computeIfAbsent( size, BitboardTables::new );
+    }
+
+    private BitboardTables( int size ) {
+        this.size = size;
+        this.squares = size * size;
+        this.boardMask = this.squares == 64 ? -1L : ( 1L << this.squares ) - 1L;
+        this.knightAttacks = new long[this.squares];
+        this.kingAttacks = new long[this.squares];
+        this.pawnAttacks = new long[TeamColor.values().length][this.squares];
+        this.rays = new long[dirs.length][this.squares];
+        this.positiveDirs = new boolean[dirs.length];
+        this.rankMasks = new long[size];
+        this.castlingMasks = new int[this.squares];
+        this.vectors = Squares.of( size ).vectors;
+        this.rookMasks = new long[this.squares];
+        this.bishopMasks = new long[this.squares];
+        this.rookMagics = new long[this.squares];
+        this.bishopMagics = new long[this.squares];
+        this.rookShifts = new int[this.squares];
+        this.bishopShifts = new int[this.squares];
+        this.rookTable = new long[this.squares][];
+        this.bishopTable = new long[this.squares][];
+
+        for ( Dir dir : dirs ) {
+            this.positiveDirs[dir.ordinal()] = dir.vector.y > 0 || ( dir.vector.y == 0 && dir.vector.x > 0 );
+        }
+
+        int[][] knightSteps = new int[][]{ { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+        for ( int sq = 0; sq < this.squares; sq++ ) {
+            int x = x( sq );
+            int y = y( sq );
+            this.rankMasks[y] |= bit( sq );
+            for ( int[] step : knightSteps ) {
+                this.knightAttacks[sq] |= bit( x + step[0], y + step[1] );
+            }
+            for ( Dir dir : dirs ) {
+                this.kingAttacks[sq] |= bit( x + dir.vector.x, y + dir.vector.y );
+                for ( int i = 1; i < size; i++ ) {
+                    this.rays[dir.ordinal()][sq] |= bit( x + dir.vector.x * i, y + dir.vector.y * i );
+                }
+            }
+            this.pawnAttacks[TeamColor.WHITE.ordinal()][sq] = bit( x - 1, y + 1 ) | bit( x + 1, y + 1 );
+            this.pawnAttacks[TeamColor.BLACK.ordinal()][sq] = bit( x - 1, y - 1 ) | bit( x + 1, y - 1 );
+            this.castlingMasks[sq] = BoardBB.ALL_CASTLING;
+        }
+
+        int top = size - 1;
+        if ( isOnBoard( BoardBB.KING_START_COL, 0 ) ) {
+            this.castlingMasks[square( BoardBB.KING_START_COL, 0 )] &= ~( BoardBB.WHITE_CASTLE_KING | BoardBB.WHITE_CASTLE_QUEEN );
+            this.castlingMasks[square( BoardBB.KING_START_COL, top )] &= ~( BoardBB.BLACK_CASTLE_KING | BoardBB.BLACK_CASTLE_QUEEN );
+        }
+        this.castlingMasks[square( top, 0 )] &= ~BoardBB.WHITE_CASTLE_KING;
+        this.castlingMasks[square( 0, 0 )] &= ~BoardBB.WHITE_CASTLE_QUEEN;
+        this.castlingMasks[square( top, top )] &= ~BoardBB.BLACK_CASTLE_KING;
+        this.castlingMasks[square( 0, top )] &= ~BoardBB.BLACK_CASTLE_QUEEN;
+
+        Random random = new Random( MAGIC_SEED + size );
+        for ( int sq = 0; sq < this.squares; sq++ ) {
+            initMagic( sq, rookDirs, this.rookMasks, this.rookMagics, this.rookShifts, this.rookTable, random );
+            initMagic( sq, bishopDirs, this.bishopMasks, this.bishopMagics, this.bishopShifts, this.bishopTable, random );
+        }
+    }
+
+    private void initMagic( int sq, Dir[] sliderDirs, long[] masks, long[] magics, int[] shifts, long[][] table, Random random ) {
+
+        long mask = 0L;
+        for ( Dir dir : sliderDirs ) {
+            long ray = this.rays[dir.ordinal()][sq];
+            if ( ray != 0L ) {
+                int edge = this.positiveDirs[dir.ordinal()]
+                        ? 63 - Long.numberOfLeadingZeros( ray )
+                        : Long.numberOfTrailingZeros( ray );
+                mask |= ray & ~bit( edge );
+            }
+        }
+
+        // enumerate all blocker subsets of the mask
+        int bits = Math.max( 1, Long.bitCount( mask ) );
+        int subsets = 1 << Long.bitCount( mask );
+        long[] blockers = new long[subsets];
+        long[] attacks = new long[subsets];
+        long subset = 0L;
+        for ( int i = 0; i < subsets; i++ ) {
+            blockers[i] = subset;
+            attacks[i] = slidingAttacks( sq, subset, sliderDirs );
+            subset = ( subset - mask ) & mask;
+        }
+
+        // search a magic which maps every subset to an index without destructive collisions
+        int shift = 64 - bits;
+        long[] attackTable = new long[1 << bits];
+        int[] epochs = new int[1 << bits];
+        int epoch = 0;
+        long magic;
+        boolean found;
+        do {
+            magic = random.nextLong() & random.nextLong() & random.nextLong();
+            epoch++;
+            found = true;
+            for ( int i = 0; found && i < subsets; i++ ) {
+                int idx = ( int ) ( ( blockers[i] * magic ) >>> shift );
+                if ( epochs[idx] != epoch ) {
+                    epochs[idx] = epoch;
+                    attackTable[idx] = attacks[i];
+                } else if ( attackTable[idx] != attacks[i] ) {
+                    found = false;
+                }
+            }
+        } while ( !found );
+
+        masks[sq] = mask;
+        magics[sq] = magic;
+        shifts[sq] = shift;
+        table[sq] = attackTable;
+    }
+
+    private long slidingAttacks( int sq, long occupied, Dir[] sliderDirs ) {
+        long attacks = 0L;
+        for ( Dir dir : sliderDirs ) {
+            attacks |= rayAttacks( dir.ordinal(), sq, occupied );
+        }
+        return attacks;
+    }
+
+    public int square( int x, int y ) {
+        return y * this.size + x;
+    }
+
+    public int square( Vector2I p ) {
+        return square( p.x, p.y );
+    }
+
+    public int x( int sq ) {
+        return sq % this.size;
+    }
+
+    public int y( int sq ) {
+        return sq / this.size;
+    }
+
+    public boolean isOnBoard( int x, int y ) {
+        return x >= 0 && y >= 0 && x < this.size && y < this.size;
+    }
+
+    public long bit( int x, int y ) {
+        return isOnBoard( x, y ) ? bit( square( x, y ) ) : 0L;
+    }
+
+    public static long bit( int sq ) {
+        return 1L << sq;
+    }
+
+    public long rayAttacks( int dir, int sq, long occupied ) {
+        long ray = this.rays[dir][sq];
+        long blockers = ray & occupied;
+        if ( blockers == 0L ) {
+            return ray;
+        }
+        int blocker = this.positiveDirs[dir]
+                ? Long.numberOfTrailingZeros( blockers )
+                : 63 - Long.numberOfLeadingZeros( blockers );
+        return ray ^ this.rays[dir][blocker];
+    }
+
+    public long rookAttacks( int sq, long occupied ) {
+        return this.rookTable[sq][( int ) ( ( ( occupied & this.rookMasks[sq] ) * this.rookMagics[sq] ) >>> this.rookShifts[sq] )];
+    }
+
+    public long bishopAttacks( int sq, long occupied ) {
+        return this.bishopTable[sq][( int ) ( ( ( occupied & this.bishopMasks[sq] ) * this.bishopMagics[sq] ) >>> this.bishopShifts[sq] )];
+    }
+
+    public long queenAttacks( int sq, long occupied ) {
+        return rookAttacks( sq, occupied ) | bishopAttacks( sq, occupied );
+    }
+
+}
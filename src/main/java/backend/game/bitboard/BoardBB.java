@@ -0,0 +1,593 @@
+package backend.game.bitboard;
+
+import backend.core.model.Piece;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.Zobrist;
+import math.Vector2I;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static backend.core.model.MoveCode.*;
+
+/**
+ * Mutable bitboard position with one long per piece type and color.
+ * Moves are packed ints, see {@link MoveCode}.
+ */
+public class BoardBB {
+
+    public static final int MAX_MOVES = 512;
+
+    public static final int NO_PIECE = -1;
+
+    public static final int NO_SQUARE = -1;
+
+    public static final int WHITE = TeamColor.WHITE.ordinal();
+
+    public static final int BLACK = TeamColor.BLACK.ordinal();
+
+    public static final int WHITE_CASTLE_KING = 1;
+
+    public static final int WHITE_CASTLE_QUEEN = 2;
+
+    public static final int BLACK_CASTLE_KING = 4;
+
+    public static final int BLACK_CASTLE_QUEEN = 8;
+
+    public static final int ALL_CASTLING = 15;
+
+    public static final int KING_START_COL = 4;
+
+    private static final PieceType[] types = PieceType.values();
+
+    private static final PieceType[] promotions = new PieceType[]{ PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT };
+
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    final BitboardTables tables;
+
+    final Zobrist zobrist;
+
+    /**
+     * [color * 6 + type]
+     */
+    final long[] pieces;
+
+    final long[] colors;
+
+    long occupied;
+
+    int onMove;
+
+    int castling;
+
+    /**
+     * square of the pawn which can be captured au passant
+     */
+    int auPassantSquare;
+
+    /**
+     * zobrist key of the pieces, kept up to date by put and remove
+     */
+    long pieceKey;
+
+    public BoardBB( int size ) {
+        this.tables = BitboardTables.of( size );
+        this.zobrist = Zobrist.of( size );
+        this.pieces = new long[TeamColor.values().length * types.length];
+        this.colors = new long[TeamColor.values().length];
+        this.onMove = WHITE;
+        this.auPassantSquare = NO_SQUARE;
+    }
+
+    /**
+     * Board of the start position of a config, the au passant target square of the config is
+     * translated to the pawn which can be captured.
+     */
+    public static BoardBB of( GameConfig config ) {
+        BoardBB board = new BoardBB( config.getBoardSize() );
+        for ( Map.Entry<Vector2I, Piece> placement : config.getPlacements().entrySet() ) {
+            Piece piece = placement.getValue();
+            board.put( board.tables.square( placement.getKey() ), piece( piece.getTeam().ordinal(), piece.getType().ordinal() ) );
+        }
+        board.onMove = config.getOnMove().ordinal();
+        board.castling = castlingOf( config.isWhiteCanCastleKing(), config.isWhiteCanCastleQueen(),
+                config.isBlackCanCastleKing(), config.isBlackCanCastleQueen() );
+        Vector2I target = config.getAuPassantPosition();
+        if ( target != null ) {
+            int y = board.onMove == WHITE ? target.y - 1 : target.y + 1;
+            int enemyPawn = piece( board.onMove ^ 1, PAWN );
+            if ( board.tables.isOnBoard( target.x, y ) && board.pieceAt( board.tables.square( target.x, y ) ) == enemyPawn ) {
+                board.auPassantSquare = board.tables.square( target.x, y );
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Board of the current position of any game.
+     */
+    public static BoardBB of( Game game ) {
+        BoardBB board = new BoardBB( game.getBoardSize() );
+        for ( int sq = 0; sq < board.tables.squares; sq++ ) {
+            Piece piece = game.getPiece( board.tables.vectors[sq] );
+            if ( piece != null ) {
+                board.put( sq, piece( piece.getTeam().ordinal(), piece.getType().ordinal() ) );
+            }
+        }
+        board.onMove = game.getOnMove().ordinal();
+        board.castling = castlingOf( game.isWhiteCanCastleKing(), game.isWhiteCanCastleQueen(),
+                game.isBlackCanCastleKing(), game.isBlackCanCastleQueen() );
+        board.auPassantSquare = game.getAuPassantPosition() == null
+                ? NO_SQUARE
+                : board.tables.square( game.getAuPassantPosition() );
+        return board;
+    }
+
+    public static int castlingOf( boolean whiteKing, boolean whiteQueen, boolean blackKing, boolean blackQueen ) {
+        return ( whiteKing ? WHITE_CASTLE_KING : 0 )
+                | ( whiteQueen ? WHITE_CASTLE_QUEEN : 0 )
+                | ( blackKing ? BLACK_CASTLE_KING : 0 )
+                | ( blackQueen ? BLACK_CASTLE_QUEEN : 0 );
+    }
+
+    /**
+     * pieces
+     */
+
+    public static int piece( int color, int type ) {
+        return color * types.length + type;
+    }
+
+    public static int color( int piece ) {
+        return piece / types.length;
+    }
+
+    public static int type( int piece ) {
+        return piece % types.length;
+    }
+
+    public void put( int sq, int piece ) {
+        long bit = BitboardTables.bit( sq );
+        this.pieces[piece] |= bit;
+        this.colors[color( piece )] |= bit;
+        this.occupied |= bit;
+        this.pieceKey ^= this.zobrist.piece( piece, sq );
+    }
+
+    public void remove( int sq, int piece ) {
+        long bit = ~BitboardTables.bit( sq );
+        this.pieces[piece] &= bit;
+        this.colors[color( piece )] &= bit;
+        this.occupied &= bit;
+        this.pieceKey ^= this.zobrist.piece( piece, sq );
+    }
+
+    public int pieceAt( int sq ) {
+        long bit = BitboardTables.bit( sq );
+        if ( ( this.occupied & bit ) == 0L ) {
+            return NO_PIECE;
+        }
+        int offset = ( this.colors[WHITE] & bit ) != 0L ? piece( WHITE, 0 ) : piece( BLACK, 0 );
+        for ( int type = 0; type < types.length; type++ ) {
+            if ( ( this.pieces[offset + type] & bit ) != 0L ) {
+                return offset + type;
+            }
+        }
+        return NO_PIECE;
+    }
+
+    public int getOnMove() {
+        return this.onMove;
+    }
+
+    public int getCastling() {
+        return this.castling;
+    }
+
+    public int getAuPassantSquare() {
+        return this.auPassantSquare;
+    }
+
+    public long getOccupied() {
+        return this.occupied;
+    }
+
+    public BitboardTables getTables() {
+        return this.tables;
+    }
+
+    public long getPieces( int color, int type ) {
+        return this.pieces[piece( color, type )];
+    }
+
+    public long getColor( int color ) {
+        return this.colors[color];
+    }
+
+    public int kingSquare( int color ) {
+        long king = this.pieces[piece( color, KING )];
+        return king == 0L ? NO_SQUARE : Long.numberOfTrailingZeros( king );
+    }
+
+    /**
+     * attacks
+     */
+
+    public long attackersOf( int sq, int byColor, long occupied ) {
+        return ( this.tables.pawnAttacks[byColor ^ 1][sq] & this.pieces[piece( byColor, PAWN )] )
+                | ( this.tables.knightAttacks[sq] & this.pieces[piece( byColor, KNIGHT )] )
+                | ( this.tables.kingAttacks[sq] & this.pieces[piece( byColor, KING )] )
+                | ( this.tables.bishopAttacks( sq, occupied ) & ( this.pieces[piece( byColor, BISHOP )] | this.pieces[piece( byColor, QUEEN )] ) )
+                | ( this.tables.rookAttacks( sq, occupied ) & ( this.pieces[piece( byColor, ROOK )] | this.pieces[piece( byColor, QUEEN )] ) );
+    }
+
+    public boolean isAttacked( int sq, int byColor, long occupied ) {
+        return attackersOf( sq, byColor, occupied ) != 0L;
+    }
+
+    public boolean isAttacked( int sq, int byColor ) {
+        return isAttacked( sq, byColor, this.occupied );
+    }
+
+    public long attacksOf( int sq, long occupied ) {
+        int piece = pieceAt( sq );
+        if ( piece == NO_PIECE ) {
+            return 0L;
+        }
+        int type = type( piece );
+        if ( type == PAWN ) {
+            return this.tables.pawnAttacks[color( piece )][sq];
+        } else if ( type == KNIGHT ) {
+            return this.tables.knightAttacks[sq];
+        } else if ( type == BISHOP ) {
+            return this.tables.bishopAttacks( sq, occupied );
+        } else if ( type == ROOK ) {
+            return this.tables.rookAttacks( sq, occupied );
+        } else if ( type == QUEEN ) {
+            return this.tables.queenAttacks( sq, occupied );
+        }
+        return this.tables.kingAttacks[sq];
+    }
+
+    public boolean isCheck( int color ) {
+        int king = kingSquare( color );
+        return king != NO_SQUARE && isAttacked( king, color ^ 1 );
+    }
+
+    /**
+     * move generation
+     */
+
+    /**
+     * Generates all pseudo legal moves of a color into the given buffer.
+     *
+     * @return the new end of the buffer
+     */
+    public int generateMoves( int color, int[] moves, int offset ) {
+        long own = this.colors[color];
+        long enemy = this.colors[color ^ 1];
+        long targets = ~own & this.tables.boardMask;
+
+        offset = generatePawnMoves( color, moves, offset );
+
+        for ( long bb = this.pieces[piece( color, KNIGHT )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            offset = addMoves( from, this.tables.knightAttacks[from] & targets, enemy, moves, offset );
+        }
+        for ( long bb = this.pieces[piece( color, BISHOP )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            offset = addMoves( from, this.tables.bishopAttacks( from, this.occupied ) & targets, enemy, moves, offset );
+        }
+        for ( long bb = this.pieces[piece( color, ROOK )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            offset = addMoves( from, this.tables.rookAttacks( from, this.occupied ) & targets, enemy, moves, offset );
+        }
+        for ( long bb = this.pieces[piece( color, QUEEN )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            offset = addMoves( from, this.tables.queenAttacks( from, this.occupied ) & targets, enemy, moves, offset );
+        }
+        for ( long bb = this.pieces[piece( color, KING )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            offset = addMoves( from, this.tables.kingAttacks[from] & targets, enemy, moves, offset );
+            offset = generateCastleMoves( color, from, moves, offset );
+        }
+        return offset;
+    }
+
+    /**
+     * Generates all legal moves of a color into the given buffer.
+     *
+     * @return the new end of the buffer
+     */
+    public int generateLegalMoves( int color, int[] moves, int offset ) {
+        int end = generateMoves( color, moves, offset );
+        int legal = offset;
+        for ( int i = offset; i < end; i++ ) {
+            if ( isLegal( moves[i] ) ) {
+                moves[legal++] = moves[i];
+            }
+        }
+        return legal;
+    }
+
+    private int addMoves( int from, long targets, long enemy, int[] moves, int offset ) {
+        for ( ; targets != 0L; targets &= targets - 1 ) {
+            int to = Long.numberOfTrailingZeros( targets );
+            int flags = ( enemy & BitboardTables.bit( to ) ) != 0L ? FLAG_CAPTURE : 0;
+            moves[offset++] = encode( from, to, null, flags );
+        }
+        return offset;
+    }
+
+    private int generatePawnMoves( int color, int[] moves, int offset ) {
+        int size = this.tables.size;
+        int forward = color == WHITE ? size : -size;
+        int startRank = color == WHITE ? 1 : size - 2;
+        long enemy = this.colors[color ^ 1];
+
+        for ( long bb = this.pieces[piece( color, PAWN )]; bb != 0L; bb &= bb - 1 ) {
+            int from = Long.numberOfTrailingZeros( bb );
+            int one = from + forward;
+            if ( one >= 0 && one < this.tables.squares && ( this.occupied & BitboardTables.bit( one ) ) == 0L ) {
+                offset = addPawnMoves( color, from, one, 0, moves, offset );
+                int two = one + forward;
+                if ( this.tables.y( from ) == startRank && two >= 0 && two < this.tables.squares
+                        && ( this.occupied & BitboardTables.bit( two ) ) == 0L ) {
+                    offset = addPawnMoves( color, from, two, FLAG_DOUBLE_PUSH, moves, offset );
+                }
+            }
+            for ( long captures = this.tables.pawnAttacks[color][from] & enemy; captures != 0L; captures &= captures - 1 ) {
+                offset = addPawnMoves( color, from, Long.numberOfTrailingZeros( captures ), FLAG_CAPTURE, moves, offset );
+            }
+            if ( color == this.onMove && this.auPassantSquare != NO_SQUARE
+                    && this.tables.y( this.auPassantSquare ) == this.tables.y( from )
+                    && Math.abs( this.tables.x( this.auPassantSquare ) - this.tables.x( from ) ) == 1
+                    && ( this.pieces[piece( color ^ 1, PAWN )] & BitboardTables.bit( this.auPassantSquare ) ) != 0L ) {
+                int to = this.auPassantSquare + forward;
+                if ( ( this.occupied & BitboardTables.bit( to ) ) == 0L ) {
+                    moves[offset++] = encode( from, to, null, FLAG_AU_PASSANT );
+                }
+            }
+        }
+        return offset;
+    }
+
+    private int addPawnMoves( int color, int from, int to, int flags, int[] moves, int offset ) {
+        int promotionRank = color == WHITE ? this.tables.size - 1 : 0;
+        if ( this.tables.y( to ) != promotionRank ) {
+            moves[offset++] = encode( from, to, null, flags );
+            return offset;
+        }
+        for ( PieceType promotion : promotions ) {
+            moves[offset++] = encode( from, to, promotion, flags );
+        }
+        return offset;
+    }
+
+    private int generateCastleMoves( int color, int from, int[] moves, int offset ) {
+        int rank = color == WHITE ? 0 : this.tables.size - 1;
+        int kingRight = color == WHITE ? WHITE_CASTLE_KING : BLACK_CASTLE_KING;
+        int queenRight = color == WHITE ? WHITE_CASTLE_QUEEN : BLACK_CASTLE_QUEEN;
+        if ( ( this.castling & ( kingRight | queenRight ) ) == 0
+                || !this.tables.isOnBoard( KING_START_COL, rank )
+                || from != this.tables.square( KING_START_COL, rank )
+                || isAttacked( from, color ^ 1 ) ) {
+            return offset;
+        }
+        long rooks = this.pieces[piece( color, ROOK )];
+        int rookCol = this.tables.size - 1;
+        if ( ( this.castling & kingRight ) != 0 && KING_START_COL + 2 < rookCol
+                && ( rooks & BitboardTables.bit( this.tables.square( rookCol, rank ) ) ) != 0L
+                && isEmpty( rank, KING_START_COL + 1, rookCol - 1 )
+                && !isAttacked( from + 1, color ^ 1 )
+                && !isAttacked( from + 2, color ^ 1 ) ) {
+            moves[offset++] = encode( from, from + 2, null, FLAG_CASTLE_KING );
+        }
+        if ( ( this.castling & queenRight ) != 0
+                && ( rooks & BitboardTables.bit( this.tables.square( 0, rank ) ) ) != 0L
+                && isEmpty( rank, 1, KING_START_COL - 1 )
+                && !isAttacked( from - 1, color ^ 1 )
+                && !isAttacked( from - 2, color ^ 1 ) ) {
+            moves[offset++] = encode( from, from - 2, null, FLAG_CASTLE_QUEEN );
+        }
+        return offset;
+    }
+
+    private boolean isEmpty( int rank, int fromCol, int toCol ) {
+        for ( int col = fromCol; col <= toCol; col++ ) {
+            if ( ( this.occupied & BitboardTables.bit( this.tables.square( col, rank ) ) ) != 0L ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes a move of the side on move from the board, without checking the movement rules of the piece.
+     *
+     * @return the move or 0 if there is no piece of the side on move
+     */
+    public int encodeMove( int from, int to, PieceType promoteTo ) {
+        int piece = pieceAt( from );
+        if ( piece == NO_PIECE || color( piece ) != this.onMove ) {
+            return 0;
+        }
+        int target = pieceAt( to );
+        int flags = target == NO_PIECE ? 0 : FLAG_CAPTURE;
+        PieceType promotion = null;
+        int dx = this.tables.x( to ) - this.tables.x( from );
+        int dy = this.tables.y( to ) - this.tables.y( from );
+        if ( type( piece ) == PAWN ) {
+            if ( Math.abs( dy ) == 2 ) {
+                flags |= FLAG_DOUBLE_PUSH;
+            }
+            if ( dx != 0 && target == NO_PIECE ) {
+                flags |= FLAG_AU_PASSANT;
+            }
+            int lastRank = this.onMove == WHITE ? this.tables.size - 1 : 0;
+            if ( this.tables.y( to ) == lastRank ) {
+                promotion = promoteTo == null ? PieceType.QUEEN : promoteTo;
+            }
+        } else if ( type( piece ) == KING && Math.abs( dx ) == 2 ) {
+            flags |= dx > 0 ? FLAG_CASTLE_KING : FLAG_CASTLE_QUEEN;
+        }
+        return encode( from, to, promotion, flags );
+    }
+
+    /**
+     * @return the legal move of the side on move or 0, promotions match the requested type
+     */
+    public int findLegalMove( int from, int to, PieceType promoteTo ) {
+        int[] moves = new int[MAX_MOVES];
+        int end = generateMoves( this.onMove, moves, 0 );
+        for ( int i = 0; i < end; i++ ) {
+            int move = moves[i];
+            if ( from( move ) == from && to( move ) == to
+                    && ( promotion( move ) == null || promotion( move ).equals( promoteTo ) )
+                    && isLegal( move ) ) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if the moving king would not be in check after a pseudo legal move.
+     */
+    public boolean isLegal( int move ) {
+        int piece = pieceAt( from( move ) );
+        if ( piece == NO_PIECE ) {
+            return false;
+        }
+        int color = color( piece );
+        long undo = make( move );
+        boolean legal = !isCheck( color );
+        unmake( move, undo );
+        return legal;
+    }
+
+    /**
+     * make / unmake
+     */
+
+    /**
+     * Applies a pseudo legal move.
+     *
+     * @return the state needed to unmake the move
+     */
+    public long make( int move ) {
+        int from = from( move );
+        int to = to( move );
+        int piece = pieceAt( from );
+        int color = color( piece );
+
+        int capturedSquare = hasFlag( move, FLAG_AU_PASSANT ) ? this.auPassantSquare : to;
+        int captured = pieceAt( capturedSquare );
+        long undo = this.castling
+                | ( long ) ( this.auPassantSquare + 1 ) << 4
+                | ( long ) ( captured + 1 ) << 12;
+
+        if ( captured != NO_PIECE ) {
+            remove( capturedSquare, captured );
+        }
+        remove( from, piece );
+        PieceType promotion = promotion( move );
+        put( to, promotion == null ? piece : piece( color, promotion.ordinal() ) );
+
+        if ( hasFlag( move, FLAG_CASTLE_KING ) ) {
+            moveRook( color, this.tables.square( this.tables.size - 1, this.tables.y( from ) ), to - 1 );
+        } else if ( hasFlag( move, FLAG_CASTLE_QUEEN ) ) {
+            moveRook( color, this.tables.square( 0, this.tables.y( from ) ), to + 1 );
+        }
+
+        this.castling &= this.tables.castlingMasks[from] & this.tables.castlingMasks[to];
+        this.auPassantSquare = hasFlag( move, FLAG_DOUBLE_PUSH ) ? to : NO_SQUARE;
+        this.onMove = color ^ 1;
+        return undo;
+    }
+
+    public void unmake( int move, long undo ) {
+        int from = from( move );
+        int to = to( move );
+        int piece = pieceAt( to );
+        int color = color( piece );
+
+        this.castling = ( int ) ( undo & 0xF );
+        this.auPassantSquare = ( int ) ( ( undo >>> 4 ) & 0xFF ) - 1;
+        int captured = ( int ) ( ( undo >>> 12 ) & 0xFF ) - 1;
+
+        if ( hasFlag( move, FLAG_CASTLE_KING ) ) {
+            moveRook( color, to - 1, this.tables.square( this.tables.size - 1, this.tables.y( from ) ) );
+        } else if ( hasFlag( move, FLAG_CASTLE_QUEEN ) ) {
+            moveRook( color, to + 1, this.tables.square( 0, this.tables.y( from ) ) );
+        }
+
+        remove( to, piece );
+        put( from, promotion( move ) == null ? piece : piece( color, PAWN ) );
+        if ( captured != NO_PIECE ) {
+            put( hasFlag( move, FLAG_AU_PASSANT ) ? this.auPassantSquare : to, captured );
+        }
+        this.onMove = color;
+    }
+
+    private void moveRook( int color, int from, int to ) {
+        int rook = piece( color, ROOK );
+        remove( from, rook );
+        put( to, rook );
+    }
+
+    /**
+     * @return true if both boards hold the same pieces, side on move, castling rights and au passant square
+     */
+    public boolean isSamePosition( BoardBB other ) {
+        return this.tables == other.tables
+                && this.onMove == other.onMove
+                && this.castling == other.castling
+                && this.auPassantSquare == other.auPassantSquare
+                && Arrays.equals( this.pieces, other.pieces );
+    }
+
+    public int positionHash() {
+        int hash = Arrays.hashCode( this.pieces );
+        hash = 31 * hash + this.onMove;
+        hash = 31 * hash + this.castling;
+        return 31 * hash + this.auPassantSquare;
+    }
+
+    /**
+     * @return zobrist key of the position, the same as {@link Zobrist#hash(Game)}
+     */
+    public long getKey() {
+        boolean pawnBeside = false;
+        if ( this.auPassantSquare != NO_SQUARE ) {
+            long pawns = this.pieces[piece( this.onMove, PAWN )];
+            int left = this.zobrist.left( this.auPassantSquare );
+            int right = this.zobrist.right( this.auPassantSquare );
+            pawnBeside = ( left != NO_SQUARE && ( pawns & BitboardTables.bit( left ) ) != 0L )
+                    || ( right != NO_SQUARE && ( pawns & BitboardTables.bit( right ) ) != 0L );
+        }
+        return this.pieceKey ^ this.zobrist.state( this.onMove, this.castling, this.auPassantSquare, pawnBeside );
+    }
+
+    public BoardBB copy() {
+        BoardBB board = new BoardBB( this.tables.size );
+        System.arraycopy( this.pieces, 0, board.pieces, 0, this.pieces.length );
+        System.arraycopy( this.colors, 0, board.colors, 0, this.colors.length );
+        board.occupied = this.occupied;
+        board.onMove = this.onMove;
+        board.castling = this.castling;
+        board.auPassantSquare = this.auPassantSquare;
+        board.pieceKey = this.pieceKey;
+        return board;
+    }
+
+}
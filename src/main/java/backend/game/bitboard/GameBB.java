@@ -0,0 +1,774 @@
+package backend.game.bitboard;
+
+import backend.core.exception.IllegalMoveException;
+import backend.core.model.*;
+import backend.core.notation.ChessNotation;
+import backend.core.values.ActionType;
+import backend.core.values.GameState;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import lombok.Getter;
+import math.Vector2I;
+import misc.Log;
+import util.CollectionUtil;
+
+import java.util.*;
+
+/**
+ * Game backed by bitboards, supports boards up to 8x8.
+ */
+public class GameBB extends Game {
+
+    private static final ActionType[] statusActions = { ActionType.CHECK, ActionType.CHECKMATE, ActionType.STALEMATE };
+
+    @Getter
+    private BoardBB board;
+
+    @Getter
+    private final boolean canLog;
+
+    private int[] undoMoves;
+
+    /**
+     * [ply] the moved piece, the history entries of packed moves are built from it
+     */
+    private int[] undoPieces;
+
+    /**
+     * [ply] check, checkmate and stalemate resolved before the history entry of the move was built
+     */
+    private int[] undoActions;
+
+    private long[] undoBoards;
+
+    private GameState[] undoStates;
+
+    private int[] undoHalfMoveRuleCounts;
+
+    private int[] undoMoveNumbers;
+
+    private int undoSize;
+
+    /**
+     * move buffers of {@link #visitMoves(MoveVisitor)}, one per nesting depth
+     */
+    private int[][] visitBuffers = new int[0][];
+
+    private int visitDepth;
+
+    public GameBB( final GameConfig config ) {
+        this( config, false );
+    }
+
+    public GameBB( final GameConfig config, boolean canLog ) {
+        super( config );
+        this.canLog = canLog;
+        reset();
+    }
+
+    @Override
+    public synchronized void reset() {
+        this.resetStates();
+        this.board = BoardBB.of( this.config );
+        this.clearUndo();
+        this.resetPositions();
+        this.emitEvent();
+    }
+
+    @Override
+    public synchronized void setGame( String notation, ChessNotation notationProcessor ) {
+        this.setAll( notationProcessor.read( notation ) );
+    }
+
+    /**
+     * Copies the position and history of any game, the undo history is not copied.
+     */
+    public synchronized void setAll( Game game ) {
+        this.clearStatus();
+        this.board = BoardBB.of( game );
+        this.state = game.getState();
+        this.onMove = game.getOnMove();
+        this.moveNumber = game.getMoveNumber();
+        this.halfMoveRuleCount = game.getHalfMoveRuleCount();
+        this.history = new ArrayList<>( game.getHistory() );
+        this.clearUndo();
+        this.resetPositions();
+        this.copyPositions( game );
+        this.emitEvent();
+    }
+
+    @Override
+    public synchronized boolean makeMove( Move move ) {
+
+        if ( move == null || move.getFrom() == null || move.getTo() == null ) {
+            return false;
+        }
+        if ( isOutOfBounds( move.getFrom() ) || isOutOfBounds( move.getTo() ) ) {
+            return false;
+        }
+
+        Vector2I from = move.getFrom();
+        Vector2I to = move.getTo();
+
+        try {
+
+            if ( !hasPiece( from ) ) {
+                return false;
+            }
+
+            int code = this.board.findLegalMove( square( from ), square( to ), move.getPromoteTo() );
+            if ( code == MoveCode.NONE ) {
+                return false;
+            }
+            return makeLegalMove( code );
+
+        } catch ( Exception e ) {
+            throw new IllegalMoveException( this, from, to, e );
+        }
+    }
+
+    /**
+     * Makes a pseudo legal move of the current position directly from its code, without generating the moves again.
+     *
+     * @return false for {@link MoveCode#NONE}, if the moved piece is not one of the side on move or if the move
+     * leaves the own king in check
+     */
+    @Override
+    public synchronized boolean makeMove( int move ) {
+        if ( move == MoveCode.NONE ) {
+            return false;
+        }
+        int piece = this.board.pieceAt( MoveCode.from( move ) );
+        if ( piece == BoardBB.NO_PIECE || BoardBB.color( piece ) != this.board.onMove || !this.board.isLegal( move ) ) {
+            return false;
+        }
+        return makeGeneratedMove( move );
+    }
+
+    /**
+     * Trusts the code, the legal moves of {@link #generateMoves(MoveList)} and {@link #visitMoves(MoveVisitor)} are
+     * made without checking them again.
+     */
+    @Override
+    public synchronized boolean makeGeneratedMove( int move ) {
+        try {
+            return makeLegalMove( move );
+        } catch ( Exception e ) {
+            throw new IllegalMoveException( this, vector( MoveCode.from( move ) ), vector( MoveCode.to( move ) ), e );
+        }
+    }
+
+    /**
+     * Nothing is allocated, the history gets a placeholder which is built from the undo stack once it is read,
+     * see {@link #getHistory()}.
+     */
+    private boolean makeLegalMove( int code ) {
+
+        int piece = this.board.pieceAt( MoveCode.from( code ) );
+        settleStatus();
+        pushUndo( code, piece, this.board.make( code ) );
+        switchTeam();
+
+        if ( isLogging() ) {
+            Vector2I to = vector( MoveCode.to( code ) );
+            log( "On {}s {}. move: {} {}->{} with actions {}",
+                    this.getTeam( to ),
+                    this.moveNumber,
+                    getType( to ),
+                    vector( MoveCode.from( code ) ),
+                    to,
+                    toValidation( code ).getActions() );
+        }
+        this.history.add( null );
+
+        int moveNumber = this.moveNumber;
+        int halfMoveRuleCount = this.halfMoveRuleCount;
+        checkFiftyMoveRule();
+        incrementMove( MoveCode.isCapture( code ) ||
+                MoveCode.promotion( code ) == null && BoardBB.type( piece ) == PieceType.PAWN.ordinal() );
+        checkRepetition();
+        deferStatus( null, moveNumber, halfMoveRuleCount );
+
+        this.emitEvent();
+        return true;
+    }
+
+    @Override
+    public synchronized List<MoveHistory> getHistory() {
+        buildHistory();
+        return this.history;
+    }
+
+    @Override
+    public synchronized MoveHistory getLastMove() {
+        buildHistory();
+        return super.getLastMove();
+    }
+
+    /**
+     * Builds the entries of the packed moves since the history was last read, they are the placeholders at its end.
+     */
+    private void buildHistory() {
+        int offset = this.history.size() - this.undoSize;
+        int ply = this.undoSize;
+        while ( ply > 0 && this.history.get( offset + ply - 1 ) == null ) {
+            ply--;
+        }
+        for ( ; ply < this.undoSize; ply++ ) {
+            MoveHistory entry = historyOf( ply );
+            this.history.set( offset + ply, entry );
+            if ( ply == this.undoSize - 1 ) {
+                attachStatus( entry );
+            }
+        }
+    }
+
+    private MoveHistory historyOf( int ply ) {
+        int code = this.undoMoves[ply];
+        int piece = this.undoPieces[ply];
+        Move move = toMove( code );
+        Set<ActionType> actions = MoveCode.toValidation( code, move ).getActions();
+        for ( ActionType action : statusActions ) {
+            if ( ( this.undoActions[ply] & 1 << action.ordinal() ) != 0 ) {
+                actions.add( action );
+            }
+        }
+        PieceType promotion = MoveCode.promotion( code );
+        return new MoveHistory(
+                this.undoMoveNumbers[ply],
+                actions,
+                TeamColor.values()[BoardBB.color( piece )],
+                promotion != null ? promotion : PieceType.values()[BoardBB.type( piece )],
+                move
+        );
+    }
+
+    @Override
+    protected void addStatusAction( MoveHistory move, ActionType action ) {
+        if ( move != null ) {
+            super.addStatusAction( move, action );
+        } else {
+            this.undoActions[this.undoSize - 1] |= 1 << action.ordinal();
+        }
+    }
+
+    @Override
+    public synchronized void undoLastMove() {
+        if ( this.undoSize == 0 ) {
+            return;
+        }
+        clearStatus();
+        this.undoSize--;
+        this.board.unmake( this.undoMoves[this.undoSize], this.undoBoards[this.undoSize] );
+        this.state = this.undoStates[this.undoSize];
+        this.halfMoveRuleCount = this.undoHalfMoveRuleCounts[this.undoSize];
+        this.moveNumber = this.undoMoveNumbers[this.undoSize];
+        this.onMove = TeamColor.values()[this.board.onMove];
+        this.history.remove( this.history.size() - 1 );
+        popPosition();
+        this.emitEvent();
+    }
+
+    private void pushUndo( int move, int piece, long boardUndo ) {
+        if ( this.undoSize == this.undoMoves.length ) {
+            int capacity = this.undoSize * 2;
+            this.undoMoves = Arrays.copyOf( this.undoMoves, capacity );
+            this.undoPieces = Arrays.copyOf( this.undoPieces, capacity );
+            this.undoActions = Arrays.copyOf( this.undoActions, capacity );
+            this.undoBoards = Arrays.copyOf( this.undoBoards, capacity );
+            this.undoStates = Arrays.copyOf( this.undoStates, capacity );
+            this.undoHalfMoveRuleCounts = Arrays.copyOf( this.undoHalfMoveRuleCounts, capacity );
+            this.undoMoveNumbers = Arrays.copyOf( this.undoMoveNumbers, capacity );
+        }
+        this.undoMoves[this.undoSize] = move;
+        this.undoPieces[this.undoSize] = piece;
+        this.undoActions[this.undoSize] = 0;
+        this.undoBoards[this.undoSize] = boardUndo;
+        this.undoStates[this.undoSize] = this.state;
+        this.undoHalfMoveRuleCounts[this.undoSize] = this.halfMoveRuleCount;
+        this.undoMoveNumbers[this.undoSize] = this.moveNumber;
+        this.undoSize++;
+    }
+
+    private void clearUndo() {
+        int capacity = 64;
+        this.undoMoves = new int[capacity];
+        this.undoPieces = new int[capacity];
+        this.undoActions = new int[capacity];
+        this.undoBoards = new long[capacity];
+        this.undoStates = new GameState[capacity];
+        this.undoHalfMoveRuleCounts = new int[capacity];
+        this.undoMoveNumbers = new int[capacity];
+        this.undoSize = 0;
+    }
+
+    @Override
+    public List<Validation> validate( Vector2I p ) {
+        List<Validation> validations = new ArrayList<>();
+        if ( isOutOfBounds( p ) || !hasPiece( p ) ) {
+            return validations;
+        }
+        int from = square( p );
+        int color = BoardBB.color( this.board.pieceAt( from ) );
+        int[] moves = new int[BoardBB.MAX_MOVES];
+        int end = this.board.generateMoves( color, moves, 0 );
+        for ( int i = 0; i < end; i++ ) {
+            if ( MoveCode.from( moves[i] ) == from ) {
+                Validation validation = toValidation( moves[i] );
+                validation.setLegal( color == this.board.onMove && this.board.isLegal( moves[i] ) );
+                validations.add( validation );
+            }
+        }
+        return validations;
+    }
+
+    @Override
+    public boolean isLegal( Move move ) {
+        if ( move == null || isOutOfBounds( move.getFrom() ) || isOutOfBounds( move.getTo() ) ) {
+            return false;
+        }
+        return this.board.findLegalMove( square( move.getFrom() ), square( move.getTo() ), move.getPromoteTo() ) != MoveCode.NONE;
+    }
+
+    @Override
+    public List<Validation> getPseudoLegalValidations( TeamColor color ) {
+        List<Validation> validations = new ArrayList<>();
+        if ( !isOnMove( color ) ) {
+            return validations;
+        }
+        int[] moves = new int[BoardBB.MAX_MOVES];
+        int end = this.board.generateMoves( color.ordinal(), moves, 0 );
+        for ( int i = 0; i < end; i++ ) {
+            validations.add( toValidation( moves[i] ) );
+        }
+        return validations;
+    }
+
+    @Override
+    public boolean isLegalPseudo( Move move ) {
+        if ( move == null || isOutOfBounds( move.getFrom() ) || isOutOfBounds( move.getTo() ) ) {
+            return false;
+        }
+        int code = this.board.encodeMove( square( move.getFrom() ), square( move.getTo() ), move.getPromoteTo() );
+        return code != MoveCode.NONE && this.board.isLegal( code );
+    }
+
+    @Override
+    public void generateMoves( MoveList moves ) {
+        int[] buffer = moves.reserve( BoardBB.MAX_MOVES );
+        moves.setSize( this.board.generateLegalMoves( this.board.onMove, buffer, moves.size() ) );
+    }
+
+    @Override
+    public void generatePseudoLegalMoves( MoveList moves ) {
+        int[] buffer = moves.reserve( BoardBB.MAX_MOVES );
+        moves.setSize( this.board.generateMoves( this.board.onMove, buffer, moves.size() ) );
+    }
+
+    /**
+     * Visits without allocating, visitors may make and undo moves on this game.
+     */
+    @Override
+    public boolean visitMoves( MoveVisitor visitor ) {
+        if ( this.visitDepth == this.visitBuffers.length ) {
+            this.visitBuffers = Arrays.copyOf( this.visitBuffers, this.visitDepth + 8 );
+        }
+        if ( this.visitBuffers[this.visitDepth] == null ) {
+            this.visitBuffers[this.visitDepth] = new int[BoardBB.MAX_MOVES];
+        }
+        int[] moves = this.visitBuffers[this.visitDepth++];
+        try {
+            int end = this.board.generateLegalMoves( this.board.onMove, moves, 0 );
+            for ( int i = 0; i < end; i++ ) {
+                if ( !visitor.visit( moves[i] ) ) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            this.visitDepth--;
+        }
+    }
+
+    @Override
+    public boolean isLegalPseudo( int move ) {
+        return move != MoveCode.NONE && this.board.isLegal( move );
+    }
+
+    @Override
+    public Move toMove( int move ) {
+        return MoveCode.toMove( move, vector( MoveCode.from( move ) ), vector( MoveCode.to( move ) ) );
+    }
+
+    @Override
+    public Validation toValidation( int move ) {
+        return MoveCode.toValidation( move, toMove( move ) );
+    }
+
+    @Override
+    public int getBoardSize() {
+        return this.config.getBoardSize();
+    }
+
+    @Override
+    public List<Move> getPossibleMoves( TeamColor color ) {
+        List<Move> moves = new ArrayList<>();
+        getPossibleValidations( color ).forEach( v -> moves.add( v.getMove() ) );
+        return moves;
+    }
+
+    @Override
+    public List<Move> getPossibleMoves( Piece piece ) {
+        List<Move> moves = new ArrayList<>();
+        getPossibleValidations( piece ).forEach( v -> moves.add( v.getMove() ) );
+        return moves;
+    }
+
+    @Override
+    public List<Validation> getPossibleValidations( TeamColor color ) {
+        List<Validation> validations = new ArrayList<>();
+        if ( !isOnMove( color ) ) {
+            return validations;
+        }
+        int[] moves = new int[BoardBB.MAX_MOVES];
+        int end = this.board.generateLegalMoves( color.ordinal(), moves, 0 );
+        for ( int i = 0; i < end; i++ ) {
+            validations.add( toValidation( moves[i] ) );
+        }
+        return validations;
+    }
+
+    @Override
+    public List<Validation> getPossibleValidations( Piece piece ) {
+        Vector2I p = getPosition( piece );
+        if ( p == null ) {
+            return Collections.emptyList();
+        }
+        List<Validation> validations = new ArrayList<>();
+        for ( Validation validation : validate( p ) ) {
+            if ( validation.isLegal() ) {
+                validations.add( validation );
+            }
+        }
+        return validations;
+    }
+
+    /**
+     * state
+     */
+
+    @Override
+    public boolean isOnMove( TeamColor color ) {
+        return this.onMove.equals( color );
+    }
+
+    @Override
+    public boolean isCheckFor( TeamColor team ) {
+        return this.board.isCheck( team.ordinal() );
+    }
+
+    @Override
+    public boolean hasLegalMovesLeft( TeamColor team ) {
+        int[] moves = new int[BoardBB.MAX_MOVES];
+        int end = this.board.generateMoves( team.ordinal(), moves, 0 );
+        for ( int i = 0; i < end; i++ ) {
+            if ( this.board.isLegal( moves[i] ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isCheckmateFor( TeamColor team ) {
+        return isCheckFor( team ) && !hasLegalMovesLeft( team );
+    }
+
+    @Override
+    public boolean isStalemateFor( TeamColor team ) {
+
+        // check if each team only has their kings left
+        if ( Long.bitCount( this.board.getColor( BoardBB.WHITE ) ) == 1 && Long.bitCount( this.board.getColor( BoardBB.BLACK ) ) == 1 ) {
+            return true;
+        }
+
+        return !isCheckFor( team ) && !hasLegalMovesLeft( team );
+    }
+
+    @Override
+    public boolean isFinished() {
+        resolveStatus();
+        return isDecided();
+    }
+
+    @Override
+    public boolean isWhiteCanCastleKing() {
+        return ( this.board.castling & BoardBB.WHITE_CASTLE_KING ) != 0;
+    }
+
+    @Override
+    public void setWhiteCanCastleKing( boolean canCastle ) {
+        setCastling( BoardBB.WHITE_CASTLE_KING, canCastle );
+    }
+
+    @Override
+    public boolean isWhiteCanCastleQueen() {
+        return ( this.board.castling & BoardBB.WHITE_CASTLE_QUEEN ) != 0;
+    }
+
+    @Override
+    public void setWhiteCanCastleQueen( boolean canCastle ) {
+        setCastling( BoardBB.WHITE_CASTLE_QUEEN, canCastle );
+    }
+
+    @Override
+    public boolean isBlackCanCastleKing() {
+        return ( this.board.castling & BoardBB.BLACK_CASTLE_KING ) != 0;
+    }
+
+    @Override
+    public void setBlackCanCastleKing( boolean canCastle ) {
+        setCastling( BoardBB.BLACK_CASTLE_KING, canCastle );
+    }
+
+    @Override
+    public boolean isBlackCanCastleQueen() {
+        return ( this.board.castling & BoardBB.BLACK_CASTLE_QUEEN ) != 0;
+    }
+
+    @Override
+    public void setBlackCanCastleQueen( boolean canCastle ) {
+        setCastling( BoardBB.BLACK_CASTLE_QUEEN, canCastle );
+    }
+
+    private void setCastling( int right, boolean canCastle ) {
+        if ( canCastle ) {
+            this.board.castling |= right;
+        } else {
+            this.board.castling &= ~right;
+        }
+    }
+
+    @Override
+    public Vector2I getAuPassantPosition() {
+        if ( this.board == null || this.board.auPassantSquare == BoardBB.NO_SQUARE ) {
+            return null;
+        }
+        return vector( this.board.auPassantSquare );
+    }
+
+    @Override
+    public void setAuPassantPosition( Vector2I auPassantPosition ) {
+        this.board.auPassantSquare = isOutOfBounds( auPassantPosition ) ? BoardBB.NO_SQUARE : square( auPassantPosition );
+    }
+
+    /**
+     * convenience
+     */
+
+    @Override
+    public boolean isType( Vector2I p, PieceType type ) {
+        return type.equals( getType( p ) );
+    }
+
+    @Override
+    public PieceType getType( Vector2I p ) {
+        int piece = pieceAt( p );
+        return piece == BoardBB.NO_PIECE ? null : PieceType.values()[BoardBB.type( piece )];
+    }
+
+    @Override
+    public Piece getPiece( Vector2I p ) {
+        int piece = pieceAt( p );
+        if ( piece == BoardBB.NO_PIECE ) {
+            return null;
+        }
+        return new PieceBB( PieceType.values()[BoardBB.type( piece )], TeamColor.values()[BoardBB.color( piece )], square( p ) );
+    }
+
+    @Override
+    public boolean hasPiece( Vector2I p ) {
+        return pieceAt( p ) != BoardBB.NO_PIECE;
+    }
+
+    @Override
+    public boolean hasPiece( int sq ) {
+        return pieceAt( sq ) != BoardBB.NO_PIECE;
+    }
+
+    @Override
+    public PieceType getType( int sq ) {
+        int piece = pieceAt( sq );
+        return piece == BoardBB.NO_PIECE ? null : PieceType.values()[BoardBB.type( piece )];
+    }
+
+    @Override
+    public TeamColor getTeam( int sq ) {
+        int piece = pieceAt( sq );
+        return piece == BoardBB.NO_PIECE ? null : TeamColor.values()[BoardBB.color( piece )];
+    }
+
+    @Override
+    public Piece getPiece( int sq ) {
+        int piece = pieceAt( sq );
+        if ( piece == BoardBB.NO_PIECE ) {
+            return null;
+        }
+        return new PieceBB( PieceType.values()[BoardBB.type( piece )], TeamColor.values()[BoardBB.color( piece )], sq );
+    }
+
+    @Override
+    public Vector2I getPosition( Piece piece ) {
+        if ( !( piece instanceof PieceBB ) || !piece.isAlive() ) {
+            return null;
+        }
+        int sq = ( ( PieceBB ) piece ).getSquare();
+        int expected = BoardBB.piece( piece.getTeam().ordinal(), piece.getType().ordinal() );
+        return this.board.pieceAt( sq ) == expected ? vector( sq ) : null;
+    }
+
+    @Override
+    public boolean isTeam( Vector2I p, TeamColor team ) {
+        return team.equals( getTeam( p ) );
+    }
+
+    @Override
+    public TeamColor getTeam( Vector2I p ) {
+        int piece = pieceAt( p );
+        return piece == BoardBB.NO_PIECE ? null : TeamColor.values()[BoardBB.color( piece )];
+    }
+
+    @Override
+    public Team getTeam( TeamColor color ) {
+        return new TeamBB( color, this.board );
+    }
+
+    @Override
+    public TeamColor getEnemy( Vector2I p ) {
+        return TeamColor.getEnemy( getTeam( p ) );
+    }
+
+    @Override
+    public TeamColor getEnemy( TeamColor team ) {
+        return TeamColor.getEnemy( team );
+    }
+
+    @Override
+    public boolean areEnemies( Vector2I pA, Vector2I pB ) {
+        TeamColor teamA = getTeam( pA );
+        TeamColor teamB = getTeam( pB );
+        return teamA != null && teamB != null && !teamA.equals( teamB );
+    }
+
+    /**
+     * A position is attacked if the enemy of the team on move could capture there,
+     * the king on move does not block the attacking rays.
+     */
+    @Override
+    public boolean isAttacked( Vector2I p ) {
+        return isAttacked( square( p ) );
+    }
+
+    @Override
+    public boolean isAttacked( int sq ) {
+        if ( sq < 0 || sq >= this.squares.count ) {
+            return false;
+        }
+        int color = this.board.onMove;
+        long occupied = this.board.occupied & ~this.board.getPieces( color, PieceType.KING.ordinal() );
+        return this.board.isAttacked( sq, color ^ 1, occupied );
+    }
+
+    /**
+     * A position is pined if it is on a checking or pinning ray of the enemy of the team on move.
+     */
+    @Override
+    public boolean isPined( Vector2I p ) {
+        if ( isOutOfBounds( p ) ) {
+            return false;
+        }
+        return ( getPinedMask() & BitboardTables.bit( square( p ) ) ) != 0L;
+    }
+
+    @Override
+    public long getOccupied( TeamColor team ) {
+        return this.board.getColor( team.ordinal() );
+    }
+
+    @Override
+    public long getHash() {
+        return this.board.getKey();
+    }
+
+    private long getPinedMask() {
+        int color = this.board.onMove;
+        int enemy = color ^ 1;
+        int king = this.board.kingSquare( color );
+        if ( king == BoardBB.NO_SQUARE ) {
+            return 0L;
+        }
+        BitboardTables tables = this.board.tables;
+        long mask = ( tables.knightAttacks[king] & this.board.getPieces( enemy, PieceType.KNIGHT.ordinal() ) )
+                | ( tables.pawnAttacks[color][king] & this.board.getPieces( enemy, PieceType.PAWN.ordinal() ) );
+        long queens = this.board.getPieces( enemy, PieceType.QUEEN.ordinal() );
+        long rooks = this.board.getPieces( enemy, PieceType.ROOK.ordinal() ) | queens;
+        long bishops = this.board.getPieces( enemy, PieceType.BISHOP.ordinal() ) | queens;
+        for ( int dir = 0; dir < tables.rays.length; dir++ ) {
+            boolean diagonal = dir >= 4;
+            long ray = tables.rays[dir][king];
+            for ( long sliders = ray & ( diagonal ? bishops : rooks ); sliders != 0L; sliders &= sliders - 1 ) {
+                int slider = Long.numberOfTrailingZeros( sliders );
+                long between = ray & ~tables.rays[dir][slider] & ~BitboardTables.bit( slider );
+                if ( Long.bitCount( between & this.board.occupied ) <= 1 ) {
+                    mask |= between | BitboardTables.bit( slider );
+                }
+            }
+        }
+        return mask;
+    }
+
+    private int pieceAt( Vector2I p ) {
+        return pieceAt( square( p ) );
+    }
+
+    private int pieceAt( int sq ) {
+        if ( sq < 0 || sq >= this.squares.count ) {
+            return BoardBB.NO_PIECE;
+        }
+        return this.board.pieceAt( sq );
+    }
+
+    @Override
+    public synchronized GameBB copy() {
+        return clone();
+    }
+
+    public GameBB clone() {
+        GameBB game = new GameBB( this.config, this.canLog );
+        game.setAll( this );
+        game.board = this.board.copy();
+        game.undoMoves = this.undoMoves.clone();
+        game.undoPieces = this.undoPieces.clone();
+        game.undoActions = this.undoActions.clone();
+        game.undoBoards = this.undoBoards.clone();
+        game.undoStates = this.undoStates.clone();
+        game.undoHalfMoveRuleCounts = this.undoHalfMoveRuleCounts.clone();
+        game.undoMoveNumbers = this.undoMoveNumbers.clone();
+        game.undoSize = this.undoSize;
+        return game;
+    }
+
+    public boolean isLogging() {
+        return this.canLog && !isSilent();
+    }
+
+    public void log( String pattern, Object... arguments ) {
+        if ( isLogging() ) {
+            List<Object> argumentList = CollectionUtil.toMutableList( arguments );
+            Log.info( pattern, argumentList.toArray() );
+        }
+    }
+
+}
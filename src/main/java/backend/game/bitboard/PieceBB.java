@@ -0,0 +1,23 @@
+package backend.game.bitboard;
+
+import backend.core.model.Piece;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import lombok.Getter;
+
+/**
+ * Snapshot of a piece on a bitboard square.
+ * Changing the snapshot does not change the game.
+ */
+public class PieceBB extends Piece {
+
+    @Getter
+    private final int square;
+
+    public PieceBB( PieceType type, TeamColor team, int square ) {
+        super( type, team );
+        this.square = square;
+        this.alive = square != BoardBB.NO_SQUARE;
+    }
+
+}
@@ -0,0 +1,72 @@
+package backend.game.bitboard;
+
+import backend.core.model.Piece;
+import backend.core.model.Team;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * View of the pieces of one color on a bitboard.
+ * Captured pieces are not tracked, so all pieces are alive.
+ */
+public class TeamBB extends Team {
+
+    private final BoardBB board;
+
+    public TeamBB( TeamColor color, BoardBB board ) {
+        super( color );
+        this.board = board;
+    }
+
+    @Override
+    public Piece getKing() {
+        return new PieceBB( PieceType.KING, this.color, this.board.kingSquare( this.color.ordinal() ) );
+    }
+
+    @Override
+    public List<Piece> getAll() {
+        return getAlive();
+    }
+
+    @Override
+    public List<Piece> getAlive() {
+        List<Piece> alive = new ArrayList<>();
+        for ( PieceType type : PieceType.values() ) {
+            addPieces( alive, type );
+        }
+        return alive;
+    }
+
+    @Override
+    public List<Piece> getPiecesByType( PieceType type ) {
+        List<Piece> pieces = new ArrayList<>();
+        addPieces( pieces, type );
+        return pieces;
+    }
+
+    @Override
+    public List<Piece> getPiecesByType( PieceType type, boolean alive ) {
+        return alive ? getPiecesByType( type ) : Collections.emptyList();
+    }
+
+    @Override
+    public int getAliveCount() {
+        return Long.bitCount( this.board.colors[this.color.ordinal()] );
+    }
+
+    @Override
+    public int getCount( PieceType type ) {
+        return Long.bitCount( this.board.getPieces( this.color.ordinal(), type.ordinal() ) );
+    }
+
+    private void addPieces( List<Piece> pieces, PieceType type ) {
+        for ( long bb = this.board.getPieces( this.color.ordinal(), type.ordinal() ); bb != 0L; bb &= bb - 1 ) {
+            pieces.add( new PieceBB( type, this.color, Long.numberOfTrailingZeros( bb ) ) );
+        }
+    }
+
+}
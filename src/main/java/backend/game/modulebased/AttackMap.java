@@ -0,0 +1,403 @@
+package backend.game.modulebased;
+
+import backend.core.values.Dir;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.Squares;
+import math.Vector2I;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Attacked squares and pin rays of all pieces of a {@link GameMB}, maintained incrementally.
+ * Board changes mark their squares dirty, an update only recomputes the pieces which stand on or left a dirty square
+ * and the sliders whose rays or lines to the enemy king pass through one.
+ * The rays of the sliders pass the enemy king, like the attack masks of the move generator.
+ */
+class AttackMap {
+
+    private static final int[] rookDirs = ordinals( Dir.UP, Dir.RIGHT, Dir.DOWN, Dir.LEFT );
+
+    private static final int[] bishopDirs = ordinals( Dir.UP_RIGHT, Dir.DOWN_RIGHT, Dir.UP_LEFT, Dir.DOWN_LEFT );
+
+    private static final int[] queenDirs = ordinals( Dir.values() );
+
+    private static final int KING = PieceType.KING.ordinal();
+
+    private final GameMB game;
+
+    private final Squares squares;
+
+    private final int words;
+
+    /**
+     * [color][square] number of pieces of the color attacking the square
+     */
+    private final int[][] counts;
+
+    /**
+     * [color][id] squares attacked by the piece at the last update
+     */
+    private final int[][][] targets;
+
+    private final int[][] targetSizes;
+
+    private final long[][][] targetBits;
+
+    /**
+     * [color][id] true if the targets depend on the occupation of the board
+     */
+    private final boolean[][] sliders;
+
+    /**
+     * [color][id] square of the piece at the last update or NO_SQUARE
+     */
+    private final int[][] origins;
+
+    /**
+     * [color][id] checking or pinning ray against the enemy king starting with the piece, or null
+     */
+    private final int[][][] pinRays;
+
+    /**
+     * [color][id] squares between a slider and the enemy king if they share a line of the slider, or null
+     */
+    private final long[][][] pinLines;
+
+    /**
+     * [color] square of the king at the last update
+     */
+    private final int[] kings;
+
+    private final long[] dirty;
+
+    private boolean hasDirty;
+
+    AttackMap( GameMB game ) {
+        this.game = game;
+        this.squares = game.getSquares();
+        this.words = ( this.squares.count + 63 ) >>> 6;
+        int colors = TeamColor.values().length;
+        this.counts = new int[colors][this.squares.count];
+        this.targets = new int[colors][][];
+        this.targetSizes = new int[colors][];
+        this.targetBits = new long[colors][][];
+        this.sliders = new boolean[colors][];
+        this.origins = new int[colors][];
+        this.pinRays = new int[colors][][];
+        this.pinLines = new long[colors][][];
+        this.kings = new int[colors];
+        this.dirty = new long[this.words];
+        for ( int color = 0; color < colors; color++ ) {
+            int pieces = game.pieceCount( color );
+            this.targets[color] = new int[pieces][this.squares.count];
+            this.targetSizes[color] = new int[pieces];
+            this.targetBits[color] = new long[pieces][this.words];
+            this.sliders[color] = new boolean[pieces];
+            this.origins[color] = new int[pieces];
+            this.pinRays[color] = new int[pieces][];
+            this.pinLines[color] = new long[pieces][];
+            this.kings[color] = Squares.NO_SQUARE;
+            Arrays.fill( this.origins[color], Squares.NO_SQUARE );
+        }
+        for ( int sq = 0; sq < this.squares.count; sq++ ) {
+            touch( sq );
+        }
+        update();
+    }
+
+    private AttackMap( GameMB game, AttackMap map ) {
+        this.game = game;
+        this.squares = map.squares;
+        this.words = map.words;
+        this.counts = copy( map.counts );
+        this.targets = new int[map.targets.length][][];
+        this.targetBits = new long[map.targetBits.length][][];
+        this.sliders = new boolean[map.sliders.length][];
+        this.pinRays = new int[map.pinRays.length][][];
+        this.pinLines = new long[map.pinLines.length][][];
+        for ( int color = 0; color < map.targets.length; color++ ) {
+            this.targets[color] = copy( map.targets[color] );
+            this.targetBits[color] = copy( map.targetBits[color] );
+            this.sliders[color] = map.sliders[color].clone();
+            // rays and lines are replaced, never modified, so they can be shared
+            this.pinRays[color] = map.pinRays[color].clone();
+            this.pinLines[color] = map.pinLines[color].clone();
+        }
+        this.targetSizes = copy( map.targetSizes );
+        this.origins = copy( map.origins );
+        this.kings = map.kings.clone();
+        this.dirty = map.dirty.clone();
+        this.hasDirty = map.hasDirty;
+    }
+
+    AttackMap copy( GameMB game ) {
+        return new AttackMap( game, this );
+    }
+
+    /**
+     * Marks a square whose piece changed.
+     */
+    void touch( int sq ) {
+        if ( sq != Squares.NO_SQUARE ) {
+            this.dirty[sq >>> 6] |= 1L << sq;
+            this.hasDirty = true;
+        }
+    }
+
+    boolean isAttackedBy( int sq, int color ) {
+        update();
+        return this.counts[color][sq] > 0;
+    }
+
+    /**
+     * @return the checking and pinning rays of the enemies against the king of the color
+     */
+    List<List<Vector2I>> getPinsAgainst( int color ) {
+        update();
+        int enemy = color ^ 1;
+        List<List<Vector2I>> pins = new ArrayList<>();
+        for ( int[] ray : this.pinRays[enemy] ) {
+            if ( ray != null ) {
+                List<Vector2I> positions = new ArrayList<>( ray.length );
+                for ( int sq : ray ) {
+                    positions.add( this.squares.vectors[sq] );
+                }
+                pins.add( positions );
+            }
+        }
+        return pins;
+    }
+
+    /**
+     * Marks the squares of the pieces checking the king of the color and the squares between them and the king.
+     *
+     * @return the number of checking pieces
+     */
+    int collectCheckEvasions( int color, boolean[] evasions ) {
+        update();
+        int king = this.kings[color];
+        if ( king == Squares.NO_SQUARE ) {
+            return 0;
+        }
+        int enemy = color ^ 1;
+        int checkers = 0;
+        for ( int id = 0; id < this.origins[enemy].length; id++ ) {
+            int sq = this.origins[enemy][id];
+            if ( sq == Squares.NO_SQUARE || ( this.targetBits[enemy][id][king >>> 6] & ( 1L << king ) ) == 0L ) {
+                continue;
+            }
+            checkers++;
+            evasions[sq] = true;
+            int[] ray = this.pinRays[enemy][id];
+            if ( this.sliders[enemy][id] && ray != null ) {
+                for ( int p : ray ) {
+                    evasions[p] = true;
+                }
+            }
+        }
+        return checkers;
+    }
+
+    void update() {
+        if ( !this.hasDirty ) {
+            return;
+        }
+        int blackKing = kingSquare( TeamColor.BLACK.ordinal() );
+        int whiteKing = kingSquare( TeamColor.WHITE.ordinal() );
+        for ( int color = 0; color < this.origins.length; color++ ) {
+            int enemyKing = color == TeamColor.WHITE.ordinal() ? blackKing : whiteKing;
+            boolean kingMoved = enemyKing != this.kings[color ^ 1];
+            for ( int id = 0; id < this.origins[color].length; id++ ) {
+                int sq = this.game.squareOf( color, id );
+                boolean affected = isDirty( this.origins[color][id] ) || isDirty( sq )
+                        || ( this.sliders[color][id] && intersects( this.targetBits[color][id] ) );
+                if ( affected ) {
+                    computeTargets( color, id, sq, enemyKing );
+                }
+                if ( affected || kingMoved || intersects( this.pinLines[color][id] ) ) {
+                    computePin( color, id, sq, enemyKing );
+                }
+            }
+        }
+        this.kings[TeamColor.BLACK.ordinal()] = blackKing;
+        this.kings[TeamColor.WHITE.ordinal()] = whiteKing;
+        Arrays.fill( this.dirty, 0L );
+        this.hasDirty = false;
+    }
+
+    private void computeTargets( int color, int id, int sq, int enemyKing ) {
+        int[] pieceTargets = this.targets[color][id];
+        long[] bits = this.targetBits[color][id];
+        int[] colorCounts = this.counts[color];
+        for ( int i = 0; i < this.targetSizes[color][id]; i++ ) {
+            colorCounts[pieceTargets[i]]--;
+        }
+        Arrays.fill( bits, 0L );
+        this.origins[color][id] = sq;
+        this.sliders[color][id] = false;
+        int size = 0;
+        if ( sq != Squares.NO_SQUARE ) {
+            int type = GameMB.typeOf( this.game.codeAt( sq ) );
+            int[] dirs = dirsOf( type );
+            if ( dirs != null ) {
+                this.sliders[color][id] = true;
+                for ( int dir : dirs ) {
+                    for ( int target : this.squares.rays[dir][sq] ) {
+                        pieceTargets[size++] = target;
+                        if ( this.game.codeAt( target ) != GameMB.EMPTY && target != enemyKing ) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                for ( int target : leaperTargetsOf( color, type, sq ) ) {
+                    pieceTargets[size++] = target;
+                }
+            }
+        }
+        for ( int i = 0; i < size; i++ ) {
+            colorCounts[pieceTargets[i]]++;
+            bits[pieceTargets[i] >>> 6] |= 1L << pieceTargets[i];
+        }
+        this.targetSizes[color][id] = size;
+    }
+
+    private void computePin( int color, int id, int sq, int enemyKing ) {
+        this.pinRays[color][id] = null;
+        this.pinLines[color][id] = null;
+        if ( sq == Squares.NO_SQUARE || enemyKing == Squares.NO_SQUARE ) {
+            return;
+        }
+        int type = GameMB.typeOf( this.game.codeAt( sq ) );
+        int[] dirs = dirsOf( type );
+        if ( dirs == null ) {
+            for ( int target : leaperTargetsOf( color, type, sq ) ) {
+                if ( target == enemyKing && type != KING ) {
+                    this.pinRays[color][id] = new int[]{ sq };
+                }
+            }
+            return;
+        }
+        int dir = dirTo( sq, enemyKing );
+        if ( dir < 0 || !contains( dirs, dir ) ) {
+            return;
+        }
+        int[] steps = this.squares.steps[dir];
+        long[] line = new long[this.words];
+        int[] ray = new int[this.squares.size];
+        int size = 0;
+        int blockers = 0;
+        ray[size++] = sq;
+        for ( int p = steps[sq]; p != enemyKing; p = steps[p] ) {
+            line[p >>> 6] |= 1L << p;
+            ray[size++] = p;
+            if ( this.game.codeAt( p ) != GameMB.EMPTY ) {
+                blockers++;
+            }
+        }
+        this.pinLines[color][id] = line;
+        if ( blockers <= 1 ) {
+            this.pinRays[color][id] = Arrays.copyOf( ray, size );
+        }
+    }
+
+    private int[] leaperTargetsOf( int color, int type, int sq ) {
+        if ( type == PieceType.PAWN.ordinal() ) {
+            return this.squares.pawnAttackTargets[color][sq];
+        }
+        if ( type == PieceType.KNIGHT.ordinal() ) {
+            return this.squares.knightTargets[sq];
+        }
+        return this.squares.kingTargets[sq];
+    }
+
+    /**
+     * @return the ordinal of the dir leading from the square to the target or -1 if they do not share a line
+     */
+    private int dirTo( int from, int to ) {
+        Vector2I a = this.squares.vectors[from];
+        Vector2I b = this.squares.vectors[to];
+        int dx = b.x - a.x;
+        int dy = b.y - a.y;
+        if ( dx != 0 && dy != 0 && Math.abs( dx ) != Math.abs( dy ) ) {
+            return -1;
+        }
+        return Squares.dirOf( new Vector2I( Integer.signum( dx ), Integer.signum( dy ) ) );
+    }
+
+    private int kingSquare( int color ) {
+        for ( int id = 0; id < this.origins[color].length; id++ ) {
+            int sq = this.game.squareOf( color, id );
+            if ( sq != Squares.NO_SQUARE && GameMB.typeOf( this.game.codeAt( sq ) ) == KING ) {
+                return sq;
+            }
+        }
+        return Squares.NO_SQUARE;
+    }
+
+    private boolean isDirty( int sq ) {
+        return sq != Squares.NO_SQUARE && ( this.dirty[sq >>> 6] & ( 1L << sq ) ) != 0L;
+    }
+
+    private boolean intersects( long[] bits ) {
+        if ( bits == null ) {
+            return false;
+        }
+        for ( int i = 0; i < this.words; i++ ) {
+            if ( ( bits[i] & this.dirty[i] ) != 0L ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] dirsOf( int type ) {
+        if ( type == PieceType.BISHOP.ordinal() ) {
+            return bishopDirs;
+        }
+        if ( type == PieceType.ROOK.ordinal() ) {
+            return rookDirs;
+        }
+        if ( type == PieceType.QUEEN.ordinal() ) {
+            return queenDirs;
+        }
+        return null;
+    }
+
+    private static boolean contains( int[] values, int value ) {
+        for ( int v : values ) {
+            if ( v == value ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] ordinals( Dir... dirs ) {
+        int[] ordinals = new int[dirs.length];
+        for ( int i = 0; i < dirs.length; i++ ) {
+            ordinals[i] = dirs[i].ordinal();
+        }
+        return ordinals;
+    }
+
+    private static int[][] copy( int[][] values ) {
+        int[][] copy = new int[values.length][];
+        for ( int i = 0; i < values.length; i++ ) {
+            copy[i] = values[i].clone();
+        }
+        return copy;
+    }
+
+    private static long[][] copy( long[][] values ) {
+        long[][] copy = new long[values.length][];
+        for ( int i = 0; i < values.length; i++ ) {
+            copy[i] = values[i].clone();
+        }
+        return copy;
+    }
+
+}
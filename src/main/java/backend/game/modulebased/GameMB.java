@@ -2,6 +2,9 @@ package backend.game.modulebased;
 
 import backend.core.exception.IllegalMoveException;
 import backend.core.model.Move;
+import backend.core.model.MoveCode;
+import backend.core.model.MoveHistory;
+import backend.core.model.MoveList;
 import backend.core.model.Piece;
 import backend.core.model.Team;
 import backend.core.model.Validation;
@@ -13,6 +16,9 @@ import backend.core.values.TeamColor;
 import backend.game.Game;
 import backend.game.GameConfig;
 import backend.game.MoveGenerator;
+import backend.game.Zobrist;
+import backend.game.bitboard.BitboardTables;
+import backend.game.bitboard.BoardBB;
 import backend.game.modulebased.validator.RuleType;
 import backend.game.modulebased.validator.RuleValidator;
 import backend.game.modulebased.validator.ValidationMB;
@@ -20,7 +26,6 @@ import lombok.Getter;
 import math.Vector2I;
 import misc.Log;
 import util.CollectionUtil;
-import util.StringUtil;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -33,11 +38,34 @@ public class GameMB extends Game {
     @Getter
     private TeamMB black;
 
-    @Getter
-    private Map<Vector2I, String> positions;
+    public static final byte EMPTY = -1;
 
-    @Getter
-    private Map<String, Vector2I> piecePositions;
+    public static final int NO_SQUARE = -1;
+
+    private static final TeamColor[] colors = TeamColor.values();
+
+    private static final PieceType[] types = PieceType.values();
+
+    private static final int OP_MOVE = 0;
+
+    private static final int OP_REMOVE = 1;
+
+    private static final int OP_PROMOTE = 2;
+
+    /**
+     * [square] piece code (color * types + type) or EMPTY, square index is y * size + x
+     */
+    private byte[] codes;
+
+    /**
+     * [square] id of the piece within its team, only valid if the square is not EMPTY
+     */
+    private int[] ids;
+
+    /**
+     * [color][piece id] square of the piece or NO_SQUARE if it got captured
+     */
+    private int[][] pieceSquares;
 
     @Getter
     private RuleValidator ruleValidator;
@@ -45,15 +73,47 @@ public class GameMB extends Game {
     @Getter
     private final boolean canLog;
 
-    @Getter
-    private GameMB prev;
+    /**
+     * one record per made move, reused after an undo
+     */
+    private Undo[] undos;
 
-    @Getter
-    private Set<Vector2I> attacked;
+    private int undoSize;
 
-    @Getter
+    /**
+     * board changes of all made moves, three ints per change: op, square, argument
+     */
+    private int[] journal;
+
+    private int journalSize;
+
+    /**
+     * attacks and pins of both teams, updated with the squares changed by a move
+     */
+    private AttackMap attacks;
+
+    /**
+     * rays against the king on move, built from the attack map on demand
+     */
     private List<List<Vector2I>> pined;
 
+    /**
+     * only set for boards which fit into a bitboard
+     */
+    private BitboardTables tables;
+
+    /**
+     * [color] bitboards of the pieces, kept in sync with the positions
+     */
+    private long[] occupied;
+
+    private Zobrist zobrist;
+
+    /**
+     * zobrist key of the pieces, kept in sync with the positions
+     */
+    private long pieceHash;
+
     public GameMB( final GameConfig config ) {
         super( config );
         this.canLog = false;
@@ -67,30 +127,124 @@ public class GameMB extends Game {
     }
 
     @Override
-    public void reset() {
+    public synchronized void reset() {
         this.white = new TeamMB( TeamColor.WHITE );
         this.black = new TeamMB( TeamColor.BLACK );
         this.ruleValidator = new RuleValidator( this, Arrays.asList( RuleType.values() ) );
         this.resetStates();
         this.initPositions();
-        this.prev = null;
-        this.attacked = MoveGenerator.generateAttackedPositionsBy( this, getEnemy( this.onMove ) );
-        this.pined = MoveGenerator.generatePinedPositionsBy( this, getEnemy( this.onMove ) );
+        this.undos = new Undo[16];
+        this.undoSize = 0;
+        this.journal = new int[96];
+        this.journalSize = 0;
+        this.attacks = new AttackMap( this );
+        this.pined = null;
+        this.resetPositions();
         this.emitEvent();
     }
 
     @Override
-    public void setGame( String notation, ChessNotation notationProcessor ) {
+    public synchronized void setGame( String notation, ChessNotation notationProcessor ) {
         GameMB game = ( GameMB ) notationProcessor.read( notation );
         this.setAll( game );
     }
 
     @Override
-    public void undoLastMove() {
-        if ( this.prev == null ) {
+    public synchronized void undoLastMove() {
+        if ( this.undoSize == 0 ) {
+            return;
+        }
+        clearStatus();
+        Undo undo = this.undos[--this.undoSize];
+        while ( this.journalSize > undo.journalStart ) {
+            this.journalSize -= 3;
+            revert( this.journal[this.journalSize], this.journal[this.journalSize + 1], this.journal[this.journalSize + 2] );
+        }
+        this.onMove = undo.onMove;
+        this.state = undo.state;
+        this.whiteCanCastleKing = undo.whiteCanCastleKing;
+        this.whiteCanCastleQueen = undo.whiteCanCastleQueen;
+        this.blackCanCastleKing = undo.blackCanCastleKing;
+        this.blackCanCastleQueen = undo.blackCanCastleQueen;
+        this.auPassantPosition = undo.auPassantPosition;
+        this.moveNumber = undo.moveNumber;
+        this.halfMoveRuleCount = undo.halfMoveRuleCount;
+        this.attacks.update();
+        this.pined = null;
+        this.history.remove( this.history.size() - 1 );
+        popPosition();
+        this.emitEvent();
+    }
+
+    private void pushUndo() {
+        if ( this.undoSize == this.undos.length ) {
+            this.undos = Arrays.copyOf( this.undos, this.undoSize * 2 );
+        }
+        Undo undo = this.undos[this.undoSize];
+        if ( undo == null ) {
+            undo = new Undo();
+            this.undos[this.undoSize] = undo;
+        }
+        this.undoSize++;
+        undo.journalStart = this.journalSize;
+        undo.onMove = this.onMove;
+        undo.state = this.state;
+        undo.whiteCanCastleKing = this.whiteCanCastleKing;
+        undo.whiteCanCastleQueen = this.whiteCanCastleQueen;
+        undo.blackCanCastleKing = this.blackCanCastleKing;
+        undo.blackCanCastleQueen = this.blackCanCastleQueen;
+        undo.auPassantPosition = this.auPassantPosition;
+        undo.moveNumber = this.moveNumber;
+        undo.halfMoveRuleCount = this.halfMoveRuleCount;
+    }
+
+    private void record( int op, int sq, int argument ) {
+        if ( this.undoSize == 0 ) {
             return;
         }
-        this.setAll( this.prev );
+        if ( this.journalSize + 3 > this.journal.length ) {
+            this.journal = Arrays.copyOf( this.journal, this.journal.length * 2 );
+        }
+        this.journal[this.journalSize++] = op;
+        this.journal[this.journalSize++] = sq;
+        this.journal[this.journalSize++] = argument;
+    }
+
+    private void revert( int op, int sq, int argument ) {
+        this.attacks.touch( sq );
+        switch ( op ) {
+            case OP_MOVE -> {
+                // sq is the origin, argument the target of the move
+                byte code = this.codes[argument];
+                this.codes[sq] = code;
+                this.ids[sq] = this.ids[argument];
+                this.codes[argument] = EMPTY;
+                this.pieceSquares[colorOf( code )][this.ids[sq]] = sq;
+                this.occupied[colorOf( code )] ^= bit( sq ) | bit( argument );
+                this.pieceHash ^= this.zobrist.piece( code, sq ) ^ this.zobrist.piece( code, argument );
+                this.attacks.touch( argument );
+            }
+            case OP_REMOVE -> {
+                // argument is color << 16 | id of the removed piece
+                int color = argument >>> 16;
+                int id = argument & 0xFFFF;
+                TeamMB team = color == TeamColor.WHITE.ordinal() ? this.white : this.black;
+                PieceMB piece = team.getById( id );
+                team.revive( piece );
+                this.codes[sq] = codeOf( color, piece.getType().ordinal() );
+                this.ids[sq] = id;
+                this.pieceSquares[color][id] = sq;
+                this.occupied[color] |= bit( sq );
+                this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+            }
+            case OP_PROMOTE -> {
+                // argument is the type before the promotion
+                teamAt( sq ).unpromote( pieceAt( sq ), types[argument] );
+                this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+                this.codes[sq] = codeOf( colorOf( this.codes[sq] ), argument );
+                this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+            }
+        }
     }
 
     @Override
@@ -141,28 +295,36 @@ public class GameMB extends Game {
 
             if ( validatedPosition.isLegal() ) {
 
-                this.prev = this.clone();
+                settleStatus();
+                pushUndo();
                 movePiece( from, to );
+                // only a double push of this move sets a pawn which can be captured au passant
+                this.auPassantPosition = null;
                 this.ruleValidator.applyAdditionalActions( validatedPosition.getActions(), from, to );
 
-                handleAuPassantPosition();
+                handleCastlingRights( from, to );
                 switchTeam();
 
-                this.attacked = MoveGenerator.generateAttackedPositionsBy( this, getEnemy( this.onMove ) );
-                this.pined = MoveGenerator.generatePinedPositionsBy( this, getEnemy( this.onMove ) );
-                this.ruleValidator.postValidate( validatedPosition );
-
-                log( "On {}s {}. move: {} {}->{} with actions {}",
-                        this.getTeam( to ),
-                        this.moveNumber,
-                        getType( to ),
-                        from,
-                        to,
-                        validatedPosition.getActions() );
-                addHistory( validatedPosition.getActions(), move );
+                this.attacks.update();
+                this.pined = null;
+
+                if ( isLogging() ) {
+                    log( "On {}s {}. move: {} {}->{} with actions {}",
+                            this.getTeam( to ),
+                            this.moveNumber,
+                            getType( to ),
+                            from,
+                            to,
+                            validatedPosition.getActions() );
+                }
+                MoveHistory entry = addHistory( validatedPosition.getActions(), move );
 
-                checkFinished( validatedPosition.getActions() );
+                int moveNumber = this.moveNumber;
+                int halfMoveRuleCount = this.halfMoveRuleCount;
+                checkFiftyMoveRule();
                 incrementMove( validatedPosition );
+                checkRepetition();
+                deferStatus( entry, moveNumber, halfMoveRuleCount );
 
                 this.emitEvent();
                 return true;
@@ -176,24 +338,52 @@ public class GameMB extends Game {
     }
 
     public void movePiece( Vector2I from, Vector2I to ) {
-        PieceMB piece = ( PieceMB ) getPiece( from );
-        if ( piece == null ) {
+        int fromSq = square( from );
+        if ( fromSq == NO_SQUARE || this.codes[fromSq] == EMPTY ) {
             return;
         }
         removePiece( to );
-        this.positions.put( from, "" );
-        this.positions.put( to, piece.getId() );
-
-        this.piecePositions.put( piece.getId(), to );
+        int toSq = square( to );
+        byte code = this.codes[fromSq];
+        int id = this.ids[fromSq];
+        this.codes[fromSq] = EMPTY;
+        this.codes[toSq] = code;
+        this.ids[toSq] = id;
+        this.pieceSquares[colorOf( code )][id] = toSq;
+        this.occupied[colorOf( code )] ^= bit( from ) | bit( to );
+        this.pieceHash ^= this.zobrist.piece( code, fromSq ) ^ this.zobrist.piece( code, toSq );
+        this.attacks.touch( fromSq );
+        this.attacks.touch( toSq );
+        record( OP_MOVE, fromSq, toSq );
     }
 
     public void removePiece( Vector2I pos ) {
-        Piece piece = getPiece( pos );
-        this.positions.put( pos, "" );
-        if ( piece != null ) {
-            piece.setAlive( false );
-            this.piecePositions.remove( getPieceMb( piece ).getId() );
+        int sq = square( pos );
+        if ( sq == NO_SQUARE || this.codes[sq] == EMPTY ) {
+            return;
+        }
+        byte code = this.codes[sq];
+        teamAt( sq ).capture( pieceAt( sq ) );
+        this.codes[sq] = EMPTY;
+        this.pieceSquares[colorOf( code )][this.ids[sq]] = NO_SQUARE;
+        this.occupied[colorOf( code )] &= ~bit( pos );
+        this.pieceHash ^= this.zobrist.piece( code, sq );
+        this.attacks.touch( sq );
+        record( OP_REMOVE, sq, colorOf( code ) << 16 | this.ids[sq] );
+    }
+
+    public void promotePiece( Vector2I p, PieceType type ) {
+        int sq = square( p );
+        if ( sq == NO_SQUARE || this.codes[sq] == EMPTY ) {
+            return;
         }
+        int color = colorOf( this.codes[sq] );
+        record( OP_PROMOTE, sq, typeOf( this.codes[sq] ) );
+        teamAt( sq ).promote( pieceAt( sq ), type );
+        this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+        this.codes[sq] = codeOf( color, type.ordinal() );
+        this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+        this.attacks.touch( sq );
     }
 
     @Override
@@ -209,20 +399,12 @@ public class GameMB extends Game {
             return false;
         }
 
-        return MoveGenerator.generateAttackedPositionsBy( this, getEnemy( team ) ).contains( getPosition( king ) );
+        return this.attacks.isAttackedBy( square( getPosition( king ) ), getEnemy( team ).ordinal() );
     }
 
     @Override
     public boolean hasLegalMovesLeft( TeamColor color ) {
-        for ( Vector2I from : this.getAllAlivePositionsOf( color ) ) {
-            Set<Vector2I> positions = MoveGenerator.generateAllPossibleMoves( this, from );
-            for ( Vector2I to : positions ) {
-                if ( this.isLegal( new Move( from, to ) ) ) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.ruleValidator.hasLegalMove( color );
     }
 
     @Override
@@ -236,39 +418,35 @@ public class GameMB extends Game {
         // check if each team only has their kings left
         Team white = this.getTeam( TeamColor.WHITE );
         Team black = this.getTeam( TeamColor.BLACK );
-        if ( white.getAlive().size() == 1 && black.getAlive().size() == 1 ) {
+        if ( white.getAliveCount() == 1 && black.getAliveCount() == 1 ) {
             return true;
         }
 
         return !isCheckFor( color ) && !hasLegalMovesLeft( color );
     }
 
-    private void checkFinished( Set<ActionType> actions ) {
-
-        if ( actions.contains( ActionType.CHECKMATE ) ) {
-            this.state = isOnMove( TeamColor.WHITE )
-                    ? GameState.BLACK_WON
-                    : GameState.WHITE_WON;
-        }
-
-        if ( actions.contains( ActionType.STALEMATE ) || this.halfMoveRuleCount >= 50 ) {
-            this.state = GameState.TIE;
-        }
-
-    }
-
     @Override
     public boolean isFinished() {
-        return EnumSet.of( GameState.TIE, GameState.WHITE_WON, GameState.BLACK_WON ).contains( this.state );
-    }
-
-    private void handleAuPassantPosition() {
-        if ( this.auPassantPosition == null ) {
-            return;
-        }
-        Piece piece = getPiece( this.auPassantPosition );
-        if ( piece == null || !piece.getTeam().equals( this.onMove ) ) {
-            this.auPassantPosition = null;
+        resolveStatus();
+        return isDecided();
+    }
+
+    /**
+     * A move from or to the start square of a king or rook loses the castling rights of it,
+     * like the castling masks of {@link BitboardTables}.
+     */
+    private void handleCastlingRights( Vector2I from, Vector2I to ) {
+        int top = getBoardSize() - 1;
+        for ( Vector2I p : new Vector2I[]{ from, to } ) {
+            boolean kingSide = p.x == BoardBB.KING_START_COL || p.x == top;
+            boolean queenSide = p.x == BoardBB.KING_START_COL || p.x == 0;
+            if ( p.y == 0 ) {
+                this.whiteCanCastleKing &= !kingSide;
+                this.whiteCanCastleQueen &= !queenSide;
+            } else if ( p.y == top ) {
+                this.blackCanCastleKing &= !kingSide;
+                this.blackCanCastleQueen &= !queenSide;
+            }
         }
     }
 
@@ -277,34 +455,54 @@ public class GameMB extends Game {
         if ( team == null ) {
             return Collections.emptyList();
         }
-        return team.getAlive().stream()
-                .map( piece -> this.getPosition( piece ) )
-                .collect( Collectors.toList() );
+        List<Vector2I> positions = new ArrayList<>( team.getAliveCount() );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            positions.add( this.getPosition( team.getAlive( i ) ) );
+        }
+        return positions;
     }
 
     public boolean isType( Vector2I p, PieceType type ) {
-        return type.equals( getType( p ) );
+        return isType( square( p ), type );
+    }
+
+    @Override
+    public boolean isType( int sq, PieceType type ) {
+        return sq != NO_SQUARE && this.codes[sq] != EMPTY && typeOf( this.codes[sq] ) == type.ordinal();
     }
 
     public PieceType getType( Vector2I p ) {
-        Piece piece = getPiece( p );
-        if ( piece == null ) {
+        return getType( square( p ) );
+    }
+
+    @Override
+    public PieceType getType( int sq ) {
+        if ( sq == NO_SQUARE || this.codes[sq] == EMPTY ) {
             return null;
         }
-        return piece.getType();
+        return types[typeOf( this.codes[sq] )];
     }
 
     @Override
     public boolean isTeam( Vector2I p, TeamColor team ) {
-        return team.equals( getTeam( p ) );
+        return isTeam( square( p ), team );
+    }
+
+    @Override
+    public boolean isTeam( int sq, TeamColor team ) {
+        return sq != NO_SQUARE && this.codes[sq] != EMPTY && colorOf( this.codes[sq] ) == team.ordinal();
     }
 
     public TeamColor getTeam( Vector2I p ) {
-        Piece piece = getPiece( p );
-        if ( piece == null ) {
+        return getTeam( square( p ) );
+    }
+
+    @Override
+    public TeamColor getTeam( int sq ) {
+        if ( sq == NO_SQUARE || this.codes[sq] == EMPTY ) {
             return null;
         }
-        return piece.getTeam();
+        return colors[colorOf( this.codes[sq] )];
     }
 
     public TeamColor getEnemy( Vector2I p ) {
@@ -321,10 +519,32 @@ public class GameMB extends Game {
 
     @Override
     public boolean isAttacked( Vector2I p ) {
-        if ( this.attacked == null ) {
-            return false;
+        return isAttacked( square( p ) );
+    }
+
+    @Override
+    public boolean isAttacked( int sq ) {
+        return sq != NO_SQUARE && this.attacks.isAttackedBy( sq, getEnemy( this.onMove ).ordinal() );
+    }
+
+    /**
+     * checking and pinning rays of the enemy against the king on move
+     */
+    public List<List<Vector2I>> getPined() {
+        if ( this.pined == null ) {
+            this.pined = this.attacks.getPinsAgainst( this.onMove.ordinal() );
         }
-        return this.attacked.contains( p );
+        return this.pined;
+    }
+
+    /**
+     * Marks the squares which resolve a check of the king of the color, the checking pieces and their rays to the king.
+     *
+     * @param evasions [square] of the board
+     * @return the number of checking pieces
+     */
+    public int collectCheckEvasions( TeamColor color, boolean[] evasions ) {
+        return this.attacks.collectCheckEvasions( color.ordinal(), evasions );
     }
 
     @Override
@@ -333,8 +553,9 @@ public class GameMB extends Game {
     }
 
     public int getPinIdx( Vector2I p ) {
-        for ( int i = 0; i < this.pined.size(); i++ ) {
-            List<Vector2I> ray = this.pined.get( i );
+        List<List<Vector2I>> pined = getPined();
+        for ( int i = 0; i < pined.size(); i++ ) {
+            List<Vector2I> ray = pined.get( i );
             if ( ray.contains( p ) ) {
                 return i;
             }
@@ -344,31 +565,67 @@ public class GameMB extends Game {
 
     @Override
     public boolean areEnemies( Vector2I pA, Vector2I pB ) {
-        Piece pieceA = getPiece( pA );
-        Piece pieceB = getPiece( pB );
-        if ( pieceA == null || pieceB == null ) {
+        return areEnemies( square( pA ), square( pB ) );
+    }
+
+    @Override
+    public boolean areEnemies( int sqA, int sqB ) {
+        if ( sqA == NO_SQUARE || sqB == NO_SQUARE || this.codes[sqA] == EMPTY || this.codes[sqB] == EMPTY ) {
             return false;
         }
-        return !pieceA.isTeam( pieceB.getTeam() );
+        return colorOf( this.codes[sqA] ) != colorOf( this.codes[sqB] );
+    }
+
+    @Override
+    public long getOccupied( TeamColor team ) {
+        return this.occupied[team.ordinal()];
+    }
+
+    @Override
+    public long getHash() {
+        int onMove = this.onMove.ordinal();
+        int auPassantSquare = this.auPassantPosition == null ? NO_SQUARE : square( this.auPassantPosition );
+        boolean pawnBeside = false;
+        if ( auPassantSquare != NO_SQUARE ) {
+            byte pawn = codeOf( onMove, PieceType.PAWN.ordinal() );
+            int left = this.zobrist.left( auPassantSquare );
+            int right = this.zobrist.right( auPassantSquare );
+            pawnBeside = ( left != NO_SQUARE && this.codes[left] == pawn ) || ( right != NO_SQUARE && this.codes[right] == pawn );
+        }
+        int castling = BoardBB.castlingOf( this.whiteCanCastleKing, this.whiteCanCastleQueen,
+                this.blackCanCastleKing, this.blackCanCastleQueen );
+        return this.pieceHash ^ this.zobrist.state( onMove, castling, auPassantSquare, pawnBeside );
+    }
+
+    private long bit( Vector2I p ) {
+        return this.tables == null ? 0L : this.tables.bit( p.x, p.y );
+    }
+
+    private long bit( int sq ) {
+        return this.tables == null ? 0L : BitboardTables.bit( sq );
     }
 
     @Override
     public Piece getPiece( Vector2I p ) {
-        String pieceId = this.positions.get( p );
-        if ( StringUtil.isBlank( pieceId ) ) {
+        return getPiece( square( p ) );
+    }
+
+    @Override
+    public Piece getPiece( int sq ) {
+        if ( sq == NO_SQUARE || this.codes[sq] == EMPTY ) {
             return null;
         }
-        return getPiece( this.positions.get( p ) );
+        return pieceAt( sq );
     }
 
     @Override
     public boolean hasPiece( Vector2I p ) {
-        return getPiece( p ) != null;
+        return hasPiece( square( p ) );
     }
 
-    public Piece getPiece( String id ) {
-        TeamMB team = getTeam( id );
-        return team.getById( id );
+    @Override
+    public boolean hasPiece( int sq ) {
+        return sq != NO_SQUARE && this.codes[sq] != EMPTY;
     }
 
     @Override
@@ -376,11 +633,44 @@ public class GameMB extends Game {
         if ( piece == null ) {
             return null;
         }
-        return this.piecePositions.get( getPieceMb( piece ).getId() );
+        int sq = this.pieceSquares[piece.getTeam().ordinal()][( ( PieceMB ) piece ).getId()];
+        return sq == NO_SQUARE ? null : this.squares.vectors[sq];
+    }
+
+    private PieceMB pieceAt( int sq ) {
+        return teamAt( sq ).getById( this.ids[sq] );
     }
 
-    public TeamMB getTeam( String id ) {
-        return id.startsWith( "W" ) ? this.white : this.black;
+    private TeamMB teamAt( int sq ) {
+        return colorOf( this.codes[sq] ) == TeamColor.WHITE.ordinal() ? this.white : this.black;
+    }
+
+    static byte codeOf( int color, int type ) {
+        return ( byte ) ( color * types.length + type );
+    }
+
+    static int colorOf( byte code ) {
+        return code / types.length;
+    }
+
+    static int typeOf( byte code ) {
+        return code % types.length;
+    }
+
+    /**
+     * board access of the attack map
+     */
+
+    byte codeAt( int sq ) {
+        return this.codes[sq];
+    }
+
+    int squareOf( int color, int id ) {
+        return this.pieceSquares[color][id];
+    }
+
+    int pieceCount( int color ) {
+        return ( color == TeamColor.WHITE.ordinal() ? this.white : this.black ).size();
     }
 
     @Override
@@ -391,25 +681,31 @@ public class GameMB extends Game {
     private void initPositions() {
         this.white = new TeamMB( TeamColor.WHITE );
         this.black = new TeamMB( TeamColor.BLACK );
-        this.piecePositions = new HashMap<>();
-        this.positions = new HashMap<>();
-        for ( int i = 0; i < this.getBoardSize(); i++ ) {
-            for ( int j = 0; j < this.getBoardSize(); j++ ) {
-                this.positions.put( new Vector2I( i, j ), "" );
-            }
-        }
+        int size = this.getBoardSize();
+        this.tables = size <= BitboardTables.MAX_BOARD_SIZE ? BitboardTables.of( size ) : null;
+        this.occupied = new long[colors.length];
+        this.zobrist = Zobrist.of( size );
+        this.pieceHash = 0L;
+        this.codes = new byte[size * size];
+        this.ids = new int[size * size];
+        Arrays.fill( this.codes, EMPTY );
         for ( Map.Entry<Vector2I, Piece> placement : this.config.getPlacements().entrySet() ) {
-            final Vector2I position = placement.getKey();
+            final int sq = square( placement.getKey() );
             PieceMB piece = new PieceMB( placement.getValue().getType(), placement.getValue().getTeam() );
             TeamMB team = piece.isTeam( TeamColor.WHITE ) ? this.white : this.black;
-            final String id = team.registerPiece( piece );
-            this.positions.put( position, id );
-            this.piecePositions.put( id, position );
+            this.codes[sq] = codeOf( piece.getTeam().ordinal(), piece.getType().ordinal() );
+            this.ids[sq] = team.registerPiece( piece );
+            this.occupied[piece.getTeam().ordinal()] |= bit( placement.getKey() );
+            this.pieceHash ^= this.zobrist.piece( this.codes[sq], sq );
+        }
+        this.pieceSquares = new int[colors.length][];
+        this.pieceSquares[TeamColor.WHITE.ordinal()] = new int[this.white.size()];
+        this.pieceSquares[TeamColor.BLACK.ordinal()] = new int[this.black.size()];
+        for ( int sq = 0; sq < this.codes.length; sq++ ) {
+            if ( this.codes[sq] != EMPTY ) {
+                this.pieceSquares[colorOf( this.codes[sq] )][this.ids[sq]] = sq;
+            }
         }
-    }
-
-    private PieceMB getPieceMb( Piece piece ) {
-        return ( PieceMB ) piece;
     }
 
     @Override
@@ -420,8 +716,9 @@ public class GameMB extends Game {
     @Override
     public List<Move> getPossibleMoves( TeamColor color ) {
         List<Move> possibleMoves = new ArrayList<>();
-        List<Piece> alive = getTeam( color ).getAlive();
-        alive.forEach( piece -> possibleMoves.addAll( getPossibleMoves( piece ) ) );
+        for ( ValidationMB validation : this.ruleValidator.validateAll( color ) ) {
+            possibleMoves.add( validation.getMove() );
+        }
         return possibleMoves;
     }
 
@@ -434,10 +731,7 @@ public class GameMB extends Game {
 
     @Override
     public List<Validation> getPossibleValidations( TeamColor color ) {
-        List<Validation> validations = new ArrayList<>();
-        List<Piece> alive = getTeam( color ).getAlive();
-        alive.forEach( piece -> validations.addAll( getPossibleValidations( piece ) ) );
-        return validations;
+        return new ArrayList<>( this.ruleValidator.validateAll( color ) );
     }
 
     @Override
@@ -452,22 +746,86 @@ public class GameMB extends Game {
                 .collect( Collectors.toList() );
     }
 
+    @Override
+    public List<Validation> getPseudoLegalValidations( TeamColor color ) {
+        List<Validation> validations = new ArrayList<>();
+        if ( !isOnMove( color ) ) {
+            return validations;
+        }
+        Team team = getTeam( color );
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Vector2I from = getPosition( team.getAlive( i ) );
+            for ( Vector2I to : MoveGenerator.generateAllPossibleMoves( this, from ) ) {
+                for ( ValidationMB validation : this.ruleValidator.validatePseudo( new Move( from, to ) ) ) {
+                    if ( validation.isLegal() ) {
+                        validations.add( validation );
+                    }
+                }
+            }
+        }
+        return validations;
+    }
+
+    @Override
+    public boolean isLegalPseudo( Move move ) {
+        return !this.ruleValidator.isKingInCheckAfter( move );
+    }
+
+    /**
+     * Allocating adapter, the moves are validated by the configured rules like {@link #getPossibleValidations(TeamColor)}
+     * and packed afterwards. Generating the codes without the rules would ignore a custom rule set, the allocation free
+     * packed moves are only provided by the bitboard game.
+     */
+    @Override
+    public void generateMoves( MoveList moves ) {
+        for ( Validation validation : getPossibleValidations( this.onMove ) ) {
+            moves.add( MoveCode.of( validation, getBoardSize() ) );
+        }
+    }
+
+    /**
+     * Allocating adapter of {@link #getPseudoLegalValidations(TeamColor)}, see {@link #generateMoves(MoveList)}.
+     */
+    @Override
+    public void generatePseudoLegalMoves( MoveList moves ) {
+        for ( Validation validation : getPseudoLegalValidations( this.onMove ) ) {
+            moves.add( MoveCode.of( validation, getBoardSize() ) );
+        }
+    }
+
     public GameMB clone() {
         GameMB game = new GameMB( this.config );
         game.setAll( this );
         return game;
     }
 
-    public void setAll( GameMB game ) {
+    @Override
+    public synchronized GameMB copy() {
+        return clone();
+    }
+
+    public synchronized void setAll( GameMB game ) {
+        this.clearStatus();
         this.white = game.getWhite().clone();
         this.black = game.getBlack().clone();
-        this.positions = game.getPositions().entrySet().stream().collect( Collectors.toMap( e -> e.getKey(), e -> e.getValue() ) );
-        this.piecePositions = game.getPiecePositions().entrySet().stream().collect( Collectors.toMap( e -> e.getKey(), e -> e.getValue() ) );
+        this.codes = game.codes.clone();
+        this.ids = game.ids.clone();
+        this.pieceSquares = new int[][]{ game.pieceSquares[0].clone(), game.pieceSquares[1].clone() };
+        this.tables = game.tables;
+        this.occupied = game.occupied.clone();
+        this.zobrist = game.zobrist;
+        this.pieceHash = game.pieceHash;
         this.state = game.getState();
         this.history = new ArrayList<>( game.getHistory() );
-        this.prev = game.getPrev();
-        this.attacked = game.getAttacked();
-        this.pined = game.getPined();
+        this.undos = new Undo[game.undos.length];
+        for ( int i = 0; i < game.undoSize; i++ ) {
+            this.undos[i] = game.undos[i].clone();
+        }
+        this.undoSize = game.undoSize;
+        this.journal = game.journal.clone();
+        this.journalSize = game.journalSize;
+        this.attacks = game.attacks.copy( this );
+        this.pined = null;
         this.onMove = game.getOnMove();
         this.whiteCanCastleKing = game.isWhiteCanCastleKing();
         this.whiteCanCastleQueen = game.isWhiteCanCastleQueen();
@@ -477,14 +835,56 @@ public class GameMB extends Game {
         this.moveNumber = game.getMoveNumber();
         this.halfMoveRuleCount = game.getHalfMoveRuleCount();
         this.ruleValidator = game.getRuleValidator().clone( this );
+        this.resetPositions();
+        this.copyPositions( game );
         this.emitEvent();
     }
 
+    public boolean isLogging() {
+        return this.canLog && !isSilent();
+    }
+
     public void log( String pattern, Object... arguments ) {
-        if ( this.canLog ) {
+        if ( isLogging() ) {
             List<Object> argumentList = CollectionUtil.toMutableList( arguments );
             Log.info( pattern, argumentList.toArray() );
         }
     }
 
+    /**
+     * state before a move which is not covered by the journal
+     */
+    private static class Undo implements Cloneable {
+
+        private int journalStart;
+
+        private TeamColor onMove;
+
+        private GameState state;
+
+        private boolean whiteCanCastleKing;
+
+        private boolean whiteCanCastleQueen;
+
+        private boolean blackCanCastleKing;
+
+        private boolean blackCanCastleQueen;
+
+        private Vector2I auPassantPosition;
+
+        private int moveNumber;
+
+        private int halfMoveRuleCount;
+
+        @Override
+        public Undo clone() {
+            try {
+                return ( Undo ) super.clone();
+            } catch ( CloneNotSupportedException e ) {
+                throw new IllegalStateException( e );
+            }
+        }
+
+    }
+
 }
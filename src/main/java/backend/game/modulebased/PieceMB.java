@@ -10,7 +10,7 @@ public class PieceMB extends Piece {
 
     @Getter
     @Setter
-    private String id;
+    private int id;
 
     public PieceMB( PieceType type, TeamColor team ) {
         super( type, team );
@@ -4,67 +4,267 @@ import backend.core.model.Piece;
 import backend.core.model.Team;
 import backend.core.values.PieceType;
 import backend.core.values.TeamColor;
-import lombok.Setter;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
 
+/**
+ * Pieces of one color with an index of the alive pieces, in total and per type.
+ * Captures and promotions have to go through the team to keep the index in sync,
+ * reverting them in reverse order restores the exact order of the index.
+ */
 public class TeamMB extends Team {
 
-    @Setter
-    private Map<String, PieceMB> pieces;
+    private static final PieceType[] types = PieceType.values();
+
+    /**
+     * [id] pieces in order of registration, captured pieces keep their id
+     */
+    private PieceMB[] pieces;
+
+    private int size;
+
+    private PieceMB king;
+
+    private PieceList alive;
+
+    /**
+     * [type] alive pieces of the type
+     */
+    private PieceList[] byType;
 
     public TeamMB( TeamColor color ) {
         super( color );
-        this.pieces = new HashMap<>();
+        this.pieces = new PieceMB[16];
+        this.alive = new PieceList( this.pieces.length );
+        this.byType = new PieceList[types.length];
+        for ( int type = 0; type < types.length; type++ ) {
+            this.byType[type] = new PieceList( this.pieces.length );
+        }
     }
 
-    public String registerPiece( PieceMB piece ) {
+    public int registerPiece( PieceMB piece ) {
         if ( !piece.isTeam( this.color ) ) {
-            return null;
+            return -1;
+        }
+        if ( this.size == this.pieces.length ) {
+            this.pieces = Arrays.copyOf( this.pieces, this.size * 2 );
+            this.alive.grow( this.pieces.length );
+            for ( PieceList list : this.byType ) {
+                list.grow( this.pieces.length );
+            }
         }
-        List<Piece> piecesOfType = getPiecesByType( piece.getType() );
-        String id = color.equals( TeamColor.WHITE ) ? "W" : "B";
-        id += "_" + piece.getType() + "_" + piecesOfType.size();
-        piece.setId( id );
-        this.pieces.put( id, piece );
-        return id;
+        piece.setId( this.size );
+        this.pieces[this.size++] = piece;
+        if ( this.king == null && piece.isType( PieceType.KING ) ) {
+            this.king = piece;
+        }
+        if ( piece.isAlive() ) {
+            this.alive.add( piece );
+            this.byType[piece.getType().ordinal()].add( piece );
+        }
+        return piece.getId();
+    }
+
+    public PieceMB getById( int id ) {
+        return this.pieces[id];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * changes of the alive pieces
+     */
+
+    public void capture( PieceMB piece ) {
+        piece.setAlive( false );
+        this.alive.remove( piece );
+        this.byType[piece.getType().ordinal()].remove( piece );
+    }
+
+    /**
+     * Reverts the last capture of the piece.
+     */
+    public void revive( PieceMB piece ) {
+        piece.setAlive( true );
+        this.byType[piece.getType().ordinal()].restore( piece );
+        this.alive.restore( piece );
     }
 
-    public PieceMB getById( String id ) {
-        return this.pieces.get( id );
+    public void promote( PieceMB piece, PieceType type ) {
+        this.byType[piece.getType().ordinal()].remove( piece );
+        piece.setType( type );
+        this.byType[type.ordinal()].add( piece );
     }
 
+    /**
+     * Reverts the last promotion of the piece back to the type.
+     */
+    public void unpromote( PieceMB piece, PieceType type ) {
+        this.byType[piece.getType().ordinal()].remove( piece );
+        piece.setType( type );
+        this.byType[type.ordinal()].restore( piece );
+    }
+
+    /**
+     * queries
+     */
+
+    @Override
     public List<Piece> getAll() {
-        return this.pieces.values().stream().collect( Collectors.toList() );
+        return new ArrayList<>( Arrays.asList( this.pieces ).subList( 0, this.size ) );
     }
 
+    @Override
     public List<Piece> getAlive() {
-        return getAll().stream().filter( Piece::isAlive ).collect( Collectors.toList() );
+        return this.alive.toList();
     }
 
-    public Piece getKing() {
-        return getAll().stream().filter( p -> PieceType.KING.equals( p.getType() ) ).findFirst().get();
+    @Override
+    public int getAliveCount() {
+        return this.alive.size;
     }
 
+    @Override
+    public PieceMB getAlive( int index ) {
+        return this.alive.pieces[index];
+    }
+
+    @Override
+    public int getCount( PieceType type ) {
+        return this.byType[type.ordinal()].size;
+    }
+
+    public PieceMB getAlive( PieceType type, int index ) {
+        return this.byType[type.ordinal()].pieces[index];
+    }
+
+    @Override
+    public PieceMB getKing() {
+        if ( this.king == null ) {
+            throw new NoSuchElementException( "No king registered for " + this.color );
+        }
+        return this.king;
+    }
+
+    @Override
     public List<Piece> getPiecesByType( PieceType type ) {
-        return getAll().stream().filter( p -> p.isType( type ) ).collect( Collectors.toList() );
+        List<Piece> pieces = new ArrayList<>();
+        for ( int i = 0; i < this.size; i++ ) {
+            if ( this.pieces[i].isType( type ) ) {
+                pieces.add( this.pieces[i] );
+            }
+        }
+        return pieces;
     }
 
+    @Override
     public List<Piece> getPiecesByType( PieceType type, boolean alive ) {
-        return getPiecesByType( type ).stream().filter( p -> p.isAlive() == alive ).collect( Collectors.toList() );
+        if ( alive ) {
+            return this.byType[type.ordinal()].toList();
+        }
+        List<Piece> pieces = new ArrayList<>();
+        for ( int i = 0; i < this.size; i++ ) {
+            if ( this.pieces[i].isType( type ) && !this.pieces[i].isAlive() ) {
+                pieces.add( this.pieces[i] );
+            }
+        }
+        return pieces;
     }
 
     public TeamMB clone() {
         TeamMB team = new TeamMB( this.color );
-        Map<String, PieceMB> pieces = new HashMap<>();
-        for ( Map.Entry<String, PieceMB> entry : this.pieces.entrySet() ) {
-            pieces.put( entry.getKey(), entry.getValue().clone() );
+        team.pieces = new PieceMB[this.pieces.length];
+        for ( int i = 0; i < this.size; i++ ) {
+            team.pieces[i] = this.pieces[i].clone();
+        }
+        team.size = this.size;
+        team.king = this.king == null ? null : team.pieces[this.king.getId()];
+        team.alive = this.alive.copy( team.pieces );
+        for ( int type = 0; type < types.length; type++ ) {
+            team.byType[type] = this.byType[type].copy( team.pieces );
         }
-        team.setPieces( pieces );
         return team;
     }
 
+    /**
+     * Dense list of pieces with O(1) add and remove.
+     * A removed piece is swapped with the last one, {@link #restore(PieceMB)} swaps it back to its old index.
+     */
+    private static class PieceList {
+
+        private PieceMB[] pieces;
+
+        private int size;
+
+        /**
+         * [id] index of the piece in the list
+         */
+        private int[] indices;
+
+        /**
+         * [id] index of the piece before its last removal
+         */
+        private int[] removedFrom;
+
+        private PieceList( int capacity ) {
+            this.pieces = new PieceMB[capacity];
+            this.indices = new int[capacity];
+            this.removedFrom = new int[capacity];
+        }
+
+        private void grow( int capacity ) {
+            this.pieces = Arrays.copyOf( this.pieces, capacity );
+            this.indices = Arrays.copyOf( this.indices, capacity );
+            this.removedFrom = Arrays.copyOf( this.removedFrom, capacity );
+        }
+
+        private void add( PieceMB piece ) {
+            this.pieces[this.size] = piece;
+            this.indices[piece.getId()] = this.size;
+            this.size++;
+        }
+
+        private void remove( PieceMB piece ) {
+            int index = this.indices[piece.getId()];
+            PieceMB last = this.pieces[--this.size];
+            this.pieces[index] = last;
+            this.indices[last.getId()] = index;
+            this.pieces[this.size] = null;
+            this.removedFrom[piece.getId()] = index;
+        }
+
+        private void restore( PieceMB piece ) {
+            int index = Math.min( this.removedFrom[piece.getId()], this.size );
+            PieceMB moved = this.pieces[index];
+            if ( moved != null ) {
+                this.pieces[this.size] = moved;
+                this.indices[moved.getId()] = this.size;
+            }
+            this.pieces[index] = piece;
+            this.indices[piece.getId()] = index;
+            this.size++;
+        }
+
+        private List<Piece> toList() {
+            return new ArrayList<>( Arrays.asList( this.pieces ).subList( 0, this.size ) );
+        }
+
+        private PieceList copy( PieceMB[] pieces ) {
+            PieceList list = new PieceList( this.pieces.length );
+            for ( int i = 0; i < this.size; i++ ) {
+                list.pieces[i] = pieces[this.pieces[i].getId()];
+            }
+            list.size = this.size;
+            list.indices = this.indices.clone();
+            list.removedFrom = this.removedFrom.clone();
+            return list;
+        }
+
+    }
+
 }
@@ -0,0 +1,109 @@
+package backend.game.modulebased.validator;
+
+import backend.core.model.Piece;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.Squares;
+import backend.game.modulebased.GameMB;
+import lombok.Getter;
+import math.Vector2I;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * King, check, checker and pin state of the team on move, computed once per position.
+ * Validating all moves of a position against it answers the king safety of each move with array lookups
+ * instead of scanning the pin rays per move. Only valid as long as the position does not change.
+ */
+public class CheckContext {
+
+    @Getter
+    private final TeamColor team;
+
+    @Getter
+    private final Vector2I king;
+
+    @Getter
+    private final boolean check;
+
+    /**
+     * number of pieces checking the king
+     */
+    @Getter
+    private final int checkers;
+
+    /**
+     * [square] true for the checking pieces and the squares between them and the king
+     */
+    private final boolean[] evasions;
+
+    /**
+     * [square] index of the first pin ray containing the square or -1
+     */
+    private final int[] pinIdxs;
+
+    private final Squares squares;
+
+    public static CheckContext of( GameMB game ) {
+        return new CheckContext( game, game.getOnMove() );
+    }
+
+    private CheckContext( GameMB game, TeamColor team ) {
+        Piece king = game.getTeam( team ).getKing();
+        List<List<Vector2I>> pined = game.getPined();
+        this.team = team;
+        this.king = game.getPosition( king );
+        this.check = game.isAttacked( this.king );
+        this.squares = game.getSquares();
+        this.pinIdxs = new int[this.squares.count];
+        Arrays.fill( this.pinIdxs, -1 );
+
+        for ( int i = 0; i < pined.size(); i++ ) {
+            for ( Vector2I p : pined.get( i ) ) {
+                int sq = this.squares.square( p );
+                if ( this.pinIdxs[sq] < 0 ) {
+                    this.pinIdxs[sq] = i;
+                }
+            }
+        }
+
+        this.evasions = new boolean[this.squares.count];
+        this.checkers = this.check ? game.collectCheckEvasions( team, this.evasions ) : 0;
+    }
+
+    public int getPinIdx( Vector2I p ) {
+        int sq = this.squares.square( p );
+        return sq < 0 ? -1 : this.pinIdxs[sq];
+    }
+
+    public boolean isPined( Vector2I p ) {
+        return getPinIdx( p ) >= 0;
+    }
+
+    /**
+     * @return true if moving a piece other than the king onto the position can resolve the check
+     */
+    public boolean isEvasion( Vector2I p ) {
+        int sq = this.squares.square( p );
+        return sq >= 0 && this.evasions[sq];
+    }
+
+    /**
+     * A move of a piece other than the king resolves a single check by capturing the checking piece or by blocking
+     * its ray, a double check can not be resolved that way.
+     */
+    public boolean resolvesCheck( GameMB game, Vector2I from, Vector2I to ) {
+        if ( this.checkers != 1 ) {
+            return false;
+        }
+        if ( isEvasion( to ) ) {
+            return true;
+        }
+        // au passant captures a checking pawn beside the target
+        Vector2I auPassant = game.getAuPassantPosition();
+        return auPassant != null && to.x == auPassant.x && from.x != to.x
+                && isEvasion( auPassant ) && game.isType( from, PieceType.PAWN );
+    }
+
+}
@@ -1,8 +1,10 @@
 package backend.game.modulebased.validator;
 
 import backend.core.model.Move;
+import backend.core.model.Team;
 import backend.core.values.ActionType;
 import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
 import backend.game.MoveGenerator;
 import backend.game.modulebased.GameMB;
 import backend.game.modulebased.validator.rules.*;
@@ -12,17 +14,94 @@ import math.Vector2I;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Validates moves with the configured rules.
+ * The rules are compiled once into a table by type and one validator per piece type, which only calls the rules
+ * relevant for the piece. A rule type which is not configured never applies.
+ */
 public class RuleValidator {
 
+    private static final int ILLEGAL = 0;
+
+    private static final int LEGAL = 1;
+
+    private static final int PROMOTING = 2;
+
     @Getter
     private final List<Rule> rules;
 
     private final GameMB game;
 
+    /**
+     * first configured rule of each type
+     */
+    private final Map<RuleType, Rule> rulesByType;
+
+    /**
+     * [piece type] validation of the movement of the piece
+     */
+    private final PieceValidator[] pieceValidators;
+
+    /**
+     * rules with additional actions after a move, with the tags they are applied for
+     */
+    private final Rule[] additionalRules;
+
+    private final List<Set<ActionType>> additionalTags;
+
+    private final Rule teamIsNotOnMove;
+
+    private final Rule positionIsOutOfBounds;
+
+    private final Rule kingWouldBeInCheck;
+
+    private final Rule notAllowedToCapture;
+
+    private final Rule allowedToCapture;
+
     public RuleValidator( GameMB game, List<RuleType> ruleTypes ) {
         this.game = game;
         this.rules = new ArrayList<>();
         ruleTypes.forEach( type -> addRule( type ) );
+
+        this.rulesByType = new EnumMap<>( RuleType.class );
+        for ( Rule rule : this.rules ) {
+            this.rulesByType.putIfAbsent( rule.getType(), rule );
+        }
+        this.teamIsNotOnMove = ruleOf( RuleType.TEAM_IS_NOT_ON_MOVE );
+        this.positionIsOutOfBounds = ruleOf( RuleType.POSITION_IS_OUT_OF_BOUNDS );
+        this.kingWouldBeInCheck = ruleOf( RuleType.KING_WOULD_BE_IN_CHECK );
+        this.notAllowedToCapture = ruleOf( RuleType.NOT_ALLOWED_TO_CAPTURE );
+        this.allowedToCapture = ruleOf( RuleType.ALLOWED_TO_CAPTURE );
+
+        PieceType[] types = PieceType.values();
+        this.pieceValidators = new PieceValidator[types.length];
+        for ( PieceType type : types ) {
+            this.pieceValidators[type.ordinal()] = compile( type );
+        }
+
+        List<Rule> additionalRules = this.rules.stream()
+                .filter( RuleValidator::hasAdditionalActions )
+                .collect( Collectors.toList() );
+        this.additionalRules = additionalRules.toArray( new Rule[0] );
+        this.additionalTags = new ArrayList<>( this.additionalRules.length );
+        for ( Rule rule : this.additionalRules ) {
+            List<ActionType> tags = rule.getTags();
+            this.additionalTags.add( tags.isEmpty() ? EnumSet.noneOf( ActionType.class ) : EnumSet.copyOf( tags ) );
+        }
+    }
+
+    /**
+     * @return true if the rule overrides {@link Rule#applyAdditionalAfterMove(GameMB, Vector2I, Vector2I)}
+     */
+    private static boolean hasAdditionalActions( Rule rule ) {
+        try {
+            return rule.getClass()
+                    .getMethod( "applyAdditionalAfterMove", GameMB.class, Vector2I.class, Vector2I.class )
+                    .getDeclaringClass() != Rule.class;
+        } catch ( NoSuchMethodException e ) {
+            throw new IllegalStateException( e );
+        }
     }
 
     private void addRule( RuleType type ) {
@@ -90,11 +169,83 @@ public class RuleValidator {
         }
     }
 
+    /**
+     * compilation
+     */
+
+    private PieceValidator compile( PieceType type ) {
+        return switch ( type ) {
+            case PAWN -> compilePawn();
+            case KNIGHT -> compileMove( RuleType.KNIGHT_MOVE );
+            case BISHOP -> compileMove( RuleType.BISHOP_MOVE );
+            case ROOK -> compileMove( RuleType.ROOK_MOVE );
+            case QUEEN -> compileMove( RuleType.QUEEN_MOVE );
+            case KING -> compileKing();
+        };
+    }
+
+    private PieceValidator compileMove( RuleType type ) {
+        Rule move = this.rulesByType.get( type );
+        if ( move == null ) {
+            return ( validation, from, to ) -> ILLEGAL;
+        }
+        return ( validation, from, to ) -> move.validate( this.game, from, to ) ? LEGAL : ILLEGAL;
+    }
+
+    private PieceValidator compilePawn() {
+        Rule move = ruleOf( RuleType.PAWN_MOVE );
+        Rule auPassantCapture = ruleOf( RuleType.AU_PASSANT_CAPTURE );
+        Rule promoting = ruleOf( RuleType.PROMOTING_QUEEN );
+        Rule auPassantPosition = ruleOf( RuleType.AU_PASSANT_POSITION );
+        return ( validation, from, to ) -> {
+            boolean validPawnMove = move.validate( this.game, from, to );
+            boolean auPassant = auPassantCapture.validate( this.game, from, to );
+            if ( !validPawnMove && !auPassant ) {
+                return ILLEGAL;
+            }
+            if ( auPassant ) {
+                validation.getActions().add( ActionType.CAPTURE_AU_PASSANT );
+            }
+            if ( validPawnMove && auPassantPosition.validate( this.game, from, to ) ) {
+                validation.getActions().add( ActionType.TRIGGER_AU_PASSANT );
+            }
+            return validPawnMove && promoting.validate( this.game, from, to ) ? PROMOTING : LEGAL;
+        };
+    }
+
+    private PieceValidator compileKing() {
+        Rule move = ruleOf( RuleType.KING_MOVE );
+        Rule castleKing = ruleOf( RuleType.CASTLING_KING_SIDE );
+        Rule castleQueen = ruleOf( RuleType.CASTLING_QUEEN_SIDE );
+        return ( validation, from, to ) -> {
+            boolean validKingMove = move.validate( this.game, from, to );
+            boolean validKingCastle = castleKing.validate( this.game, from, to );
+            boolean validQueenCastle = castleQueen.validate( this.game, from, to );
+            if ( !validKingMove && !validKingCastle && !validQueenCastle ) {
+                return ILLEGAL;
+            }
+            if ( validKingCastle ) {
+                validation.getActions().add( ActionType.CASTLE_KING );
+            }
+            if ( validQueenCastle ) {
+                validation.getActions().add( ActionType.CASTLE_QUEEN );
+            }
+            return LEGAL;
+        };
+    }
+
+    /**
+     * @return the configured rule or a rule which never applies
+     */
+    private Rule ruleOf( RuleType type ) {
+        Rule rule = this.rulesByType.get( type );
+        return rule != null ? rule : new AbsentRule( type );
+    }
+
     public void applyAdditionalActions( Set<ActionType> actions, Vector2I from, Vector2I to ) {
-        for ( Rule rule : this.rules ) {
-            List<ActionType> tags = rule.getTags();
-            if ( actions.containsAll( tags ) ) {
-                rule.applyAdditionalAfterMove( this.game, from, to );
+        for ( int i = 0; i < this.additionalRules.length; i++ ) {
+            if ( actions.containsAll( this.additionalTags.get( i ) ) ) {
+                this.additionalRules[i].applyAdditionalAfterMove( this.game, from, to );
             }
         }
     }
@@ -102,13 +253,93 @@ public class RuleValidator {
     public Map<Vector2I, List<ValidationMB>> validate( Vector2I from ) {
         Map<Vector2I, List<ValidationMB>> validation = new HashMap<>();
         Set<Vector2I> positions = MoveGenerator.generateAllPossibleMoves( this.game, from );
+        CheckContext context = positions.isEmpty() ? null : CheckContext.of( this.game );
         for ( Vector2I to : positions ) {
-            validation.put( to, validate( new Move( from, to ) ) );
+            validation.put( to, validate( new Move( from, to ), true, context ) );
         }
         return validation;
     }
 
     public List<ValidationMB> validate( Move move ) {
+        return validate( move, true, null );
+    }
+
+    /**
+     * Validates all moves of the team in one batch, sharing the king, check and pin state of the position.
+     * If the team is in check, only moves of the king, captures of the checking piece and moves onto its ray are
+     * validated, with a double check only moves of the king.
+     *
+     * @return the legal validations
+     */
+    public List<ValidationMB> validateAll( TeamColor color ) {
+        List<ValidationMB> validations = new ArrayList<>();
+        validateAll( color, validations );
+        return validations;
+    }
+
+    public boolean hasLegalMove( TeamColor color ) {
+        return validateAll( color, null );
+    }
+
+    /**
+     * @param validations collects the legal validations, the validation stops at the first legal move if null
+     * @return true if a legal move was found
+     */
+    private boolean validateAll( TeamColor color, List<ValidationMB> validations ) {
+        CheckContext context = this.game.isOnMove( color ) ? CheckContext.of( this.game ) : null;
+        boolean evading = context != null && context.getCheckers() > 0;
+        Team team = this.game.getTeam( color );
+        boolean found = false;
+        for ( int i = 0; i < team.getAliveCount(); i++ ) {
+            Vector2I from = this.game.getPosition( team.getAlive( i ) );
+            if ( evading && context.getCheckers() > 1 && !from.equals( context.getKing() ) ) {
+                continue;
+            }
+            for ( Vector2I to : MoveGenerator.generateAllPossibleMoves( this.game, from ) ) {
+                if ( evading && !from.equals( context.getKing() ) && !context.resolvesCheck( this.game, from, to ) ) {
+                    continue;
+                }
+                for ( ValidationMB validation : validate( new Move( from, to ), true, context ) ) {
+                    if ( !validation.isLegal() ) {
+                        continue;
+                    }
+                    if ( validations == null ) {
+                        return true;
+                    }
+                    validations.add( validation );
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Validates the movement rules without checking if the own king would be in check.
+     */
+    public List<ValidationMB> validatePseudo( Move move ) {
+        return validate( move, false, null );
+    }
+
+    /**
+     * Checks only if the own king would be in check after the pseudo legal move.
+     */
+    public boolean isKingInCheckAfter( Move move ) {
+        return isKingInCheckAfter( move.getFrom(), move.getTo(), null );
+    }
+
+    private boolean isKingInCheckAfter( Vector2I from, Vector2I to, CheckContext context ) {
+        if ( context != null && this.kingWouldBeInCheck instanceof KingWouldBeInCheck rule
+                && this.game.isTeam( from, context.getTeam() ) ) {
+            return rule.validate( this.game, context, from, to );
+        }
+        return this.kingWouldBeInCheck.validate( this.game, from, to );
+    }
+
+    /**
+     * @param context check and pin state of the position, computed by the rule if null
+     */
+    private List<ValidationMB> validate( Move move, boolean checkKing, CheckContext context ) {
 
         ValidationMB validatedPosition = new ValidationMB( move );
         validatedPosition.setLegal( false );
@@ -117,10 +348,8 @@ public class RuleValidator {
         Vector2I from = move.getFrom();
         Vector2I to = move.getTo();
 
-        boolean isPromoting = false;
-
         // check if team is on move
-        if ( getRule( RuleType.TEAM_IS_NOT_ON_MOVE ).validate( this.game, from, to ) ) {
+        if ( this.teamIsNotOnMove.validate( this.game, from, to ) ) {
             return Arrays.asList( validatedPosition );
         }
 
@@ -130,7 +359,7 @@ public class RuleValidator {
         }
 
         // check out of bounds
-        if ( getRule( RuleType.POSITION_IS_OUT_OF_BOUNDS ).validate( this.game, from, to ) ) {
+        if ( this.positionIsOutOfBounds.validate( this.game, from, to ) ) {
             return Arrays.asList( validatedPosition );
         }
 
@@ -140,73 +369,23 @@ public class RuleValidator {
             return Arrays.asList( validatedPosition );
         }
 
-        // check pawn moves
-        if ( PieceType.PAWN.equals( pieceType ) ) {
-            boolean validPawnMove = getRule( RuleType.PAWN_MOVE ).validate( this.game, from, to );
-            boolean auPassant = getRule( RuleType.AU_PASSANT_CAPTURE ).validate( this.game, from, to );
-            if ( !validPawnMove && !auPassant ) {
-                return Arrays.asList( validatedPosition );
-            }
-            if ( auPassant ) {
-                validatedPosition.getActions().add( ActionType.CAPTURE_AU_PASSANT );
-            }
-            if ( validPawnMove && getRule( RuleType.PROMOTING_QUEEN ).validate( this.game, from, to ) ) {
-                isPromoting = true;
-            }
-            if ( validPawnMove && getRule( RuleType.AU_PASSANT_POSITION ).validate( this.game, from, to ) ) {
-                validatedPosition.getActions().add( ActionType.TRIGGER_AU_PASSANT );
-            }
-        }
-        // check knight moves
-        if ( PieceType.KNIGHT.equals( pieceType ) ) {
-            if ( !getRule( RuleType.KNIGHT_MOVE ).validate( this.game, from, to ) ) {
-                return Arrays.asList( validatedPosition );
-            }
-        }
-        // check bishop moves
-        if ( PieceType.BISHOP.equals( pieceType ) ) {
-            if ( !getRule( RuleType.BISHOP_MOVE ).validate( this.game, from, to ) ) {
-                return Arrays.asList( validatedPosition );
-            }
-        }
-        // check rook moves
-        if ( PieceType.ROOK.equals( pieceType ) ) {
-            if ( !getRule( RuleType.ROOK_MOVE ).validate( this.game, from, to ) ) {
-                return Arrays.asList( validatedPosition );
-            }
-        }
-        // check queen moves
-        if ( PieceType.QUEEN.equals( pieceType ) ) {
-            if ( !getRule( RuleType.QUEEN_MOVE ).validate( this.game, from, to ) ) {
-                return Arrays.asList( validatedPosition );
-            }
-        }
-        // check king moves
-        if ( PieceType.KING.equals( pieceType ) ) {
-            boolean validKingMove = getRule( RuleType.KING_MOVE ).validate( this.game, from, to );
-            boolean validKingCastle = getRule( RuleType.CASTLING_KING_SIDE ).validate( this.game, from, to );
-            boolean validQueenCastle = getRule( RuleType.CASTLING_QUEEN_SIDE ).validate( this.game, from, to );
-            if ( !validKingMove && !validKingCastle && !validQueenCastle ) {
-                return Arrays.asList( validatedPosition );
-            }
-            if ( validKingCastle ) {
-                validatedPosition.getActions().add( ActionType.CASTLE_KING );
-            }
-            if ( validQueenCastle ) {
-                validatedPosition.getActions().add( ActionType.CASTLE_QUEEN );
-            }
+        // check the movement of the piece
+        int movement = this.pieceValidators[pieceType.ordinal()].validate( validatedPosition, from, to );
+        if ( movement == ILLEGAL ) {
+            return Arrays.asList( validatedPosition );
         }
+        boolean isPromoting = movement == PROMOTING;
 
         // check if king would be check
-        if ( getRule( RuleType.KING_WOULD_BE_IN_CHECK ).validate( this.game, from, to ) ) {
+        if ( checkKing && isKingInCheckAfter( from, to, context ) ) {
             return Arrays.asList( validatedPosition );
         }
 
         // check capture
-        if ( getRule( RuleType.NOT_ALLOWED_TO_CAPTURE ).validate( this.game, from, to ) ) {
+        if ( this.notAllowedToCapture.validate( this.game, from, to ) ) {
             return Arrays.asList( validatedPosition );
         }
-        if ( getRule( RuleType.ALLOWED_TO_CAPTURE ).validate( this.game, from, to ) ) {
+        if ( this.allowedToCapture.validate( this.game, from, to ) ) {
             validatedPosition.getActions().add( ActionType.CAPTURE );
         }
 
@@ -235,22 +414,8 @@ public class RuleValidator {
     }
 
     /**
-     * Validate after move.
-     * Checking check, checkmate and stalemate.
+     * Validates the move against every configured rule in order, without the dispatch tables.
      */
-    public void postValidate( ValidationMB validation ) {
-        boolean isCheck = this.game.isCheckFor( this.game.getOnMove() );
-        boolean hasMoves = this.game.hasLegalMovesLeft( this.game.getOnMove() );
-        if ( isCheck ) {
-            validation.getActions().add( ActionType.CHECK );
-            if ( !hasMoves ) {
-                validation.getActions().add( ActionType.CHECKMATE );
-            }
-        } else if ( !hasMoves ) {
-            validation.getActions().add( ActionType.STALEMATE );
-        }
-    }
-
     public ValidationMB validateLegacy( Move move ) {
 
         ValidationMB validatedPosition = new ValidationMB( move );
@@ -294,9 +459,7 @@ public class RuleValidator {
     }
 
     public Rule getRule( RuleType type ) {
-        return this.rules.stream()
-                .filter( rule -> rule.getType().equals( type ) )
-                .findFirst().orElse( null );
+        return this.rulesByType.get( type );
     }
 
     public RuleValidator clone( GameMB game ) {
@@ -309,4 +472,29 @@ public class RuleValidator {
         return ruleValidator;
     }
 
+    @FunctionalInterface
+    private interface PieceValidator {
+
+        /**
+         * Validates the movement of the piece and adds the actions of special moves.
+         *
+         * @return ILLEGAL, LEGAL or PROMOTING
+         */
+        int validate( ValidationMB validation, Vector2I from, Vector2I to );
+
+    }
+
+    private static class AbsentRule extends Rule {
+
+        private AbsentRule( RuleType type ) {
+            super( type, Collections.emptyList() );
+        }
+
+        @Override
+        public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
+            return false;
+        }
+
+    }
+
 }
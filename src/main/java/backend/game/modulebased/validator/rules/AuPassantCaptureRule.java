@@ -25,8 +25,8 @@ public class AuPassantCaptureRule extends Rule {
         if ( game.getAuPassantPosition() != null && MoveGenerator.generateAuPassantMoves( game, from ).contains( to ) ) {
 
             TeamColor team = game.getTeam( from );
-            Vector2I dir = TeamColor.WHITE.equals( team ) ? Dir.UP.vector : Dir.DOWN.vector;
-            Vector2I target = to.sub( dir );
+            Dir dir = TeamColor.WHITE.equals( team ) ? Dir.DOWN : Dir.UP;
+            Vector2I target = game.getSquares().vector( game.getSquares().steps[dir.ordinal()][game.square( to )] );
 
             if ( !target.equals( game.getAuPassantPosition() ) ) {
                 return false;
@@ -69,8 +69,8 @@ public class AuPassantCaptureRule extends Rule {
 
     @Override
     public void applyAdditionalAfterMove( GameMB game, Vector2I from, Vector2I to ) {
-        Vector2I dir = game.getPiece( to ).isTeam( TeamColor.WHITE ) ? Dir.UP.vector : Dir.DOWN.vector;
-        Vector2I target = to.sub( dir );
+        Dir dir = game.isTeam( to, TeamColor.WHITE ) ? Dir.DOWN : Dir.UP;
+        Vector2I target = game.getSquares().vector( game.getSquares().steps[dir.ordinal()][game.square( to )] );
         game.removePiece( target );
     }
 
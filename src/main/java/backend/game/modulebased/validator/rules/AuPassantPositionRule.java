@@ -32,7 +32,7 @@ public class AuPassantPositionRule extends Rule {
             if ( !start.isType( piece.getType() ) ) {
                 return false;
             }
-            return to.sub( from ).length() > 1;
+            return Math.abs( to.y - from.y ) > 1;
         }
         return false;
     }
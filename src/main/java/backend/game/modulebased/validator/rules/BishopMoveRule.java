@@ -17,7 +17,7 @@ public class BishopMoveRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MoveGenerator.generateBishopMoves( game, from ).contains( to );
+        return MoveGenerator.isBishopMove( game, from, to );
     }
 
 }
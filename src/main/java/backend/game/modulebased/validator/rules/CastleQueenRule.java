@@ -1,7 +1,6 @@
 package backend.game.modulebased.validator.rules;
 
 import backend.core.values.ActionType;
-import backend.core.values.Dir;
 import backend.core.values.TeamColor;
 import backend.game.MoveGenerator;
 import backend.game.modulebased.GameMB;
@@ -28,10 +27,8 @@ public class CastleQueenRule extends Rule {
 
     @Override
     public void applyAdditionalAfterMove( GameMB game, Vector2I from, Vector2I to ) {
-        Vector2I rookPos = game.isTeam( to, TeamColor.WHITE )
-                ? new Vector2I( 0, 0 )
-                : new Vector2I( 0, game.getBoardSize() - 1 );
-        Vector2I target = to.add( Dir.RIGHT.vector );
+        Vector2I rookPos = game.getSquares().vector( 0, to.y );
+        Vector2I target = game.getSquares().vector( to.x + 1, to.y );
         game.movePiece( rookPos, target );
         if ( game.isTeam( to, TeamColor.WHITE ) ) {
             game.setWhiteCanCastleKing( false );
@@ -16,6 +16,6 @@ public class GameIsFinishedRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return game.isFinished();
+        return game.isDecided();
     }
 }
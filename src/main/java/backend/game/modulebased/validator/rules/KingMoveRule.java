@@ -17,7 +17,7 @@ public class KingMoveRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MoveGenerator.generateKingMoves( game, from ).contains( to );
+        return MoveGenerator.isKingMove( game, from, to );
     }
 
 }
@@ -17,7 +17,7 @@ public class KnightMoveRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MoveGenerator.generateKnightMoves( game, from ).contains( to );
+        return MoveGenerator.isKnightMove( game, from, to );
     }
 
 }
@@ -5,7 +5,6 @@ import backend.game.modulebased.GameMB;
 import backend.game.modulebased.validator.Rule;
 import backend.game.modulebased.validator.RuleType;
 import math.Vector2I;
-import util.MathUtil;
 
 import java.util.Arrays;
 
@@ -17,8 +16,7 @@ public class PositionIsOutOfBoundsRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MathUtil.isOutOfBounds( to.x, game.getBoardSize() )
-                || MathUtil.isOutOfBounds( to.y, game.getBoardSize() );
+        return game.isOutOfBounds( to );
     }
 
 }
@@ -1,9 +1,7 @@
 package backend.game.modulebased.validator.rules;
 
-import backend.core.model.Piece;
 import backend.core.values.ActionType;
 import backend.core.values.PieceType;
-import backend.core.values.TeamColor;
 import backend.game.modulebased.GameMB;
 import backend.game.modulebased.validator.Rule;
 import backend.game.modulebased.validator.RuleType;
@@ -25,13 +23,12 @@ public class PromotingRookRule extends Rule {
             return false;
         }
 
-        int enemyRank = game.isTeam( from, TeamColor.WHITE ) ? game.getBoardSize() - 1 : 0;
+        int enemyRank = game.getSquares().promotionRanks[game.getTeam( from ).ordinal()];
         return to.y == enemyRank;
     }
 
     @Override
     public void applyAdditionalAfterMove( GameMB game, Vector2I from, Vector2I to ) {
-        Piece pawn = game.getPiece( to );
-        pawn.setType( PieceType.ROOK );
+        game.promotePiece( to, PieceType.ROOK );
     }
 }
@@ -17,7 +17,7 @@ public class QueenMoveRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MoveGenerator.generateQueenMoves( game, from ).contains( to );
+        return MoveGenerator.isQueenMove( game, from, to );
     }
 
 }
@@ -17,7 +17,7 @@ public class RookMoveRule extends Rule {
 
     @Override
     public boolean validate( GameMB game, Vector2I from, Vector2I to ) {
-        return MoveGenerator.generateRookMoves( game, from ).contains( to );
+        return MoveGenerator.isRookMove( game, from, to );
     }
 
 }
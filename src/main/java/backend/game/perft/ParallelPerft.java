@@ -0,0 +1,128 @@
+package backend.game.perft;
+
+import backend.core.model.MoveList;
+import backend.game.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft on a {@link ForkJoinPool}, the root and the next plies up to the split depth are split into one task per
+ * move. Every task works on its own copy of the game, the subtrees below the split depth are counted by a sequential
+ * {@link Perft}. The counts are summed in move order, they are exact and the same for every number of threads.
+ * A {@link PerftTable} may be shared by all tasks.
+ */
+public class ParallelPerft {
+
+    public static final int DEFAULT_SPLIT_DEPTH = 2;
+
+    private final Game game;
+
+    private final PerftTable table;
+
+    private final int splitDepth;
+
+    public ParallelPerft( Game game ) {
+        this( game, null, DEFAULT_SPLIT_DEPTH );
+    }
+
+    /**
+     * @param table      cached subtree counts shared by the tasks, may be null
+     * @param splitDepth plies which are split into tasks, later plies are counted sequentially
+     */
+    public ParallelPerft( Game game, PerftTable table, int splitDepth ) {
+        this.game = game;
+        this.table = table;
+        this.splitDepth = Math.max( 1, splitDepth );
+    }
+
+    public long count( int depth, int threads ) {
+        return run( depth, threads, false, false ).getNodes();
+    }
+
+    /**
+     * @param threads   parallelism of the pool
+     * @param divide    count the leaf nodes per root move
+     * @param breakdown count the move types of the leaf moves, see {@link Perft#run(int, boolean, boolean)}
+     */
+    public PerftResult run( int depth, int threads, boolean divide, boolean breakdown ) {
+        if ( depth <= 1 ) {
+            return new Perft( copyOf( this.game ), this.table ).run( depth, divide, breakdown );
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool( Math.max( 1, threads ) );
+        try {
+            PerftResult result = pool.invoke( new Split( copyOf( this.game ), depth, 0, divide, breakdown ) );
+            result.nanos = System.nanoTime() - start;
+            if ( this.table != null ) {
+                result.tableHits = this.table.getHits();
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return an independent copy of the game, events and logging of it are suppressed
+     */
+    static Game copyOf( Game game ) {
+        Game copy = game.copy();
+        copy.beginSilent();
+        return copy;
+    }
+
+    private class Split extends RecursiveTask<PerftResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game game;
+
+        private final int depth;
+
+        private final int ply;
+
+        private final boolean divide;
+
+        private final boolean breakdown;
+
+        private Split( Game game, int depth, int ply, boolean divide, boolean breakdown ) {
+            this.game = game;
+            this.depth = depth;
+            this.ply = ply;
+            this.divide = divide;
+            this.breakdown = breakdown;
+        }
+
+        @Override
+        protected PerftResult compute() {
+            if ( this.ply >= ParallelPerft.this.splitDepth || this.depth == 1 ) {
+                return new Perft( this.game, ParallelPerft.this.table ).run( this.depth, false, this.breakdown );
+            }
+
+            MoveList moves = new MoveList();
+            this.game.generateMoves( moves );
+            List<Split> children = new ArrayList<>( moves.size() );
+            for ( int i = 0; i < moves.size(); i++ ) {
+                Game child = copyOf( this.game );
+                child.makeGeneratedMove( moves.get( i ) );
+                children.add( new Split( child, this.depth - 1, this.ply + 1, false, this.breakdown ) );
+            }
+            invokeAll( children );
+
+            PerftResult result = new PerftResult( this.depth, this.breakdown );
+            for ( int i = 0; i < children.size(); i++ ) {
+                PerftResult child = children.get( i ).join();
+                result.add( child );
+                if ( this.divide ) {
+                    result.getDivide().put( Perft.name( moves.get( i ), this.game.getBoardSize() ), child.getNodes() );
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
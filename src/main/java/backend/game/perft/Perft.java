@@ -0,0 +1,221 @@
+package backend.game.perft;
+
+import backend.core.model.MoveCode;
+import backend.core.model.MoveList;
+import backend.core.notation.AlgebraicNotation;
+import backend.core.values.PieceType;
+import backend.game.Game;
+import backend.game.bitboard.BoardBB;
+import backend.game.bitboard.GameBB;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position, see https://www.chessprogramming.org/Perft.
+ * Bitboard games are walked on a copy of their board, other games through the packed moves of {@link Game}
+ * in a silent section. The last ply is counted in bulk from the number of legal moves, unless the move types
+ * are broken down, which needs the leaf moves to be made.
+ * With a {@link PerftTable} the counts of subtrees are cached by position hash and depth, transpositions are then
+ * only walked once. The move types are not cached, a breakdown always walks the full tree.
+ */
+public class Perft {
+
+    private final Game game;
+
+    /**
+     * cached subtree counts, null if not hashed
+     */
+    private final PerftTable table;
+
+    /**
+     * [ply] move buffers, reused between the nodes of a ply
+     */
+    private int[][] buffers = new int[0][];
+
+    private MoveList[] lists = new MoveList[0];
+
+    public Perft( Game game ) {
+        this( game, null );
+    }
+
+    public Perft( Game game, PerftTable table ) {
+        this.game = game;
+        this.table = table;
+    }
+
+    /**
+     * @return the number of leaf nodes of the depth
+     */
+    public long count( int depth ) {
+        return run( depth, false, false ).getNodes();
+    }
+
+    /**
+     * @return the leaf nodes per root move and in total
+     */
+    public PerftResult divide( int depth ) {
+        return run( depth, true, false );
+    }
+
+    /**
+     * @param divide    count the leaf nodes per root move
+     * @param breakdown count captures, au passants, castles, promotions, checks and checkmates of the leaf moves
+     */
+    public PerftResult run( int depth, boolean divide, boolean breakdown ) {
+        PerftResult result = new PerftResult( depth, breakdown );
+        ensurePlies( depth + 1 );
+        long start = System.nanoTime();
+        if ( depth <= 0 ) {
+            result.nodes = 1L;
+        } else if ( this.game instanceof GameBB gameBB ) {
+            result.nodes = walk( gameBB.getBoard().copy(), depth, 0, divide, result );
+        } else {
+            this.game.beginSilent();
+            try {
+                result.nodes = walk( depth, 0, divide, result );
+            } finally {
+                this.game.endSilent();
+            }
+        }
+        result.nanos = System.nanoTime() - start;
+        if ( this.table != null ) {
+            result.tableHits = this.table.getHits();
+        }
+        return result;
+    }
+
+    private long walk( BoardBB board, int depth, int ply, boolean divide, PerftResult result ) {
+        boolean cached = isCached( depth, ply, result );
+        long hash = cached ? board.getKey() : 0L;
+        if ( cached ) {
+            long nodes = this.table.get( hash, depth );
+            if ( nodes >= 0L ) {
+                return nodes;
+            }
+        }
+        int[] moves = this.buffers[ply];
+        int end = board.generateLegalMoves( board.getOnMove(), moves, 0 );
+        long nodes = 0L;
+        if ( depth == 1 && !result.isBreakdown() && !( divide && ply == 0 ) ) {
+            nodes = end;
+            end = 0;
+        }
+        for ( int i = 0; i < end; i++ ) {
+            int move = moves[i];
+            long undo = board.make( move );
+            long children;
+            if ( depth == 1 ) {
+                children = 1L;
+                if ( result.isBreakdown() ) {
+                    boolean check = board.isCheck( board.getOnMove() );
+                    boolean mate = check && board.generateLegalMoves( board.getOnMove(), this.buffers[ply + 1], 0 ) == 0;
+                    classify( move, check, mate, result );
+                }
+            } else {
+                children = walk( board, depth - 1, ply + 1, false, result );
+            }
+            board.unmake( move, undo );
+            if ( divide && ply == 0 ) {
+                result.getDivide().put( name( move, this.game.getBoardSize() ), children );
+            }
+            nodes += children;
+        }
+        if ( cached ) {
+            this.table.put( hash, depth, nodes );
+        }
+        return nodes;
+    }
+
+    private long walk( int depth, int ply, boolean divide, PerftResult result ) {
+        boolean cached = isCached( depth, ply, result );
+        long hash = cached ? this.game.getHash() : 0L;
+        if ( cached ) {
+            long nodes = this.table.get( hash, depth );
+            if ( nodes >= 0L ) {
+                return nodes;
+            }
+        }
+        MoveList moves = this.lists[ply];
+        moves.clear();
+        this.game.generateMoves( moves );
+        long nodes = 0L;
+        int end = moves.size();
+        if ( depth == 1 && !result.isBreakdown() && !( divide && ply == 0 ) ) {
+            nodes = end;
+            end = 0;
+        }
+        for ( int i = 0; i < end; i++ ) {
+            int move = moves.get( i );
+            this.game.makeGeneratedMove( move );
+            long children;
+            if ( depth == 1 ) {
+                children = 1L;
+                if ( result.isBreakdown() ) {
+                    boolean check = this.game.isCheckFor( this.game.getOnMove() );
+                    boolean mate = check && !this.game.hasLegalMovesLeft( this.game.getOnMove() );
+                    classify( move, check, mate, result );
+                }
+            } else {
+                children = walk( depth - 1, ply + 1, false, result );
+            }
+            this.game.undoLastMove();
+            if ( divide && ply == 0 ) {
+                result.getDivide().put( name( move, this.game.getBoardSize() ), children );
+            }
+            nodes += children;
+        }
+        if ( cached ) {
+            this.table.put( hash, depth, nodes );
+        }
+        return nodes;
+    }
+
+    /**
+     * Subtrees of a single ply are counted in bulk and not worth a slot, the root is never repeated.
+     */
+    private boolean isCached( int depth, int ply, PerftResult result ) {
+        return this.table != null && depth > 0 && ply > 0 && !result.isBreakdown();
+    }
+
+    private void classify( int move, boolean check, boolean mate, PerftResult result ) {
+        if ( MoveCode.isCapture( move ) ) {
+            result.captures++;
+        }
+        if ( MoveCode.hasFlag( move, MoveCode.FLAG_AU_PASSANT ) ) {
+            result.auPassants++;
+        }
+        if ( MoveCode.hasFlag( move, MoveCode.FLAG_CASTLE_KING | MoveCode.FLAG_CASTLE_QUEEN ) ) {
+            result.castles++;
+        }
+        if ( MoveCode.promotion( move ) != null ) {
+            result.promotions++;
+        }
+        if ( check ) {
+            result.checks++;
+        }
+        if ( mate ) {
+            result.checkmates++;
+        }
+    }
+
+    /**
+     * @return the move in long algebraic notation, like e7e8q
+     */
+    static String name( int move, int size ) {
+        String name = AlgebraicNotation.getPosCode( MoveCode.vector( MoveCode.from( move ), size ) )
+                + AlgebraicNotation.getPosCode( MoveCode.vector( MoveCode.to( move ), size ) );
+        PieceType promotion = MoveCode.promotion( move );
+        return promotion == null ? name : name + AlgebraicNotation.pieceCodes.get( promotion ).toLowerCase();
+    }
+
+    private void ensurePlies( int plies ) {
+        if ( this.buffers.length >= plies ) {
+            return;
+        }
+        this.buffers = new int[plies][];
+        this.lists = new MoveList[plies];
+        for ( int ply = 0; ply < plies; ply++ ) {
+            this.buffers[ply] = new int[BoardBB.MAX_MOVES];
+            this.lists[ply] = new MoveList();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package backend.game.perft;
+
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+
+/**
+ * Command line entry of {@link Perft}, runs every depth up to the given one and prints the counts and nodes per second.
+ * <pre>
+ * PerftCommand [--type MODULE_BASED|BITBOARD] [--divide] [--breakdown] [--hash megabytes] [--threads n [--scaling]] depth [fen]
+ * </pre>
+ * The divide is only printed for the last depth, the start position is used without a fen.
+ * With a hash budget the subtree counts are cached in a {@link PerftTable} shared by all depths.
+ * With more than one thread the {@link ParallelPerft} is used, the scaling runs the last depth again with 1, 2, 4 ...
+ * threads up to the given count and prints the speed-up against one thread, each run with an empty table.
+ */
+public class PerftCommand {
+
+    public static void main( String[] args ) {
+        GameType type = GameType.BITBOARD;
+        boolean divide = false;
+        boolean breakdown = false;
+        int hashMegabytes = 0;
+        int threads = 1;
+        boolean scaling = false;
+        int depth = -1;
+        StringBuilder fen = new StringBuilder();
+
+        for ( int i = 0; i < args.length; i++ ) {
+            switch ( args[i] ) {
+                case "--type" -> type = GameType.valueOf( args[++i].toUpperCase() );
+                case "--divide" -> divide = true;
+                case "--breakdown" -> breakdown = true;
+                case "--hash" -> hashMegabytes = Integer.parseInt( args[++i] );
+                case "--threads" -> threads = Integer.parseInt( args[++i] );
+                case "--scaling" -> scaling = true;
+                default -> {
+                    if ( depth < 0 ) {
+                        depth = Integer.parseInt( args[i] );
+                    } else {
+                        fen.append( fen.length() == 0 ? "" : " " ).append( args[i] );
+                    }
+                }
+            }
+        }
+        if ( depth < 0 ) {
+            System.out.println( "usage: PerftCommand [--type MODULE_BASED|BITBOARD] [--divide] [--breakdown] [--hash megabytes] [--threads n [--scaling]] depth [fen]" );
+            return;
+        }
+
+        GameConfig config = fen.length() == 0 ? new GameConfig() : new GameConfig( fen.toString() );
+        PerftTable table = hashMegabytes > 0 ? PerftTable.ofMegabytes( hashMegabytes ) : null;
+        Game game = Game.getInstance( config, type );
+        Perft perft = new Perft( game, table );
+        ParallelPerft parallelPerft = new ParallelPerft( game, table, ParallelPerft.DEFAULT_SPLIT_DEPTH );
+        for ( int d = 1; d <= depth; d++ ) {
+            PerftResult result = threads > 1
+                    ? parallelPerft.run( d, threads, divide && d == depth, breakdown )
+                    : perft.run( d, divide && d == depth, breakdown );
+            System.out.println( result.format() );
+        }
+
+        if ( scaling ) {
+            double baseline = 0d;
+            for ( int n = 1; n <= threads; n = n < threads && n * 2 > threads ? threads : n * 2 ) {
+                PerftTable scalingTable = hashMegabytes > 0 ? PerftTable.ofMegabytes( hashMegabytes ) : null;
+                PerftResult result = new ParallelPerft( game, scalingTable, ParallelPerft.DEFAULT_SPLIT_DEPTH )
+                        .run( depth, n, false, breakdown );
+                baseline = n == 1 ? result.getSeconds() : baseline;
+                System.out.println( String.format( "threads %d: %d nodes in %.3fs (%d nps), speed-up %.2f",
+                        n, result.getNodes(), result.getSeconds(), result.getNodesPerSecond(), baseline / result.getSeconds() ) );
+                if ( n == threads ) {
+                    break;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package backend.game.perft;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Leaf counts of one perft run, the move types are only counted if the run broke them down.
+ * See https://www.chessprogramming.org/Perft_Results for the reference values.
+ */
+@Getter
+public class PerftResult {
+
+    private final int depth;
+
+    private final boolean breakdown;
+
+    /**
+     * leaf nodes per root move in generation order, empty if the run did not divide
+     */
+    private final Map<String, Long> divide = new LinkedHashMap<>();
+
+    long nodes;
+
+    long captures;
+
+    long auPassants;
+
+    long castles;
+
+    long promotions;
+
+    long checks;
+
+    long checkmates;
+
+    long nanos;
+
+    /**
+     * hits of the perft table so far, 0 without a table
+     */
+    long tableHits;
+
+    PerftResult( int depth, boolean breakdown ) {
+        this.depth = depth;
+        this.breakdown = breakdown;
+    }
+
+    /**
+     * Adds the counts of a subtree, the divide and the time are not added.
+     */
+    void add( PerftResult other ) {
+        this.nodes += other.nodes;
+        this.captures += other.captures;
+        this.auPassants += other.auPassants;
+        this.castles += other.castles;
+        this.promotions += other.promotions;
+        this.checks += other.checks;
+        this.checkmates += other.checkmates;
+    }
+
+    public long getNodesPerSecond() {
+        return this.nanos == 0L ? 0L : ( long ) ( this.nodes * 1_000_000_000d / this.nanos );
+    }
+
+    public double getSeconds() {
+        return this.nanos / 1_000_000_000d;
+    }
+
+    /**
+     * @return the divide lines followed by the totals
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        for ( Map.Entry<String, Long> entry : this.divide.entrySet() ) {
+            builder.append( entry.getKey() ).append( ": " ).append( entry.getValue() ).append( System.lineSeparator() );
+        }
+        builder.append( String.format( "depth %d: %d nodes in %.3fs (%d nps)", this.depth, this.nodes, getSeconds(), getNodesPerSecond() ) );
+        if ( this.tableHits > 0L ) {
+            builder.append( String.format( ", %d table hits", this.tableHits ) );
+        }
+        if ( this.breakdown ) {
+            builder.append( String.format( "%ncaptures %d, au passants %d, castles %d, promotions %d, checks %d, checkmates %d",
+                    this.captures, this.auPassants, this.castles, this.promotions, this.checks, this.checkmates ) );
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,252 @@
+package backend.game.perft;
+
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import lombok.Getter;
+import util.ResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validates the positions of a perft EPD file against their expected leaf counts, like
+ * <pre>
+ * r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ;D1 48 ;D2 2039 ;D3 97862
+ * </pre>
+ * Every position is counted depth by depth up to the max depth. A depth is not started if the time spent on the
+ * position plus the estimated time of the depth exceeds the time budget of the position. The estimate is the time
+ * of the previous depth scaled by the ratio of the expected counts. The first depth is always counted.
+ */
+public class PerftSuite {
+
+    public static final String DEFAULT_SUITE_PATH = "perft/perft_suite.epd";
+
+    private final GameType type;
+
+    private final int maxDepth;
+
+    /**
+     * milliseconds per position, 0 for no budget
+     */
+    private final long budgetMillis;
+
+    private final int threads;
+
+    /**
+     * shared by all positions, null if not hashed
+     */
+    private final PerftTable table;
+
+    /**
+     * @param budgetMillis time budget per position, 0 for no budget
+     * @param threads      more than one thread counts with a {@link ParallelPerft}
+     * @param table        cached subtree counts shared by all positions, may be null
+     */
+    public PerftSuite( GameType type, int maxDepth, long budgetMillis, int threads, PerftTable table ) {
+        this.type = type;
+        this.maxDepth = maxDepth;
+        this.budgetMillis = budgetMillis;
+        this.threads = Math.max( 1, threads );
+        this.table = table;
+    }
+
+    /**
+     * @return the positions of the lines, empty lines and lines starting with # are skipped
+     */
+    public static List<Position> parse( List<String> lines ) {
+        List<Position> positions = new ArrayList<>();
+        for ( String line : lines ) {
+            String trimmed = line.trim();
+            if ( trimmed.isEmpty() || trimmed.startsWith( "#" ) ) {
+                continue;
+            }
+            positions.add( Position.parse( trimmed ) );
+        }
+        return positions;
+    }
+
+    public static List<Position> read( Path path ) {
+        try {
+            return parse( Files.readAllLines( path ) );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    public static List<Position> readResource( String path ) {
+        List<String> lines = ResourceLoader.getTextFile( path );
+        if ( lines.isEmpty() ) {
+            throw new IllegalArgumentException( "no perft suite at " + path );
+        }
+        return parse( lines );
+    }
+
+    public PerftSuiteReport run( List<Position> positions ) {
+        List<PositionResult> results = new ArrayList<>( positions.size() );
+        for ( Position position : positions ) {
+            results.add( run( position ) );
+        }
+        return new PerftSuiteReport( this.type, this.maxDepth, this.budgetMillis, this.threads, results );
+    }
+
+    public PositionResult run( Position position ) {
+        PositionResult result = new PositionResult( position );
+        Game game = Game.getInstance( new GameConfig( position.getFen() ), this.type );
+        Perft perft = new Perft( game, this.table );
+        ParallelPerft parallelPerft = new ParallelPerft( game, this.table, ParallelPerft.DEFAULT_SPLIT_DEPTH );
+        long budgetNanos = this.budgetMillis * 1_000_000L;
+        for ( int depth = 1; depth <= Math.min( this.maxDepth, position.getMaxDepth() ); depth++ ) {
+            long expected = position.getExpected( depth );
+            if ( expected < 0L ) {
+                continue;
+            }
+            if ( budgetNanos > 0L && !result.getDepths().isEmpty() ) {
+                DepthResult last = result.getDepths().get( result.getDepths().size() - 1 );
+                double estimate = last.getNanos() * ( double ) expected / Math.max( 1L, last.getExpected() );
+                if ( result.getNanos() + estimate > budgetNanos ) {
+                    result.budgetExceeded = true;
+                    break;
+                }
+            }
+            PerftResult counted = this.threads > 1
+                    ? parallelPerft.run( depth, this.threads, false, false )
+                    : perft.run( depth, false, false );
+            result.add( new DepthResult( depth, expected, counted.getNodes(), counted.getNanos() ) );
+        }
+        return result;
+    }
+
+    /**
+     * Line of an EPD file, the fen and the expected leaf counts by depth.
+     */
+    @Getter
+    public static class Position {
+
+        private final String fen;
+
+        /**
+         * [depth] expected leaf count, -1 if not given
+         */
+        private final long[] expected;
+
+        public Position( String fen, long[] expected ) {
+            this.fen = fen;
+            this.expected = expected;
+        }
+
+        /**
+         * Parses the fen followed by ;D&lt;depth&gt; &lt;count&gt; operations, other operations are ignored.
+         */
+        public static Position parse( String line ) {
+            String[] parts = line.split( ";" );
+            List<long[]> counts = new ArrayList<>();
+            int maxDepth = 0;
+            for ( int i = 1; i < parts.length; i++ ) {
+                String[] operation = parts[i].trim().split( "\\s+" );
+                if ( operation.length == 2 && operation[0].matches( "D\\d+" ) ) {
+                    int depth = Integer.parseInt( operation[0].substring( 1 ) );
+                    counts.add( new long[]{ depth, Long.parseLong( operation[1] ) } );
+                    maxDepth = Math.max( maxDepth, depth );
+                }
+            }
+            long[] expected = new long[maxDepth + 1];
+            Arrays.fill( expected, -1L );
+            expected[0] = 1L;
+            for ( long[] count : counts ) {
+                expected[( int ) count[0]] = count[1];
+            }
+            return new Position( parts[0].trim(), expected );
+        }
+
+        public int getMaxDepth() {
+            return this.expected.length - 1;
+        }
+
+        public long getExpected( int depth ) {
+            return depth < this.expected.length ? this.expected[depth] : -1L;
+        }
+
+    }
+
+    @Getter
+    public static class DepthResult {
+
+        private final int depth;
+
+        private final long expected;
+
+        private final long nodes;
+
+        private final long nanos;
+
+        DepthResult( int depth, long expected, long nodes, long nanos ) {
+            this.depth = depth;
+            this.expected = expected;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public boolean isPassed() {
+            return this.nodes == this.expected;
+        }
+
+    }
+
+    /**
+     * Counted depths of a position, it passes if every counted depth matches its expected count.
+     */
+    @Getter
+    public static class PositionResult {
+
+        private final Position position;
+
+        private final List<DepthResult> depths = new ArrayList<>();
+
+        private long nodes;
+
+        private long nanos;
+
+        /**
+         * true if a depth up to the max depth was skipped for the time budget
+         */
+        private boolean budgetExceeded;
+
+        PositionResult( Position position ) {
+            this.position = position;
+        }
+
+        void add( DepthResult depth ) {
+            this.depths.add( depth );
+            this.nodes += depth.getNodes();
+            this.nanos += depth.getNanos();
+        }
+
+        public boolean isPassed() {
+            return this.depths.stream().allMatch( DepthResult::isPassed );
+        }
+
+        /**
+         * @return the deepest counted depth, 0 if none was counted
+         */
+        public int getDepth() {
+            return this.depths.isEmpty() ? 0 : this.depths.get( this.depths.size() - 1 ).getDepth();
+        }
+
+        public List<DepthResult> getDepths() {
+            return Collections.unmodifiableList( this.depths );
+        }
+
+        public long getNodesPerSecond() {
+            return this.nanos == 0L ? 0L : ( long ) ( this.nodes * 1_000_000_000d / this.nanos );
+        }
+
+    }
+
+}
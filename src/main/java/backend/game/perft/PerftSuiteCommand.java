@@ -0,0 +1,65 @@
+package backend.game.perft;
+
+import backend.core.values.GameType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command line entry of {@link PerftSuite}, prints a line per position and the aggregate throughput.
+ * <pre>
+ * PerftSuiteCommand [--type MODULE_BASED|BITBOARD] [--depth n] [--budget millis] [--hash megabytes] [--threads n] [--json file] [epd]
+ * </pre>
+ * The suite of the resources is used without an EPD file. With a json file the report is also written as json.
+ * The process exits with 1 if a position failed.
+ */
+public class PerftSuiteCommand {
+
+    public static void main( String[] args ) {
+        GameType type = GameType.BITBOARD;
+        int depth = 4;
+        long budgetMillis = 0L;
+        int hashMegabytes = 0;
+        int threads = 1;
+        String json = null;
+        String epd = null;
+
+        for ( int i = 0; i < args.length; i++ ) {
+            switch ( args[i] ) {
+                case "--type" -> type = GameType.valueOf( args[++i].toUpperCase() );
+                case "--depth" -> depth = Integer.parseInt( args[++i] );
+                case "--budget" -> budgetMillis = Long.parseLong( args[++i] );
+                case "--hash" -> hashMegabytes = Integer.parseInt( args[++i] );
+                case "--threads" -> threads = Integer.parseInt( args[++i] );
+                case "--json" -> json = args[++i];
+                case "--help" -> {
+                    System.out.println( "usage: PerftSuiteCommand [--type MODULE_BASED|BITBOARD] [--depth n] [--budget millis] [--hash megabytes] [--threads n] [--json file] [epd]" );
+                    return;
+                }
+                default -> epd = args[i];
+            }
+        }
+
+        List<PerftSuite.Position> positions = epd == null
+                ? PerftSuite.readResource( PerftSuite.DEFAULT_SUITE_PATH )
+                : PerftSuite.read( Path.of( epd ) );
+        PerftTable table = hashMegabytes > 0 ? PerftTable.ofMegabytes( hashMegabytes ) : null;
+        PerftSuiteReport report = new PerftSuite( type, depth, budgetMillis, threads, table ).run( positions );
+        System.out.println( report.format() );
+
+        if ( json != null ) {
+            try {
+                Files.writeString( Path.of( json ), report.toJson() );
+            } catch ( IOException e ) {
+                throw new UncheckedIOException( e );
+            }
+        }
+        if ( !report.isPassed() ) {
+            System.exit( 1 );
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package backend.game.perft;
+
+import backend.core.values.GameType;
+import backend.game.perft.PerftSuite.DepthResult;
+import backend.game.perft.PerftSuite.PositionResult;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Results of a {@link PerftSuite} run, per position and in aggregate. The aggregate throughput is the sum of the
+ * counted nodes over the sum of the counting time of all positions.
+ */
+@Getter
+public class PerftSuiteReport {
+
+    private final GameType type;
+
+    private final int maxDepth;
+
+    private final long budgetMillis;
+
+    private final int threads;
+
+    private final List<PositionResult> positions;
+
+    PerftSuiteReport( GameType type, int maxDepth, long budgetMillis, int threads, List<PositionResult> positions ) {
+        this.type = type;
+        this.maxDepth = maxDepth;
+        this.budgetMillis = budgetMillis;
+        this.threads = threads;
+        this.positions = positions;
+    }
+
+    public boolean isPassed() {
+        return this.positions.stream().allMatch( PositionResult::isPassed );
+    }
+
+    public int getPassedCount() {
+        return ( int ) this.positions.stream().filter( PositionResult::isPassed ).count();
+    }
+
+    public int getFailedCount() {
+        return this.positions.size() - getPassedCount();
+    }
+
+    public long getNodes() {
+        return this.positions.stream().mapToLong( PositionResult::getNodes ).sum();
+    }
+
+    public long getNanos() {
+        return this.positions.stream().mapToLong( PositionResult::getNanos ).sum();
+    }
+
+    public long getNodesPerSecond() {
+        long nanos = getNanos();
+        return nanos == 0L ? 0L : ( long ) ( getNodes() * 1_000_000_000d / nanos );
+    }
+
+    /**
+     * @return one line per position, failed depths are listed with their expected and counted nodes
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < this.positions.size(); i++ ) {
+            PositionResult position = this.positions.get( i );
+            builder.append( String.format( "#%d %s depth %d: %d nodes in %.3fs (%d nps)%s %s%n",
+                    i + 1, position.isPassed() ? "pass" : "FAIL", position.getDepth(), position.getNodes(),
+                    position.getNanos() / 1_000_000_000d, position.getNodesPerSecond(),
+                    position.isBudgetExceeded() ? ", budget exceeded" : "", position.getPosition().getFen() ) );
+            for ( DepthResult depth : position.getDepths() ) {
+                if ( !depth.isPassed() ) {
+                    builder.append( String.format( "    depth %d: expected %d, counted %d%n", depth.getDepth(), depth.getExpected(), depth.getNodes() ) );
+                }
+            }
+        }
+        builder.append( String.format( "%d passed, %d failed, %d nodes in %.3fs (%d nps)",
+                getPassedCount(), getFailedCount(), getNodes(), getNanos() / 1_000_000_000d, getNodesPerSecond() ) );
+        return builder.toString();
+    }
+
+    /**
+     * @return the report as json, the settings, every position with its counted depths and the aggregate
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append( "{\n" );
+        builder.append( String.format( "  \"type\": \"%s\",\n  \"maxDepth\": %d,\n  \"budgetMillis\": %d,\n  \"threads\": %d,\n",
+                this.type, this.maxDepth, this.budgetMillis, this.threads ) );
+        builder.append( "  \"positions\": [" );
+        for ( int i = 0; i < this.positions.size(); i++ ) {
+            PositionResult position = this.positions.get( i );
+            builder.append( i == 0 ? "\n" : ",\n" );
+            builder.append( String.format( "    {\"fen\": \"%s\", \"passed\": %b, \"depth\": %d, \"budgetExceeded\": %b, \"nodes\": %d, \"nanos\": %d, \"nps\": %d, \"depths\": [",
+                    escape( position.getPosition().getFen() ), position.isPassed(), position.getDepth(), position.isBudgetExceeded(),
+                    position.getNodes(), position.getNanos(), position.getNodesPerSecond() ) );
+            List<DepthResult> depths = position.getDepths();
+            for ( int d = 0; d < depths.size(); d++ ) {
+                DepthResult depth = depths.get( d );
+                builder.append( d == 0 ? "" : ", " );
+                builder.append( String.format( "{\"depth\": %d, \"expected\": %d, \"nodes\": %d, \"nanos\": %d, \"passed\": %b}",
+                        depth.getDepth(), depth.getExpected(), depth.getNodes(), depth.getNanos(), depth.isPassed() ) );
+            }
+            builder.append( "]}" );
+        }
+        builder.append( this.positions.isEmpty() ? "],\n" : "\n  ],\n" );
+        builder.append( String.format( "  \"passed\": %d,\n  \"failed\": %d,\n  \"nodes\": %d,\n  \"nanos\": %d,\n  \"nps\": %d\n}",
+                getPassedCount(), getFailedCount(), getNodes(), getNanos(), getNodesPerSecond() ) );
+        return builder.toString();
+    }
+
+    private static String escape( String value ) {
+        return value.replace( "\\", "\\\\" ).replace( "\"", "\\\"" );
+    }
+
+}
@@ -0,0 +1,95 @@
+package backend.game.perft;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size transposition table of perft, maps the zobrist hash of a position and the remaining depth to the leaf
+ * count below it. The size is the largest power of two of entries within the memory budget, an entry is replaced
+ * by every later store to its slot.
+ * The table can be shared by threads without locking, the hash is stored xor the entry, so an entry torn by a
+ * concurrent store does not verify and is a miss. The hit counters are only approximate then.
+ */
+public class PerftTable {
+
+    /**
+     * bytes of an entry, the hash and the packed count and depth
+     */
+    public static final int ENTRY_BYTES = 16;
+
+    private static final int DEPTH_BITS = 8;
+
+    /**
+     * hash ^ entry
+     */
+    private final long[] hashes;
+
+    /**
+     * nodes << DEPTH_BITS | depth, 0 if empty
+     */
+    private final long[] entries;
+
+    private final int mask;
+
+    private long hits;
+
+    private long probes;
+
+    /**
+     * @param bytes memory budget, at least one entry is allocated
+     */
+    public PerftTable( long bytes ) {
+        long count = Long.highestOneBit( Math.max( 1L, Math.min( bytes / ENTRY_BYTES, 1L << 30 ) ) );
+        this.hashes = new long[( int ) count];
+        this.entries = new long[( int ) count];
+        this.mask = ( int ) count - 1;
+    }
+
+    public static PerftTable ofMegabytes( int megabytes ) {
+        return new PerftTable( ( long ) megabytes << 20 );
+    }
+
+    /**
+     * @return the leaf count or -1 if the position and depth are not stored
+     */
+    public long get( long hash, int depth ) {
+        this.probes++;
+        int slot = slot( hash, depth );
+        long entry = this.entries[slot];
+        if ( entry != 0L && ( this.hashes[slot] ^ entry ) == hash && ( int ) ( entry & ( ( 1 << DEPTH_BITS ) - 1 ) ) == depth ) {
+            this.hits++;
+            return entry >>> DEPTH_BITS;
+        }
+        return -1L;
+    }
+
+    public void put( long hash, int depth, long nodes ) {
+        int slot = slot( hash, depth );
+        long entry = nodes << DEPTH_BITS | depth;
+        this.hashes[slot] = hash ^ entry;
+        this.entries[slot] = entry;
+    }
+
+    public void clear() {
+        Arrays.fill( this.entries, 0L );
+        this.hits = 0L;
+        this.probes = 0L;
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getProbes() {
+        return this.probes;
+    }
+
+    private int slot( long hash, int depth ) {
+        long mixed = hash ^ ( depth * 0x9E3779B97F4A7C15L );
+        return ( int ) ( mixed ^ ( mixed >>> 32 ) ) & this.mask;
+    }
+
+}
@@ -15,6 +15,7 @@ import backend.core.values.PlayerType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
 import backend.game.GameListener;
+import backend.game.GameSnapshot;
 import backend.game.Player;
 import math.Color;
 import math.Vector2I;
@@ -28,7 +29,13 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * The game is only read and changed by one owner thread, moves of the mouse and of the bots, the evaluation and the
+ * notation run on it. The event dispatch thread draws the published {@link GameSnapshot} and never touches the game.
+ */
 public class GameView implements GameListener {
 
     private static final Map<ActionType, Color> actionColors = Map.of(
@@ -44,11 +51,17 @@ public class GameView implements GameListener {
 
     private final Game game;
 
-    private Player whitePlayer;
+    private final ExecutorService owner = Executors.newSingleThreadExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "game-owner" );
+        thread.setDaemon( true );
+        return thread;
+    } );
 
-    private Player blackPlayer;
+    private volatile Player whitePlayer;
 
-    private String notation;
+    private volatile Player blackPlayer;
+
+    private volatile String notation;
 
     private PieceType promotionMode;
 
@@ -86,6 +99,9 @@ public class GameView implements GameListener {
 
     private boolean onDrag;
 
+    /**
+     * move preview of the selected piece, only read and replaced on the event dispatch thread
+     */
     private Map<Vector2I, Validation> validation;
 
     public GameView( Game game, int boardSize, int windowW, int windowH ) {
@@ -119,23 +135,23 @@ public class GameView implements GameListener {
         this.notationProcessor = new AlgebraicNotation();
         setupFrame();
 
-        this.game.emitEvent();
+        this.owner.execute( this.game::emitEvent );
     }
 
+    /**
+     * Called on the owner thread, the bot on move is queued behind the current change.
+     */
     @Override
     public void gameUpdated( Game game ) {
+        // resolves the status of the last move, which publishes the complete snapshot
+        game.isFinished();
         Log.info( "Evaluation is {}", new PiecePointChessEvaluator().evaluate( game, TeamColor.WHITE ) );
-        this.notation = notationProcessor.write( game );
-        final Player onMove = this.whitePlayer.isOnMove( game )
-                ? this.whitePlayer
-                : this.blackPlayer;
-        new SwingWorker<>() {
-            @Override
-            protected Game doInBackground() {
-                onMove.makeMove( game );
-                return game;
-            }
-        }.execute();
+        this.notation = this.notationProcessor.write( game );
+        this.owner.execute( () -> playerOnMove().makeMove( game ) );
+    }
+
+    private Player playerOnMove() {
+        return this.whitePlayer.isOnMove( this.game ) ? this.whitePlayer : this.blackPlayer;
     }
 
     private void setupFrame() {
@@ -164,10 +180,19 @@ public class GameView implements GameListener {
 
             @Override
             public void mousePressed( MouseEvent e ) {
-                selectedPos = pixelToPosition( e.getX(), e.getY() );
-                if ( selectedPos != null && !game.isOutOfBounds( selectedPos ) ) {
+                Vector2I pressed = pixelToPosition( e.getX(), e.getY() );
+                selectedPos = pressed;
+                if ( game.getSnapshot().isOnBoard( pressed ) ) {
                     if ( showMovePreview ) {
-                        game.validate( selectedPos ).forEach( v -> validation.put( v.getMove().getTo(), v ) );
+                        owner.execute( () -> {
+                            Map<Vector2I, Validation> preview = new HashMap<>();
+                            game.validate( pressed ).forEach( v -> preview.put( v.getMove().getTo(), v ) );
+                            SwingUtilities.invokeLater( () -> {
+                                if ( onDrag && pressed.equals( selectedPos ) ) {
+                                    validation = preview;
+                                }
+                            } );
+                        } );
                     }
                     onDrag = true;
                 }
@@ -176,15 +201,16 @@ public class GameView implements GameListener {
             @Override
             public void mouseReleased( MouseEvent e ) {
                 Vector2I pos = pixelToPosition( e.getX(), e.getY() );
-                if ( selectedPos != null && !game.isOutOfBounds( pos ) ) {
-                    Player playerOnMove = game.isOnMove( TeamColor.WHITE ) ? whitePlayer : blackPlayer;
-                    if ( playerOnMove.isHuman() ) {
-                        Move move = new Move( selectedPos, pos, promotionMode );
-                        game.makeMove( move );
-                    }
+                if ( selectedPos != null && game.getSnapshot().isOnBoard( pos ) ) {
+                    Move move = new Move( selectedPos, pos, promotionMode );
+                    owner.execute( () -> {
+                        if ( playerOnMove().isHuman() ) {
+                            game.makeMove( move );
+                        }
+                    } );
                 }
                 selectedPos = null;
-                validation.clear();
+                validation = new HashMap<>();
                 onDrag = false;
             }
         } );
@@ -254,12 +280,12 @@ public class GameView implements GameListener {
         infoPanel.add( moveInfoScroll );
 
         JButton notationSwitchButton = new JButton( "Switch notation" );
-        notationSwitchButton.addActionListener( e -> {
+        notationSwitchButton.addActionListener( e -> this.owner.execute( () -> {
             this.notationProcessor = this.notationProcessor instanceof AlgebraicNotation
                     ? new FenNotation()
                     : new AlgebraicNotation();
-            this.notation = notationProcessor.write( game );
-        } );
+            this.notation = this.notationProcessor.write( this.game );
+        } ) );
         infoPanel.add( notationSwitchButton );
 
         JButton copyHistoryButton = new JButton( "Copy" );
@@ -268,25 +294,25 @@ public class GameView implements GameListener {
 
         JButton parseButton = new JButton( "Parse" );
         parseButton.addActionListener( a -> {
-            try {
-                game.setGame( this.notation, this.notationProcessor );
-            } catch ( NotationParsingException e ) {
-                this.notation = notationProcessor.write( game );
-            }
-
+            String parsed = this.notation;
+            this.owner.execute( () -> {
+                try {
+                    this.game.setGame( parsed, this.notationProcessor );
+                } catch ( NotationParsingException e ) {
+                    this.notation = this.notationProcessor.write( this.game );
+                }
+            } );
         } );
         infoPanel.add( parseButton );
 
         JButton backButton = new JButton( "Go Back" );
-        backButton.addActionListener( e -> {
-            this.game.undoLastMove();
-        } );
+        backButton.addActionListener( e -> this.owner.execute( this.game::undoLastMove ) );
         infoPanel.add( backButton );
 
         JButton resetButton = new JButton( "Reset" );
         resetButton.addActionListener( e -> {
-            this.game.reset();
-            this.validation.clear();
+            this.owner.execute( this.game::reset );
+            this.validation = new HashMap<>();
             this.onDrag = false;
         } );
         infoPanel.add( resetButton );
@@ -316,7 +342,7 @@ public class GameView implements GameListener {
         whitePlayerSelect.setSelectedItem( this.whitePlayer.getType() );
         whitePlayerSelect.addActionListener( e -> {
             this.whitePlayer = new Player( TeamColor.WHITE, ( PlayerType ) whitePlayerSelect.getSelectedItem() );
-            this.gameUpdated( this.game );
+            this.owner.execute( () -> playerOnMove().makeMove( this.game ) );
         } );
         whitePlayerSelectPanel.add( whitePlayerSelect );
         infoPanel.add( whitePlayerSelectPanel );
@@ -328,7 +354,7 @@ public class GameView implements GameListener {
         blackPlayerSelect.setSelectedItem( this.blackPlayer.getType() );
         blackPlayerSelect.addActionListener( e -> {
             this.blackPlayer = new Player( TeamColor.BLACK, ( PlayerType ) blackPlayerSelect.getSelectedItem() );
-            this.gameUpdated( this.game );
+            this.owner.execute( () -> playerOnMove().makeMove( this.game ) );
         } );
         blackPlayerSelectPanel.add( blackPlayerSelect );
         infoPanel.add( blackPlayerSelectPanel );
@@ -350,7 +376,7 @@ public class GameView implements GameListener {
     public Vector2I pixelToPosition( int x, int y ) {
         int posX = ( x - this.xOff ) / this.posSize;
         int posY = ( y - ( this.yOff + 7 ) ) / this.posSize;
-        return new Vector2I( posX, this.game.getBoardSize() - 1 - posY );
+        return new Vector2I( posX, this.game.getSnapshot().getBoardSize() - 1 - posY );
     }
 
     public Vector2I positionToPixel( int x, int y ) {
@@ -365,6 +391,7 @@ public class GameView implements GameListener {
         protected void paintComponent( Graphics g ) {
 
             super.paintComponent( g );
+            GameSnapshot snapshot = game.getSnapshot();
             Graphics2D g2d = ( Graphics2D ) g;
             g2d.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF );
 
@@ -373,11 +400,11 @@ public class GameView implements GameListener {
             g.fillRect( 0, 0, windowW, windowH );
 
             // Draw Positions
-            for ( int i = 0; i < game.getBoardSize(); i++ ) {
-                for ( int j = 0; j < game.getBoardSize(); j++ ) {
+            for ( int i = 0; i < snapshot.getBoardSize(); i++ ) {
+                for ( int j = 0; j < snapshot.getBoardSize(); j++ ) {
 
                     Vector2I p = positionToPixel( i, j );
-                    Vector2I pos = new Vector2I( i, game.getBoardSize() - 1 - j );
+                    Vector2I pos = new Vector2I( i, snapshot.getBoardSize() - 1 - j );
 
                     Color posColor = ( i + j ) % 2 != 0 ? Color.DARK_GREY : Color.LIGHT_GREY;
 
@@ -386,8 +413,8 @@ public class GameView implements GameListener {
                         posColor = posColor.blend( new Color( Color.BLUE, 0.2f ) );
                     }
 
-                    if ( !onDrag && game.getLastMove() != null ) {
-                        MoveHistory lastMove = game.getLastMove();
+                    if ( !onDrag && snapshot.getLastMove() != null ) {
+                        MoveHistory lastMove = snapshot.getLastMove();
                         if ( pos.equals( lastMove.getMove().getFrom() ) ) {
                             posColor = posColor.blend( new Color( Color.BLUE, 0.2f ) );
                         }
@@ -397,34 +424,35 @@ public class GameView implements GameListener {
                     }
 
                     // draw move preview
-                    if ( showMovePreview && game.isLegal( validation, pos ) ) {
+                    Validation preview = validation.get( pos );
+                    if ( showMovePreview && preview != null && preview.hasAction() && preview.isLegal() ) {
 
                         Color actionColor = new Color( Color.BLACK, 0f );
 
-                        if ( game.hasAction( validation, pos, ActionType.MOVE ) ) {
+                        if ( preview.hasAction( ActionType.MOVE ) ) {
                             actionColor = new Color( actionColors.get( ActionType.MOVE ), 0.2f );
                         }
 
-                        if ( game.hasAction( validation, pos, ActionType.CAPTURE ) ) {
+                        if ( preview.hasAction( ActionType.CAPTURE ) ) {
                             actionColor = new Color( actionColors.get( ActionType.CAPTURE ), 0.2f );
                         }
 
-                        if ( game.hasAction( validation, pos, ActionType.CAPTURE_AU_PASSANT ) ) {
+                        if ( preview.hasAction( ActionType.CAPTURE_AU_PASSANT ) ) {
                             actionColor = new Color( actionColors.get( ActionType.CAPTURE_AU_PASSANT ), 0.2f );
                         }
 
-                        if ( game.hasAction( validation, pos, ActionType.CHECK ) ) {
+                        if ( preview.hasAction( ActionType.CHECK ) ) {
                             actionColor = new Color( actionColors.get( ActionType.CHECK ), 0.2f );
                         }
 
                         posColor = posColor.blend( actionColor );
                     }
 
-                    if ( !onDrag && showAttacked && game.isAttacked( pos ) ) {
+                    if ( !onDrag && showAttacked && snapshot.isAttacked( pos ) ) {
                         posColor = posColor.blend( new Color( Color.RED, 0.2f ) );
                     }
 
-                    if ( !onDrag && showPined && game.isPined( pos ) ) {
+                    if ( !onDrag && showPined && snapshot.isPined( pos ) ) {
                         posColor = posColor.blend( new Color( Color.PINK, 0.2f ) );
                     }
 
@@ -435,28 +463,28 @@ public class GameView implements GameListener {
 
             // Draw Cell Description
             g.setColor( java.awt.Color.black );
-            for ( int j = 0; j < game.getBoardSize(); j++ ) {
-                for ( int i = 0; i < game.getBoardSize(); i++ ) {
+            for ( int j = 0; j < snapshot.getBoardSize(); j++ ) {
+                for ( int i = 0; i < snapshot.getBoardSize(); i++ ) {
                     Vector2I p = positionToPixel( i, j );
-                    Vector2I boardPos = new Vector2I( i, game.getBoardSize() - 1 - j );
+                    Vector2I boardPos = new Vector2I( i, snapshot.getBoardSize() - 1 - j );
                     if ( i == 0 ) {
                         g.drawString( AlgebraicNotation.getRowCode( boardPos ), p.x - 20, p.y + 15 );
                     }
-                    if ( j == game.getBoardSize() - 1 ) {
+                    if ( j == snapshot.getBoardSize() - 1 ) {
                         g.drawString( AlgebraicNotation.getColCode( boardPos ), p.x + posSize - 15, p.y + posSize + 15 );
                     }
                 }
             }
 
             // Draw Pieces
-            for ( int j = 0; j < game.getBoardSize(); j++ ) {
-                for ( int i = 0; i < game.getBoardSize(); i++ ) {
+            for ( int j = 0; j < snapshot.getBoardSize(); j++ ) {
+                for ( int i = 0; i < snapshot.getBoardSize(); i++ ) {
 
                     Vector2I p = positionToPixel( i, j );
-                    Vector2I boardPos = new Vector2I( i, game.getBoardSize() - 1 - j );
+                    Vector2I boardPos = new Vector2I( i, snapshot.getBoardSize() - 1 - j );
 
                     if ( !onDrag || !selectedPos.equals( boardPos ) ) {
-                        drawPiece( g, p, boardPos );
+                        drawPiece( g, snapshot, p, boardPos );
                     }
                 }
             }
@@ -466,7 +494,7 @@ public class GameView implements GameListener {
                 Point p = this.getMousePosition();
                 int x = p.x - ( posSize / 2 );
                 int y = p.y - ( posSize / 2 );
-                drawPiece( g, new Vector2I( x, y ), selectedPos );
+                drawPiece( g, snapshot, new Vector2I( x, y ), selectedPos );
             }
 
             // Draw Grid Outlines
@@ -476,7 +504,7 @@ public class GameView implements GameListener {
 
             // Set info texts
             moveInfo.setText( notation );
-            gameStateInfo.setText( game.getState().name() );
+            gameStateInfo.setText( snapshot.getState().name() );
 
             fps.update();
             fpsInfo.setText( fps.getPrintableFps() + "FPS" );
@@ -487,8 +515,8 @@ public class GameView implements GameListener {
 
     }
 
-    private void drawPiece( Graphics g, Vector2I p, Vector2I pos ) {
-        Piece piece = game.getPiece( pos );
+    private void drawPiece( Graphics g, GameSnapshot snapshot, Vector2I p, Vector2I pos ) {
+        Piece piece = snapshot.getPiece( pos );
         if ( piece != null && piece.isAlive() ) {
             g.drawImage( this.sprites.getPieceSprite( piece.getType(), piece.getTeam() ), p.x, p.y, null );
         }
@@ -0,0 +1,96 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.MoveGenerator;
+import backend.game.bitboard.BitboardTables;
+import backend.game.modulebased.GameMB;
+import math.Vector2I;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class AttackMapTest {
+
+    @ParameterizedTest( name = "Testing incremental attack map: {index} => placement={0}" )
+    @CsvSource( {
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -', 1",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -', 2",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', 3"
+    } )
+    void testIncrementalAttacks( String placementPattern, long seed ) {
+
+        GameMB game = ( GameMB ) Game.getInstance( new GameConfig( placementPattern ), GameType.MODULE_BASED );
+        Random random = new Random( seed );
+        for ( int ply = 0; ply < 40 && !game.isFinished(); ply++ ) {
+            assertSameAsGenerated( game );
+            List<Move> moves = game.getPossibleMoves( game.getOnMove() );
+            if ( moves.isEmpty() ) {
+                break;
+            }
+            game.makeMove( moves.get( random.nextInt( moves.size() ) ) );
+            if ( random.nextInt( 4 ) == 0 ) {
+                game.undoLastMove();
+                assertSameAsGenerated( game );
+                game.makeMove( moves.get( random.nextInt( moves.size() ) ) );
+            }
+        }
+        assertSameAsGenerated( game.clone() );
+    }
+
+    @ParameterizedTest( name = "Testing au passant targets in the attack mask: {index} => placement={0}" )
+    @CsvSource( {
+            "'4k3/8/8/3pP3/8/8/8/4K3 w - d6'",
+            "'4k3/8/8/8/2PpP3/8/8/4K3 b - c3'",
+            "'4k3/8/8/pP6/8/8/8/4K3 w - a6'",
+            "'4k3/8/8/8/6pP/8/8/4K3 b - h3'"
+    } )
+    void testAuPassantTargets( String placementPattern ) {
+
+        Game game = Game.getInstance( new GameConfig( placementPattern ), GameType.MODULE_BASED );
+        for ( TeamColor color : TeamColor.values() ) {
+            Set<Vector2I> targets = new HashSet<>();
+            Set<Vector2I> generated = new HashSet<>();
+            for ( Vector2I p : game.getSquares().vectors ) {
+                if ( game.isTeam( p, color ) ) {
+                    targets.addAll( MoveGenerator.generateAuPassantMoves( game, p ) );
+                    generated.addAll( MoveGenerator.generateAttackingMoves( game, p ) );
+                }
+            }
+            long mask = MoveGenerator.generateAttackMaskBy( game, color );
+            for ( Vector2I p : game.getSquares().vectors ) {
+                assertEquals( generated.contains( p ), ( mask & BitboardTables.of( game.getBoardSize() ).bit( p.x, p.y ) ) != 0L, p.toString() );
+            }
+            if ( game.isOnMove( color ) ) {
+                assertFalse( targets.isEmpty() );
+            }
+        }
+    }
+
+    private void assertSameAsGenerated( GameMB game ) {
+        Set<Vector2I> attacked = MoveGenerator.generateAttackedPositionsBy( game, game.getEnemy( game.getOnMove() ) );
+        for ( Vector2I p : game.getSquares().vectors ) {
+            assertEquals( attacked.contains( p ), game.isAttacked( p ), p.toString() );
+        }
+        Set<Set<Vector2I>> pins = new HashSet<>();
+        for ( List<Vector2I> ray : MoveGenerator.generatePinedPositionsBy( game, game.getEnemy( game.getOnMove() ) ) ) {
+            if ( !ray.isEmpty() ) {
+                pins.add( new HashSet<>( ray ) );
+            }
+        }
+        Set<Set<Vector2I>> incremental = new HashSet<>();
+        game.getPined().forEach( ray -> incremental.add( new HashSet<>( ray ) ) );
+        assertEquals( pins, incremental );
+    }
+
+}
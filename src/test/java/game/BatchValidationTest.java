@@ -0,0 +1,58 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.model.Piece;
+import backend.core.model.Team;
+import backend.core.model.Validation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BatchValidationTest {
+
+    @DisplayName( "Testing batch validation against validation per piece" )
+    @ParameterizedTest( name = "{index} => placement={0}" )
+    @CsvSource( {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ -",
+            "8/8/8/2k5/4p3/8/3P4/4K3 w - -",
+            "4k3/3q4/8/8/4N3/8/8/K3R3 w - -"
+    } )
+    void testValidateAll( String placementPattern ) {
+
+        Game game = Game.getInstance( new GameConfig( placementPattern ), GameType.MODULE_BASED );
+
+        assertBatch( game );
+        for ( Move move : game.getPossibleMoves( game.getOnMove() ) ) {
+            game.makeMove( move );
+            assertBatch( game );
+            game.undoLastMove();
+        }
+    }
+
+    private void assertBatch( Game game ) {
+        Set<Move> single = new HashSet<>();
+        Team team = game.getTeam( game.getOnMove() );
+        for ( Piece piece : team.getAlive() ) {
+            for ( Validation validation : game.getPossibleValidations( piece ) ) {
+                single.add( validation.getMove() );
+            }
+        }
+        Set<Move> batch = new HashSet<>();
+        for ( Validation validation : game.getPossibleValidations( game.getOnMove() ) ) {
+            batch.add( validation.getMove() );
+        }
+        assertEquals( single, batch );
+        assertEquals( !single.isEmpty(), game.hasLegalMovesLeft( game.getOnMove() ) );
+    }
+
+}
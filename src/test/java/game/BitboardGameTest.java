@@ -0,0 +1,162 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.model.MoveCode;
+import backend.core.model.MoveList;
+import backend.core.values.Dir;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.bitboard.BitboardTables;
+import backend.game.bitboard.GameBB;
+import backend.game.perft.Perft;
+import math.Vector2I;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * https://www.chessprogramming.org/Perft_Results
+ */
+public class BitboardGameTest {
+
+    @Test
+    void testInstance() {
+        GameConfig config = new GameConfig();
+        assertTrue( Game.getInstance( config, GameType.BITBOARD ) instanceof GameBB );
+
+        config.setType( GameType.BITBOARD );
+        assertTrue( Game.getInstance( config ) instanceof GameBB );
+    }
+
+    @ParameterizedTest( name = "Testing bitboard perft: {index} => placement={0} depth={1}" )
+    @CsvSource( {
+            "'rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1', 4, 197281",
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -', 4, 4085603",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -', 5, 674624",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', 4, 422333",
+            "'rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8', 4, 2103487",
+            "'r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10', 4, 3894594"
+    } )
+    void testPerft( String placementPattern, int depth, long nodes ) {
+
+        GameConfig config = new GameConfig( placementPattern );
+        Game game = Game.getInstance( config, GameType.BITBOARD );
+
+        assertEquals( nodes, new Perft( game ).count( depth ) );
+    }
+
+    @Test
+    void testUndo() {
+
+        GameConfig config = new GameConfig( "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -" );
+        Game game = Game.getInstance( config, GameType.BITBOARD );
+
+        game.makeMove( game.getPossibleMoves( TeamColor.WHITE ).get( 0 ) );
+        game.makeMove( game.getPossibleMoves( TeamColor.BLACK ).get( 0 ) );
+        game.undoLastMove();
+        game.undoLastMove();
+
+        assertTrue( game.getHistory().isEmpty() );
+        assertTrue( game.isOnMove( TeamColor.WHITE ) );
+        assertEquals( 48, game.getPossibleMoves( TeamColor.WHITE ).size() );
+        assertFalse( game.isFinished() );
+    }
+
+    @ParameterizedTest( name = "Testing packed move history: seed={0}" )
+    @ValueSource( ints = { 1, 2, 3 } )
+    void testPackedMoveHistory( int seed ) {
+
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -";
+        Game bitboard = Game.getInstance( new GameConfig( fen ), GameType.BITBOARD );
+        Game moduleBased = Game.getInstance( new GameConfig( fen ), GameType.MODULE_BASED );
+        Random random = new Random( seed );
+        MoveList moves = new MoveList();
+
+        for ( int ply = 0; ply < 80 && !bitboard.isFinished(); ply++ ) {
+            moves.clear();
+            bitboard.generateMoves( moves );
+            int move = moves.get( random.nextInt( moves.size() ) );
+            assertTrue( moduleBased.makeMove( bitboard.toMove( move ) ) );
+            assertTrue( bitboard.makeMove( move ) );
+            if ( ply % 7 == 0 ) {
+                assertEquals( moduleBased.getLastMove(), bitboard.getLastMove() );
+            }
+            if ( ply % 5 == 0 ) {
+                bitboard.undoLastMove();
+                moduleBased.undoLastMove();
+                assertTrue( bitboard.makeMove( move ) );
+                assertTrue( moduleBased.makeMove( bitboard.toMove( move ) ) );
+            }
+        }
+
+        assertEquals( moduleBased.getState(), bitboard.getState() );
+        assertEquals( moduleBased.getHistory(), bitboard.getHistory() );
+        assertEquals( moduleBased.getHalfMoveRuleCount(), bitboard.getHalfMoveRuleCount() );
+        assertEquals( moduleBased.getMoveNumber(), bitboard.getMoveNumber() );
+    }
+
+    @Test
+    void testPackedMoveIntoCheck() {
+
+        Game game = Game.getInstance( new GameConfig( "4k3/8/8/8/8/8/4r3/4K3 w - -" ), GameType.BITBOARD );
+        MoveList moves = new MoveList();
+        game.generatePseudoLegalMoves( moves );
+        int intoCheck = MoveCode.NONE;
+        for ( int i = 0; i < moves.size(); i++ ) {
+            Move move = game.toMove( moves.get( i ) );
+            if ( move.getFrom().equals( new Vector2I( 4, 0 ) ) && move.getTo().equals( new Vector2I( 3, 1 ) ) ) {
+                intoCheck = moves.get( i );
+            }
+        }
+
+        // Ke1-d2 stays on the rank of the rook
+        assertNotEquals( MoveCode.NONE, intoCheck );
+        assertFalse( game.makeMove( intoCheck ) );
+        assertTrue( game.isOnMove( TeamColor.WHITE ) );
+        assertTrue( game.getHistory().isEmpty() );
+    }
+
+    @Test
+    void testPackedMoveOfOtherSide() {
+
+        Game game = Game.getInstance( new GameConfig(), GameType.BITBOARD );
+        MoveList moves = new MoveList();
+        game.generateMoves( moves );
+        assertTrue( game.makeMove( moves.get( 0 ) ) );
+        assertFalse( game.makeMove( moves.get( 0 ) ) );
+        assertTrue( game.isOnMove( TeamColor.BLACK ) );
+    }
+
+    @ParameterizedTest( name = "Testing magic slider tables: size={0}" )
+    @ValueSource( ints = { 1, 3, 5, 8 } )
+    void testSliderTables( int size ) {
+
+        BitboardTables tables = BitboardTables.of( size );
+        Random random = new Random( size );
+        for ( int sq = 0; sq < tables.squares; sq++ ) {
+            for ( int i = 0; i < 200; i++ ) {
+                long occupied = random.nextLong() & random.nextLong() & tables.boardMask;
+                long rook = 0L;
+                long bishop = 0L;
+                for ( Dir dir : Dir.values() ) {
+                    long ray = tables.rayAttacks( dir.ordinal(), sq, occupied );
+                    if ( dir.vector.x == 0 || dir.vector.y == 0 ) {
+                        rook |= ray;
+                    } else {
+                        bishop |= ray;
+                    }
+                }
+                assertEquals( rook, tables.rookAttacks( sq, occupied ) );
+                assertEquals( bishop, tables.bishopAttacks( sq, occupied ) );
+            }
+        }
+    }
+
+}
@@ -1,19 +1,22 @@
 package game;
 
+import backend.core.values.GameType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
 import backend.game.GameConfig;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CheckTest {
 
-    @Test
-    void testSimpleCheck() {
+    @ParameterizedTest( name = "Testing simple check: {index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testSimpleCheck( GameType type ) {
 
         GameConfig config = new GameConfig( "k3/4/4/R2K w - -" );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         assertTrue( game.isCheckFor( TeamColor.BLACK ) );
     }
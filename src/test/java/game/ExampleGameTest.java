@@ -3,15 +3,19 @@ package game;
 import backend.core.notation.AlgebraicNotation;
 import backend.core.notation.ChessNotation;
 import backend.core.notation.FenNotation;
+import backend.core.values.GameType;
 import backend.game.Game;
-import org.junit.jupiter.api.Test;
+import backend.game.GameConfig;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ExampleGameTest {
 
-    @Test
-    void testGame() {
+    @ParameterizedTest( name = "Testing example game: {index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testGame( GameType type ) {
 
         //https://www.chess.com/games/view/616315
         final String notation = "1. d4 d5 2. c4 e6 3. Nc3 Be7 4. cxd5 exd5 5. Bf4 Nf6 6. e3 Bf5 7. Nge2 O-O \n" +
@@ -34,8 +38,8 @@ public class ExampleGameTest {
                 "Rf4+ Kg6 113. Kd6 Kg5 114. Ke5 Kg6 115. Rf3 Kg7 116. Rf6 Bc4 117. Kf5 Bb3 118.\n" +
                 "Kg5 Bc2 1/2-1/2";
 
-        ChessNotation notationProcessor = new AlgebraicNotation();
-        Game game = notationProcessor.read( notation );
+        Game game = Game.getInstance( new GameConfig(), type );
+        AlgebraicNotation.applyMoves( game, notation );
 
         ChessNotation positionProcessor = new FenNotation();
         String should = "8/6k1/5R2/6K1/p7/P7/2b5/8 w - -";
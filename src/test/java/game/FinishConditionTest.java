@@ -1,12 +1,20 @@
 package game;
 
+import backend.core.model.Move;
+import backend.core.model.MoveHistory;
+import backend.core.notation.FenNotation;
+import backend.core.values.ActionType;
+import backend.core.values.GameState;
+import backend.core.values.GameType;
 import backend.core.values.TeamColor;
 import backend.game.Game;
 import backend.game.GameConfig;
+import math.Vector2I;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -42,5 +50,123 @@ public class FinishConditionTest {
         assertTrue( game.isStalemateFor( TeamColor.BLACK ) );
     }
 
+    @DisplayName( "Testing lazily resolved checkmate after a move" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @CsvSource( {
+            "MODULE_BASED",
+            "BITBOARD"
+    } )
+    void testLazyCheckmate( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig( "k3/3R/4/2QK w - -" ), type );
+
+        Move mate = null;
+        for ( Move move : game.getPossibleMoves( TeamColor.WHITE ) ) {
+            game.makeMove( move );
+            boolean isMate = game.isCheckmateFor( TeamColor.BLACK );
+            game.undoLastMove();
+            if ( isMate ) {
+                mate = move;
+                break;
+            }
+        }
+
+        assertTrue( mate != null );
+        assertTrue( game.makeMove( mate ) );
+        assertFalse( game.isDecided() );
+        assertEquals( GameState.WHITE_WON, game.getState() );
+        assertTrue( game.getLastMove().getActions().contains( ActionType.CHECKMATE ) );
+        assertTrue( game.isFinished() );
+
+        game.undoLastMove();
+        assertEquals( GameState.WHITE_TO_MOVE, game.getState() );
+    }
+
+    @DisplayName( "Testing a pending status is dropped by a new position" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @CsvSource( {
+            "MODULE_BASED",
+            "BITBOARD"
+    } )
+    void testPendingStatusDropped( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig( "k3/3R/4/2QK w - - 7 30" ), type );
+        assertTrue( game.makeMove( new Move( new Vector2I( 2, 0 ), new Vector2I( 2, 2 ) ) ) );
+        MoveHistory pending = game.getLastMove();
+
+        game.setGame( "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", new FenNotation() );
+        assertEquals( GameState.WHITE_TO_MOVE, game.getState() );
+        assertEquals( 1, game.getMoveNumber() );
+        assertEquals( 0, game.getHalfMoveRuleCount() );
+        assertFalse( pending.getActions().contains( ActionType.CHECK ) );
+    }
+
+    @DisplayName( "Testing threefold repetition" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @CsvSource( {
+            "MODULE_BASED",
+            "BITBOARD"
+    } )
+    void testRepetition( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig(), type );
+        Move[] shuffle = new Move[]{
+                new Move( new Vector2I( 6, 0 ), new Vector2I( 5, 2 ) ),
+                new Move( new Vector2I( 6, 7 ), new Vector2I( 5, 5 ) ),
+                new Move( new Vector2I( 5, 2 ), new Vector2I( 6, 0 ) ),
+                new Move( new Vector2I( 5, 5 ), new Vector2I( 6, 7 ) )
+        };
+
+        assertFalse( game.isRepetition() );
+        for ( Move move : shuffle ) {
+            assertTrue( game.makeMove( move ) );
+        }
+        assertTrue( game.isRepetition() );
+        assertEquals( 2, game.getRepetitionCount() );
+        assertEquals( GameState.WHITE_TO_MOVE, game.getState() );
+
+        for ( Move move : shuffle ) {
+            assertTrue( game.makeMove( move ) );
+        }
+        assertEquals( 3, game.getRepetitionCount() );
+        assertEquals( GameState.TIE, game.getState() );
+        assertTrue( game.isFinished() );
+
+        game.undoLastMove();
+        assertEquals( 2, game.getRepetitionCount() );
+        assertEquals( GameState.BLACK_TO_MOVE, game.getState() );
+    }
+
+    @DisplayName( "Testing threefold repetition after a double push" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @CsvSource( {
+            "MODULE_BASED",
+            "BITBOARD"
+    } )
+    void testRepetitionAfterDoublePush( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig( "4k3/3p4/8/4p3/5N2/8/8/4K3 b - -" ), type );
+        // the knight captures the double pushed pawn, the position repeats without a pawn to capture au passant
+        assertTrue( game.makeMove( new Move( new Vector2I( 3, 6 ), new Vector2I( 3, 4 ) ) ) );
+        assertTrue( game.makeMove( new Move( new Vector2I( 5, 3 ), new Vector2I( 3, 4 ) ) ) );
+        Move[] shuffle = new Move[]{
+                new Move( new Vector2I( 4, 7 ), new Vector2I( 5, 7 ) ),
+                new Move( new Vector2I( 4, 0 ), new Vector2I( 5, 0 ) ),
+                new Move( new Vector2I( 5, 7 ), new Vector2I( 4, 7 ) ),
+                new Move( new Vector2I( 5, 0 ), new Vector2I( 4, 0 ) )
+        };
+
+        for ( Move move : shuffle ) {
+            assertTrue( game.makeMove( move ) );
+        }
+        assertEquals( 2, game.getRepetitionCount() );
+        assertEquals( GameState.BLACK_TO_MOVE, game.getState() );
+
+        for ( Move move : shuffle ) {
+            assertTrue( game.makeMove( move ) );
+        }
+        assertEquals( 3, game.getRepetitionCount() );
+        assertEquals( GameState.TIE, game.getState() );
+    }
 
 }
@@ -0,0 +1,122 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.values.ActionType;
+import backend.core.values.GameState;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.GameSnapshot;
+import math.Vector2I;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameSnapshotTest {
+
+    @DisplayName( "Testing snapshot publishing" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testPublish( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig(), type );
+        GameSnapshot initial = game.getSnapshot();
+        assertEquals( TeamColor.WHITE, initial.getOnMove() );
+        assertNull( initial.getLastMove() );
+
+        Move move = game.getPossibleMoves( TeamColor.WHITE ).get( 0 );
+        game.makeMove( move );
+        GameSnapshot moved = game.getSnapshot();
+        assertEquals( TeamColor.BLACK, moved.getOnMove() );
+        assertEquals( move, moved.getLastMove().getMove() );
+        assertNotNull( moved.getPiece( move.getTo() ) );
+        assertNull( moved.getPiece( move.getFrom() ) );
+
+        game.beginSilent();
+        game.undoLastMove();
+        assertSame( moved, game.getSnapshot() );
+        game.endSilent();
+        assertEquals( TeamColor.WHITE, game.getSnapshot().getOnMove() );
+        assertNull( initial.getPiece( move.getTo() ) );
+    }
+
+    @DisplayName( "Testing snapshot reads while moves are made" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testConcurrentReads( GameType type ) throws InterruptedException {
+
+        Game game = Game.getInstance( new GameConfig(), type );
+        game.getSnapshot();
+        AtomicBoolean running = new AtomicBoolean( true );
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread( () -> {
+            while ( running.get() && failure.get() == null ) {
+                GameSnapshot snapshot = game.getSnapshot();
+                // white starts, so white is on move after an even number of moves
+                boolean whiteOnMove = snapshot.getHistory().size() % 2 == 0;
+                if ( whiteOnMove != snapshot.isOnMove( TeamColor.WHITE ) ) {
+                    failure.set( "torn snapshot after " + snapshot.getHistory().size() + " moves" );
+                }
+            }
+        } );
+        reader.start();
+
+        for ( int i = 0; i < 20; i++ ) {
+            List<Move> moves = game.getPossibleMoves( game.getOnMove() );
+            if ( moves.isEmpty() ) {
+                break;
+            }
+            game.makeMove( moves.get( i % moves.size() ) );
+        }
+        while ( !game.getHistory().isEmpty() ) {
+            game.undoLastMove();
+        }
+        running.set( false );
+        reader.join();
+
+        assertNull( failure.get() );
+        assertEquals( 0, game.getSnapshot().getHistory().size() );
+    }
+
+    @DisplayName( "Testing snapshots of a pending status" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testPendingStatus( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig(), type );
+        game.getSnapshot();
+        game.makeMove( new Move( new Vector2I( 5, 1 ), new Vector2I( 5, 2 ) ) );
+        game.makeMove( new Move( new Vector2I( 4, 6 ), new Vector2I( 4, 4 ) ) );
+        game.makeMove( new Move( new Vector2I( 6, 1 ), new Vector2I( 6, 3 ) ) );
+        game.makeMove( new Move( new Vector2I( 3, 7 ), new Vector2I( 7, 3 ) ) );
+
+        // the snapshot does not evaluate the checkmate
+        GameSnapshot pending = game.getSnapshot();
+        assertTrue( pending.isStatusPending() );
+        assertEquals( GameState.WHITE_TO_MOVE, pending.getState() );
+        assertFalse( pending.getLastMove().getActions().contains( ActionType.CHECKMATE ) );
+        assertTrue( pending.isStatusPending() );
+
+        // resolving the status publishes a new snapshot, the pending one is unchanged
+        assertEquals( GameState.BLACK_WON, game.getState() );
+        GameSnapshot resolved = game.getSnapshot();
+        assertFalse( resolved.isStatusPending() );
+        assertEquals( GameState.BLACK_WON, resolved.getState() );
+        assertTrue( resolved.getLastMove().getActions().contains( ActionType.CHECKMATE ) );
+        assertFalse( pending.getLastMove().getActions().contains( ActionType.CHECKMATE ) );
+    }
+
+}
@@ -4,6 +4,7 @@ import backend.core.model.MoveHistory;
 import backend.core.model.Piece;
 import backend.core.notation.AlgebraicNotation;
 import backend.core.values.ActionType;
+import backend.core.values.GameType;
 import backend.core.values.PieceType;
 import backend.game.Game;
 import backend.game.GameConfig;
@@ -15,14 +16,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class MoveActionsTest {
 
-    @ParameterizedTest( name = "Testing checkmate move actions: {index} => placement={0} move={1}" )
+    @ParameterizedTest( name = "Testing checkmate move actions: {index} => placement={0} move={1} type={2}" )
     @CsvSource( {
-            "'k3/2RQ/4/3K w - -', '1.Qd4'"
+            "'k3/2RQ/4/3K w - -', '1.Qd4', MODULE_BASED",
+            "'k3/2RQ/4/3K w - -', '1.Qd4', BITBOARD"
     } )
-    void testCheckmateMoves( String placementPattern, String moveNotation ) {
+    void testCheckmateMoves( String placementPattern, String moveNotation, GameType type ) {
 
         GameConfig config = new GameConfig( placementPattern );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         AlgebraicNotation.applyMoves( game, moveNotation );
         MoveHistory moveHistory = game.getLastMove();
@@ -34,14 +36,15 @@ public class MoveActionsTest {
         assertTrue( game.isFinished() );
     }
 
-    @ParameterizedTest( name = "Testing stalemate move actions: {index} => placement={0} move={1}" )
+    @ParameterizedTest( name = "Testing stalemate move actions: {index} => placement={0} move={1} type={2}" )
     @CsvSource( {
-            "'k3/2RQ/4/3K w - -', '1.Rb3'"
+            "'k3/2RQ/4/3K w - -', '1.Rb3', MODULE_BASED",
+            "'k3/2RQ/4/3K w - -', '1.Rb3', BITBOARD"
     } )
-    void testStalemateMoves( String placementPattern, String moveNotation ) {
+    void testStalemateMoves( String placementPattern, String moveNotation, GameType type ) {
 
         GameConfig config = new GameConfig( placementPattern );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         AlgebraicNotation.applyMoves( game, moveNotation );
         MoveHistory moveHistory = game.getLastMove();
@@ -53,15 +56,17 @@ public class MoveActionsTest {
         assertTrue( game.isFinished() );
     }
 
-    @ParameterizedTest( name = "Testing queen promotion move actions: {index} => placement={0} move={1}" )
+    @ParameterizedTest( name = "Testing queen promotion move actions: {index} => placement={0} move={1} type={2}" )
     @CsvSource( {
-            "'k3/3P/4/3K w - -', '1.d4=Q'",
-            "'k3/4/p3/3K w - -', '1.Kc1 a1=Q'"
+            "'k3/3P/4/3K w - -', '1.d4=Q', MODULE_BASED",
+            "'k3/3P/4/3K w - -', '1.d4=Q', BITBOARD",
+            "'k3/4/p3/3K w - -', '1.Kc1 a1=Q', MODULE_BASED",
+            "'k3/4/p3/3K w - -', '1.Kc1 a1=Q', BITBOARD"
     } )
-    void testQueenPromotion( String placementPattern, String moveNotation ) {
+    void testQueenPromotion( String placementPattern, String moveNotation, GameType type ) {
 
         GameConfig config = new GameConfig( placementPattern );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         AlgebraicNotation.applyMoves( game, moveNotation );
         MoveHistory moveHistory = game.getLastMove();
@@ -77,15 +82,17 @@ public class MoveActionsTest {
 
     }
 
-    @ParameterizedTest( name = "Testing bishop promotion move actions: {index} => placement={0} move={1}" )
+    @ParameterizedTest( name = "Testing bishop promotion move actions: {index} => placement={0} move={1} type={2}" )
     @CsvSource( {
-            "'k3/3P/4/3K w - -', '1.d4=B'",
-            "'k3/4/p3/3K w - -', '1.Kc1 a1=B'"
+            "'k3/3P/4/3K w - -', '1.d4=B', MODULE_BASED",
+            "'k3/3P/4/3K w - -', '1.d4=B', BITBOARD",
+            "'k3/4/p3/3K w - -', '1.Kc1 a1=B', MODULE_BASED",
+            "'k3/4/p3/3K w - -', '1.Kc1 a1=B', BITBOARD"
     } )
-    void testBishopPromotion( String placementPattern, String moveNotation ) {
+    void testBishopPromotion( String placementPattern, String moveNotation, GameType type ) {
 
         GameConfig config = new GameConfig( placementPattern );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         AlgebraicNotation.applyMoves( game, moveNotation );
         MoveHistory moveHistory = game.getLastMove();
@@ -101,15 +108,17 @@ public class MoveActionsTest {
 
     }
 
-    @ParameterizedTest( name = "Testing au passant success move actions: {index} => placement={0} move={1}" )
+    @ParameterizedTest( name = "Testing au passant success move actions: {index} => placement={0} move={1} type={2}" )
     @CsvSource( {
-            "'k4/1p3/5/2P2/4K w - -', '1.c4 bxc3'",
-            "'k4/1p3/5/2P2/4K w - -', '1.Kd1 b2 2.cxb3'"
+            "'k4/1p3/5/2P2/4K w - -', '1.c4 bxc3', MODULE_BASED",
+            "'k4/1p3/5/2P2/4K w - -', '1.c4 bxc3', BITBOARD",
+            "'k4/1p3/5/2P2/4K w - -', '1.Kd1 b2 2.cxb3', MODULE_BASED",
+            "'k4/1p3/5/2P2/4K w - -', '1.Kd1 b2 2.cxb3', BITBOARD"
     } )
-    void testAuPassantSuccessMoves( String placementPattern, String moveNotation ) {
+    void testAuPassantSuccessMoves( String placementPattern, String moveNotation, GameType type ) {
 
         GameConfig config = new GameConfig( placementPattern );
-        Game game = Game.getInstance( config );
+        Game game = Game.getInstance( config, type );
 
         AlgebraicNotation.applyMoves( game, moveNotation );
         MoveHistory moveHistory = game.getLastMove();
@@ -0,0 +1,58 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.model.MoveCode;
+import backend.core.model.MoveList;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveListTest {
+
+    @ParameterizedTest( name = "Testing packed moves: {index} => placement={0}" )
+    @CsvSource( {
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -', 48",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -', 14",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', 6",
+            "'rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8', 44"
+    } )
+    void testPackedMoves( String placementPattern, int legalMoves ) {
+
+        for ( GameType type : GameType.values() ) {
+
+            Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+
+            MoveList moves = new MoveList( 4 );
+            game.generateMoves( moves );
+            Set<Move> decoded = new HashSet<>();
+            for ( int i = 0; i < moves.size(); i++ ) {
+                decoded.add( game.toMove( moves.get( i ) ) );
+            }
+            assertEquals( legalMoves, decoded.size(), type.name() );
+            assertEquals( new HashSet<>( game.getPossibleMoves( game.getOnMove() ) ), decoded, type.name() );
+
+            int[] visited = { 0 };
+            assertTrue( game.visitMoves( move -> {
+                assertTrue( moves.contains( move ), type.name() );
+                visited[0]++;
+                return true;
+            } ) );
+            assertEquals( moves.size(), visited[0], type.name() );
+            assertFalse( game.visitMoves( move -> false ) );
+
+            int move = moves.get( 0 );
+            assertTrue( game.makeMove( move ), type.name() );
+            assertEquals( game.toMove( move ), game.getLastMove().getMove(), type.name() );
+            game.undoLastMove();
+            assertFalse( game.makeMove( MoveCode.NONE ), type.name() );
+        }
+    }
+
+}
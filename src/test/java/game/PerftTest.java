@@ -1,18 +1,26 @@
 package game;
 
-import backend.core.model.Piece;
-import backend.core.model.Validation;
+import backend.core.values.GameType;
 import backend.game.Game;
 import backend.game.GameConfig;
+import backend.game.perft.ParallelPerft;
+import backend.game.perft.Perft;
+import backend.game.perft.PerftResult;
+import backend.game.perft.PerftSuite;
+import backend.game.perft.PerftSuiteReport;
+import backend.game.perft.PerftTable;
 import misc.Log;
 import misc.Timer;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * https://www.chessprogramming.org/Perft_Results
@@ -130,31 +138,97 @@ public class PerftTest {
         for ( int i = 0; i <= maxDepth; i++ ) {
             Timer timer = new Timer();
             Game game = Game.getInstance( config );
-            long calculatedNodes = getPossibleNodesInDepth( game, i );
+            long calculatedNodes = new Perft( game ).count( i );
             long actualNodes = possibleNodesPerDepth.get( i );
             Log.info( "{}::{}: {}/{} searched nodes in {}s", test, i, calculatedNodes, actualNodes, timer.getTimeSinceSec() );
             assertEquals( actualNodes, calculatedNodes );
         }
     }
 
-    long getPossibleNodesInDepth( Game game, int depth ) {
-        if ( depth == 0 ) {
-            return 1L;
-        }
-        long legalMoves = 0L;
-        for ( Piece piece : game.getTeam( game.getOnMove() ).getAlive() ) {
-            List<Validation> pieceMoves = game.validate( game.getPosition( piece ) ).stream()
-                    .filter( Validation::isLegal ).collect( Collectors.toList() );
-            for ( Validation v : pieceMoves ) {
-
-                game.makeMove( v.getMove() );
-
-                long possibleNodes = getPossibleNodesInDepth( game, depth - 1 );
-                legalMoves += possibleNodes;
-                game.undoLastMove();
-            }
+    @DisplayName( "Testing perft move type breakdown" )
+    @ParameterizedTest( name = "{index} => type={0}, placement={1}, depth={2}" )
+    @CsvSource( {
+            "MODULE_BASED, rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -, 3, 8902, 34, 0, 0, 0, 12, 0",
+            "BITBOARD, rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -, 3, 8902, 34, 0, 0, 0, 12, 0",
+            "MODULE_BASED, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 2, 2039, 351, 1, 91, 0, 3, 0",
+            "BITBOARD, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 2, 2039, 351, 1, 91, 0, 3, 0",
+            "BITBOARD, 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -, 4, 43238, 3348, 123, 0, 0, 1680, 17"
+    } )
+    void testBreakdown( GameType type, String placementPattern, int depth, long nodes, long captures, long auPassants,
+                        long castles, long promotions, long checks, long checkmates ) {
+
+        Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+        PerftResult result = new Perft( game ).run( depth, true, true );
+
+        assertEquals( nodes, result.getNodes() );
+        assertEquals( captures, result.getCaptures() );
+        assertEquals( auPassants, result.getAuPassants() );
+        assertEquals( castles, result.getCastles() );
+        assertEquals( promotions, result.getPromotions() );
+        assertEquals( checks, result.getChecks() );
+        assertEquals( checkmates, result.getCheckmates() );
+        assertEquals( nodes, result.getDivide().values().stream().mapToLong( Long::longValue ).sum() );
+    }
+
+    @DisplayName( "Testing hashed perft" )
+    @ParameterizedTest( name = "{index} => type={0}, placement={1}, depth={2}" )
+    @CsvSource( {
+            "MODULE_BASED, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 3, 97862",
+            "BITBOARD, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 4, 4085603",
+            "BITBOARD, r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1, 5, 15833292",
+            "BITBOARD, 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -, 5, 674624"
+    } )
+    void testHashed( GameType type, String placementPattern, int depth, long nodes ) {
+
+        Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+        PerftTable table = PerftTable.ofMegabytes( 16 );
+        Perft perft = new Perft( game, table );
+
+        assertEquals( nodes, perft.count( depth ) );
+        assertEquals( nodes, perft.count( depth ) );
+        assertTrue( table.getHits() > 0L );
+    }
+
+    @DisplayName( "Testing parallel perft" )
+    @ParameterizedTest( name = "{index} => type={0}, placement={1}, depth={2}" )
+    @CsvSource( {
+            "MODULE_BASED, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 2",
+            "BITBOARD, r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -, 4",
+            "BITBOARD, 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -, 4"
+    } )
+    void testParallel( GameType type, String placementPattern, int depth ) {
+
+        Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+        PerftResult sequential = new Perft( game ).run( depth, true, true );
+
+        for ( int threads : new int[]{ 1, 4 } ) {
+            PerftResult parallel = new ParallelPerft( game ).run( depth, threads, true, true );
+            assertEquals( sequential.getNodes(), parallel.getNodes() );
+            assertEquals( sequential.getChecks(), parallel.getChecks() );
+            assertEquals( sequential.getCaptures(), parallel.getCaptures() );
+            assertEquals( sequential.getDivide(), parallel.getDivide() );
         }
-        return legalMoves;
+    }
+
+    @DisplayName( "Testing perft suite" )
+    @ParameterizedTest( name = "{index} => type={0}, depth={1}" )
+    @CsvSource( {
+            "MODULE_BASED, 2",
+            "BITBOARD, 3"
+    } )
+    void testSuite( GameType type, int depth ) {
+
+        List<PerftSuite.Position> positions = PerftSuite.readResource( PerftSuite.DEFAULT_SUITE_PATH );
+        PerftSuiteReport report = new PerftSuite( type, depth, 0L, 1, null ).run( positions );
+
+        assertTrue( report.isPassed(), report.format() );
+        assertEquals( positions.size(), report.getPassedCount() );
+        assertTrue( report.getPositions().stream().allMatch( position -> position.getDepth() == depth ) );
+
+        PerftSuite.Position wrong = PerftSuite.Position.parse( "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ;D1 20 ;D2 401" );
+        PerftSuiteReport failed = new PerftSuite( type, depth, 0L, 1, null ).run( List.of( wrong ) );
+        assertEquals( 1, failed.getFailedCount() );
+        assertTrue( failed.toJson().contains( "\"passed\": false" ) );
     }
 
 }
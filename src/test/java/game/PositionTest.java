@@ -0,0 +1,101 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.notation.FenNotation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.Position;
+import math.Vector2I;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    void testPerft() {
+        Position position = Position.of( new GameConfig( KIWIPETE ) );
+        assertEquals( 97862L, perft( position, 3 ) );
+    }
+
+    @Test
+    void testImmutable() {
+
+        Position position = Position.of( new GameConfig( KIWIPETE ) );
+        String fen = position.toFen();
+
+        for ( Move move : position.getLegalMoves() ) {
+            Position child = position.withMove( move );
+            assertNotEquals( position, child );
+            assertEquals( fen, position.toFen() );
+        }
+        assertEquals( KIWIPETE, fen );
+        assertThrows( IllegalArgumentException.class, () -> position.withMove( new Move( new Vector2I( 0, 0 ), new Vector2I( 0, 5 ) ) ) );
+    }
+
+    @Test
+    void testPendingStatus() {
+
+        for ( GameType type : GameType.values() ) {
+            Game game = Game.getInstance( new GameConfig( KIWIPETE ), type );
+            game.getSnapshot();
+            Move move = Position.of( game ).getLegalMoves().get( 0 );
+            game.makeMove( move );
+
+            // taking the position does not evaluate check, checkmate and stalemate of the move
+            Position position = Position.of( game );
+            assertTrue( game.getSnapshot().isStatusPending(), type.name() );
+            assertEquals( Position.of( game.getConfig() ).withMove( move ), position, type.name() );
+        }
+    }
+
+    @Test
+    void testGameConversion() {
+
+        FenNotation fen = new FenNotation();
+        for ( GameType type : GameType.values() ) {
+            Game game = Game.getInstance( new GameConfig( KIWIPETE ), type );
+            assertEquals( Position.of( game.getConfig() ), Position.of( game ) );
+            assertEquals( KIWIPETE, fen.write( Position.of( game ).toGame( type ) ) );
+        }
+
+        Game game = Game.getInstance( new GameConfig( KIWIPETE ), GameType.BITBOARD );
+        Position position = Position.of( game );
+        for ( int i = 0; i < 6; i++ ) {
+            List<Move> moves = position.getLegalMoves();
+            Move move = moves.get( i * 7 % moves.size() );
+            game.makeMove( move );
+            position = position.withMove( move );
+            assertEquals( Position.of( game ), position );
+            assertEquals( fen.write( game ), position.toFen() );
+        }
+    }
+
+    @Test
+    void testConcurrentReads() {
+        Position position = Position.of( new GameConfig( KIWIPETE ) );
+        long total = IntStream.range( 0, 8 ).parallel()
+                .mapToLong( i -> perft( position, 2 ) )
+                .sum();
+        assertEquals( 8 * 2039L, total );
+    }
+
+    private long perft( Position position, int depth ) {
+        List<Move> moves = position.getLegalMoves();
+        if ( depth == 1 ) {
+            return moves.size();
+        }
+        long nodes = 0L;
+        for ( Move move : moves ) {
+            nodes += perft( position.withMove( move ), depth - 1 );
+        }
+        return nodes;
+    }
+
+}
@@ -0,0 +1,47 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.model.Validation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PseudoLegalTest {
+
+    @ParameterizedTest( name = "Testing pseudo legal moves: {index} => placement={0}" )
+    @CsvSource( {
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -', 48",
+            "'8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -', 14",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1', 6",
+            "'rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8', 44"
+    } )
+    void testPseudoLegalMoves( String placementPattern, int legalMoves ) {
+
+        for ( GameType type : GameType.values() ) {
+
+            Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+
+            Set<Move> legal = new HashSet<>();
+            int pseudoLegal = 0;
+            for ( Validation validation : game.getPseudoLegalValidations( game.getOnMove() ) ) {
+                pseudoLegal++;
+                if ( game.isLegalPseudo( validation.getMove() ) ) {
+                    legal.add( validation.getMove() );
+                }
+            }
+
+            assertTrue( pseudoLegal >= legalMoves, type.name() );
+            assertEquals( legalMoves, legal.size(), type.name() );
+            assertEquals( new HashSet<>( game.getPossibleMoves( game.getOnMove() ) ), legal, type.name() );
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package game;
+
+import backend.bot.SearchLimits;
+import backend.bot.alphabeta.AlphaBetaChessBot;
+import backend.core.model.Move;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchLimitsTest {
+
+    private static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @ParameterizedTest( name = "Testing node budget: nodes={0}" )
+    @CsvSource( { "1", "50", "2000" } )
+    void testNodeBudget( long nodes ) {
+
+        Game game = Game.getInstance( new GameConfig( MIDDLEGAME ) );
+        AlphaBetaChessBot bot = new AlphaBetaChessBot( TeamColor.WHITE );
+        bot.setLimits( SearchLimits.ofNodes( 0, nodes ) );
+
+        Move move = bot.findMove( game );
+        assertNotNull( move );
+        assertTrue( bot.getSearchedNodes() <= nodes );
+        assertTrue( game.makeMove( move ) );
+    }
+
+    @ParameterizedTest( name = "Testing time budgets: type={0}, moveMillis={1}, deadlineMillis={2}" )
+    @CsvSource( {
+            "MODULE_BASED, 100, 0",
+            "MODULE_BASED, 0, 150",
+            "BITBOARD, 100, 0",
+            "BITBOARD, 200, 100"
+    } )
+    void testTimeBudget( GameType type, long moveMillis, long deadlineMillis ) {
+
+        Game game = Game.getInstance( new GameConfig( MIDDLEGAME ), type );
+        AlphaBetaChessBot bot = new AlphaBetaChessBot( TeamColor.WHITE );
+        bot.setLimits( SearchLimits.ofMillis( 0, moveMillis, deadlineMillis ) );
+
+        long start = System.currentTimeMillis();
+        Move move = bot.findMove( game );
+        assertTrue( System.currentTimeMillis() - start < 1000L );
+        assertNotNull( move );
+        assertTrue( game.makeMove( move ) );
+    }
+
+    @Test
+    void testFixedDepth() {
+
+        Game game = Game.getInstance( new GameConfig() );
+        AlphaBetaChessBot bot = new AlphaBetaChessBot( TeamColor.BLACK );
+        bot.setLimits( new SearchLimits( 2, 0L, 0L, 0L ) );
+
+        assertNull( bot.findMove( game ) );
+        bot.makeMove( game );
+        assertTrue( game.isOnMove( TeamColor.WHITE ) );
+
+        bot = new AlphaBetaChessBot( TeamColor.WHITE );
+        bot.setLimits( new SearchLimits( 2, 0L, 0L, 0L ) );
+        bot.makeMove( game );
+        assertTrue( game.isOnMove( TeamColor.BLACK ) );
+    }
+
+}
@@ -0,0 +1,45 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class SilentModeTest {
+
+    @DisplayName( "Testing coalesced events of a silent section" )
+    @ParameterizedTest( name = "{index} => type={0}" )
+    @EnumSource( GameType.class )
+    void testSilent( GameType type ) {
+
+        Game game = Game.getInstance( new GameConfig(), type );
+        AtomicInteger events = new AtomicInteger();
+        game.addListener( g -> events.incrementAndGet() );
+
+        game.beginSilent();
+        game.runSilent( () -> {
+            for ( Move move : game.getPossibleMoves( game.getOnMove() ) ) {
+                game.makeMove( move );
+                game.undoLastMove();
+            }
+        } );
+        assertEquals( 0, events.get() );
+
+        game.endSilent();
+        assertEquals( 1, events.get() );
+        assertFalse( game.isSilent() );
+
+        game.runSilent( () -> {
+        } );
+        assertEquals( 1, events.get() );
+    }
+
+}
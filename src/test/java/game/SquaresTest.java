@@ -0,0 +1,77 @@
+package game;
+
+import backend.core.values.Dir;
+import backend.core.values.GameType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.Squares;
+import math.Vector2I;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SquaresTest {
+
+    @ParameterizedTest( name = "Testing square tables: size={0}" )
+    @ValueSource( ints = { 1, 3, 8, 10 } )
+    void testSteps( int size ) {
+
+        Squares squares = Squares.of( size );
+        assertSame( squares, Squares.of( size ) );
+        for ( int sq = 0; sq < squares.count; sq++ ) {
+            Vector2I p = squares.vectors[sq];
+            assertEquals( sq, squares.square( p ) );
+            assertSame( p, squares.canonical( new Vector2I( p.x, p.y ) ) );
+            for ( Dir dir : Dir.values() ) {
+                Vector2I next = new Vector2I( p.x + dir.vector.x, p.y + dir.vector.y );
+                assertEquals( squares.square( next ), squares.steps[dir.ordinal()][sq] );
+            }
+        }
+        assertEquals( Squares.NO_SQUARE, squares.square( size, 0 ) );
+        assertNull( squares.vector( -1, 0 ) );
+    }
+
+    @ParameterizedTest( name = "Testing ray tables: size={0}" )
+    @ValueSource( ints = { 1, 3, 8, 10, 12 } )
+    void testRays( int size ) {
+
+        Squares squares = Squares.of( size );
+        for ( int sq = 0; sq < squares.count; sq++ ) {
+            Vector2I p = squares.vectors[sq];
+            for ( Dir dir : Dir.values() ) {
+                int[] ray = squares.rays[dir.ordinal()][sq];
+                int target = squares.steps[dir.ordinal()][sq];
+                for ( int i = 0; i < ray.length; i++, target = squares.steps[dir.ordinal()][target] ) {
+                    assertEquals( target, ray[i] );
+                }
+                assertEquals( Squares.NO_SQUARE, target );
+            }
+            assertEquals( p.y == size - 1, squares.isPromotionRank( TeamColor.WHITE, sq ) );
+            assertEquals( p.y == 0, squares.isPromotionRank( TeamColor.BLACK, sq ) );
+        }
+        assertEquals( size - 1, squares.rays[Dir.UP.ordinal()][0].length );
+        assertEquals( 0, squares.baseRanks[TeamColor.WHITE.ordinal()] );
+        assertEquals( size - 1, squares.baseRanks[TeamColor.BLACK.ordinal()] );
+    }
+
+    @Test
+    void testSquareLookups() {
+
+        for ( GameType type : GameType.values() ) {
+            Game game = Game.getInstance( new GameConfig(), type );
+            Squares squares = game.getSquares();
+            for ( int sq = 0; sq < squares.count; sq++ ) {
+                Vector2I p = squares.vectors[sq];
+                assertEquals( game.hasPiece( p ), game.hasPiece( sq ), type.name() );
+                assertEquals( game.getType( p ), game.getType( sq ), type.name() );
+                assertEquals( game.getTeam( p ), game.getTeam( sq ), type.name() );
+                assertEquals( game.isAttacked( p ), game.isAttacked( sq ), type.name() );
+            }
+            assertSame( squares.vector( 4, 0 ), game.getPosition( game.getTeam( game.getOnMove() ).getKing() ), type.name() );
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.model.Piece;
+import backend.core.values.GameType;
+import backend.core.values.PieceType;
+import backend.core.values.TeamColor;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.modulebased.GameMB;
+import backend.game.modulebased.TeamMB;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeamIndexTest {
+
+    @DisplayName( "Testing piece index after make and undo" )
+    @ParameterizedTest( name = "{index} => placement={0}" )
+    @CsvSource( {
+            "r1k1/1P2/4/K3 w - -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -"
+    } )
+    void testIndex( String placementPattern ) {
+
+        GameMB game = ( GameMB ) Game.getInstance( new GameConfig( placementPattern ), GameType.MODULE_BASED );
+        List<Piece> white = game.getWhite().getAlive();
+        List<Piece> black = game.getBlack().getAlive();
+
+        for ( Move move : game.getPossibleMoves( TeamColor.WHITE ) ) {
+            game.makeMove( move );
+            assertIndex( game.getWhite() );
+            assertIndex( game.getBlack() );
+            for ( Move reply : game.getPossibleMoves( TeamColor.BLACK ) ) {
+                game.makeMove( reply );
+                assertIndex( game.getWhite() );
+                assertIndex( game.getBlack() );
+                game.undoLastMove();
+            }
+            game.undoLastMove();
+
+            assertOrder( white, game.getWhite() );
+            assertOrder( black, game.getBlack() );
+        }
+    }
+
+    private void assertOrder( List<Piece> expected, TeamMB team ) {
+        assertEquals( expected.size(), team.getAliveCount() );
+        for ( int i = 0; i < expected.size(); i++ ) {
+            assertSame( expected.get( i ), team.getAlive( i ) );
+        }
+    }
+
+    private void assertIndex( TeamMB team ) {
+        List<Piece> alive = new ArrayList<>();
+        for ( Piece piece : team.getAll() ) {
+            if ( piece.isAlive() ) {
+                alive.add( piece );
+            }
+        }
+        assertEquals( alive.size(), team.getAliveCount() );
+        assertEquals( alive.size(), team.getAlive().size() );
+        for ( PieceType type : PieceType.values() ) {
+            int count = 0;
+            for ( Piece piece : alive ) {
+                if ( piece.isType( type ) ) {
+                    count++;
+                }
+            }
+            assertEquals( count, team.getCount( type ) );
+            for ( int i = 0; i < count; i++ ) {
+                assertTrue( team.getAlive( type, i ).isAlive() && team.getAlive( type, i ).isType( type ) );
+            }
+        }
+        assertSame( team.getKing(), team.getPiecesByType( PieceType.KING ).get( 0 ) );
+    }
+
+}
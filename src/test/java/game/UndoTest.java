@@ -0,0 +1,49 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.notation.ChessNotation;
+import backend.core.notation.FenNotation;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UndoTest {
+
+    @ParameterizedTest( name = "Testing undo of two plies: {index} => placement={0}" )
+    @CsvSource( {
+            "'r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1'",
+            "'r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1'",
+            "'rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3'"
+    } )
+    void testUndo( String placementPattern ) {
+
+        ChessNotation fen = new FenNotation();
+        for ( GameType type : GameType.values() ) {
+
+            Game game = Game.getInstance( new GameConfig( placementPattern ), type );
+            String start = fen.write( game );
+
+            for ( Move move : game.getPossibleMoves( game.getOnMove() ) ) {
+                game.makeMove( move );
+                String afterMove = fen.write( game );
+                int replies = game.getPossibleMoves( game.getOnMove() ).size();
+
+                for ( Move reply : game.getPossibleMoves( game.getOnMove() ) ) {
+                    game.makeMove( reply );
+                    game.undoLastMove();
+                    assertEquals( afterMove, fen.write( game ), type + " " + move + " " + reply );
+                }
+                assertEquals( replies, game.getPossibleMoves( game.getOnMove() ).size() );
+
+                game.undoLastMove();
+                assertEquals( start, fen.write( game ), type + " " + move );
+            }
+            assertEquals( 0, game.getHistory().size() );
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package game;
+
+import backend.core.model.Move;
+import backend.core.values.GameType;
+import backend.game.Game;
+import backend.game.GameConfig;
+import backend.game.Zobrist;
+import math.Vector2I;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZobristTest {
+
+    @DisplayName( "Testing incremental hash against full computation" )
+    @ParameterizedTest( name = "{index} => placement={0}" )
+    @CsvSource( {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ -"
+    } )
+    void testIncremental( String placementPattern ) {
+
+        GameConfig config = new GameConfig( placementPattern );
+        Game mb = Game.getInstance( config, GameType.MODULE_BASED );
+        Game bb = Game.getInstance( config, GameType.BITBOARD );
+        long initial = Zobrist.hash( config );
+        assertEquals( initial, mb.getHash() );
+        assertEquals( initial, bb.getHash() );
+
+        for ( Move move : mb.getPossibleMoves( mb.getOnMove() ) ) {
+            mb.makeMove( move );
+            bb.makeMove( move );
+            assertEquals( Zobrist.hash( mb ), mb.getHash() );
+            assertEquals( mb.getHash(), bb.getHash() );
+            assertNotEquals( initial, mb.getHash() );
+
+            List<Move> replies = mb.getPossibleMoves( mb.getOnMove() );
+            if ( !replies.isEmpty() ) {
+                Move reply = replies.get( replies.size() / 2 );
+                mb.makeMove( reply );
+                bb.makeMove( reply );
+                assertEquals( Zobrist.hash( bb ), bb.getHash() );
+                assertEquals( mb.getHash(), bb.getHash() );
+                mb.undoLastMove();
+                bb.undoLastMove();
+            }
+
+            mb.undoLastMove();
+            bb.undoLastMove();
+            assertEquals( initial, mb.getHash() );
+            assertEquals( initial, bb.getHash() );
+        }
+    }
+
+    @DisplayName( "Testing au passant only counts if the pawn can be captured" )
+    @ParameterizedTest( name = "{index} => with={0}, without={1}, same={2}" )
+    @CsvSource( {
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6, 4k3/8/8/3pP3/8/8/8/4K3 w - -, false",
+            "4k3/8/8/3p4/8/8/4P3/4K3 w - d6, 4k3/8/8/3p4/8/8/4P3/4K3 w - -, true"
+    } )
+    void testAuPassant( String with, String without, boolean same ) {
+
+        assertEquals( same, Zobrist.hash( new GameConfig( with ) ) == Zobrist.hash( new GameConfig( without ) ) );
+    }
+
+    @DisplayName( "Testing au passant expires after one ply" )
+    @ParameterizedTest( name = "{index} => placement={0}" )
+    @CsvSource( {
+            "4k3/3p4/8/4p3/5N2/8/8/4K3 b - -"
+    } )
+    void testAuPassantExpires( String placementPattern ) {
+
+        GameConfig config = new GameConfig( placementPattern );
+        Game mb = Game.getInstance( config, GameType.MODULE_BASED );
+        Game bb = Game.getInstance( config, GameType.BITBOARD );
+        Move[] line = new Move[]{
+                new Move( new Vector2I( 3, 6 ), new Vector2I( 3, 4 ) ),
+                new Move( new Vector2I( 5, 3 ), new Vector2I( 3, 4 ) ),
+                new Move( new Vector2I( 4, 7 ), new Vector2I( 5, 7 ) )
+        };
+
+        for ( Move move : line ) {
+            assertTrue( mb.makeMove( move ) );
+            assertTrue( bb.makeMove( move ) );
+            assertEquals( Zobrist.hash( bb ), bb.getHash() );
+            assertEquals( bb.getHash(), mb.getHash() );
+        }
+        // the knight captured the pawn of the double push, a black pawn stands beside it
+        assertNull( mb.getAuPassantPosition() );
+    }
+
+}